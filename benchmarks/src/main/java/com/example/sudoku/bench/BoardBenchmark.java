@@ -0,0 +1,74 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Cell;
+import com.example.sudoku.model.SudokuModel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Editing and validating a board that the player has partly filled:
+ * {@code setCellValue}, {@code validateAllCells} and the solved/error checks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"2x3", "3x3", "4x4", "5x5"})
+    public String geometry;
+
+    @Param({"0.25", "0.5", "0.9"})
+    public double fillRatio;
+
+    private SudokuModel model;
+    private int row;
+    private int col;
+    private int value;
+
+    @Setup
+    public void setUp() {
+        model = Fixtures.playedModel(BoardGeometry.parse(geometry), fillRatio);
+        int cell = Fixtures.firstEditableCell(model);
+        int size = model.getGeometry().getSize();
+        row = cell / size;
+        col = cell % size;
+        Cell target = model.getCell(row, col);
+        value = target.getValue() == 0 ? 1 : target.getValue();
+    }
+
+    /**
+     * Writes a cell and clears it again, so every invocation starts from the
+     * same board.
+     */
+    @Benchmark
+    public boolean setCellValue() {
+        model.setCellValue(row, col, value);
+        return model.setCellValue(row, col, 0);
+    }
+
+    @Benchmark
+    public void validateAllCells() {
+        model.validateAllCells();
+    }
+
+    @Benchmark
+    public void solvedAndErrorChecks(Blackhole blackhole) {
+        blackhole.consume(model.isBoardSolved());
+        blackhole.consume(model.hasErrors());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.sudoku.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file against a baseline and fails when a score got
+ * worse by more than a tolerance.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.example.sudoku.bench.CompareBaseline
+ * baseline.csv results.csv [tolerancePercent]}
+ * <p>
+ * Primary scores are compared in their own direction (time per operation must
+ * not grow, throughput must not shrink), and so is the normalized allocation
+ * rate reported by {@code -prof gc}. Other profiler counters are too noisy to gate on.
+ */
+public final class CompareBaseline {
+
+    private static final double DEFAULT_TOLERANCE_PERCENT = 15.0;
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private CompareBaseline() {
+    }
+
+    /**
+     * Prints every compared score and exits with 1 if any of them regressed.
+     * @param args The baseline file, the result file and an optional tolerance in percent.
+     * @throws IOException If a file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareBaseline baseline.csv results.csv [tolerancePercent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE_PERCENT;
+        Map<String, Row> baseline = read(args[0]);
+        Map<String, Row> results = read(args[1]);
+
+        int regressions = 0;
+        for (Map.Entry<String, Row> entry : results.entrySet()) {
+            Row before = baseline.get(entry.getKey());
+            Row after = entry.getValue();
+            if (before == null || before.score == 0) {
+                System.out.printf("  new   %s = %.3f %s%n", entry.getKey(), after.score, after.unit);
+                continue;
+            }
+            double change = 100.0 * (after.score - before.score) / before.score;
+            double worse = after.unit.endsWith("/op") ? change : -change;
+            boolean regressed = worse > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%s %s: %.3f -> %.3f %s (%+.1f%%)%n", regressed ? "  WORSE" : "  ok   ",
+                    entry.getKey(), before.score, after.score, after.unit, change);
+        }
+        System.out.printf("%d of %d scores regressed by more than %.1f%%%n", regressions, results.size(), tolerance);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the gated rows of a JMH CSV file, keyed by benchmark name and parameters.
+     * @param file The CSV file written with {@code -rf csv}.
+     * @return The rows in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    private static Map<String, Row> read(String file) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        Map<String, Row> rows = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return rows;
+        }
+        List<String> header = split(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+        for (String line : lines.subList(1, lines.size())) {
+            List<String> fields = split(line);
+            if (fields.size() != header.size()) {
+                continue;
+            }
+            String name = fields.get(benchmark);
+            if (name.contains(":") && !name.endsWith(ALLOCATION_METRIC)) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder(name);
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ")) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(fields.get(i));
+                }
+            }
+            try {
+                rows.put(key.toString(), new Row(Double.parseDouble(fields.get(score)), fields.get(unit)));
+            } catch (NumberFormatException e) {
+                // NaN scores from failed runs are not comparable
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Splits a CSV line, honouring double-quoted fields.
+     * @param line The line.
+     * @return The unquoted fields.
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class Row {
+        final double score;
+        final String unit;
+
+        Row(double score, String unit) {
+            this.score = score;
+            this.unit = unit;
+        }
+    }
+}
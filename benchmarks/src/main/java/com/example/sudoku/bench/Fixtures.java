@@ -0,0 +1,161 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleBank;
+import com.example.sudoku.model.PuzzleGenerator;
+import com.example.sudoku.model.SudokuModel;
+import com.example.sudoku.solver.ConstraintSolver;
+import com.example.sudoku.solver.DancingLinksSolver;
+import com.example.sudoku.solver.ParallelSolver;
+import com.example.sudoku.solver.Solver;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic boards and puzzles shared by the benchmarks.
+ */
+final class Fixtures {
+
+    /** Seed of every random choice made while building fixtures. */
+    static final long SEED = 20240611L;
+
+    private static final int POOL_SIZE = 64;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates a solver by name.
+     * @param name One of {@code constraint}, {@code dancing-links} or {@code parallel}.
+     * @param geometry The block layout of the boards to solve.
+     * @return The solver.
+     */
+    static Solver solver(String name, BoardGeometry geometry) {
+        switch (name) {
+            case "constraint":
+                return new ConstraintSolver(geometry);
+            case "dancing-links":
+                return new DancingLinksSolver(geometry);
+            case "parallel":
+                return new ParallelSolver(geometry);
+            default:
+                throw new IllegalArgumentException("Unknown solver " + name);
+        }
+    }
+
+    /**
+     * Samples puzzles and keeps a quarter of them by search effort.
+     * Large boards get more givens so that the sample stays solvable in
+     * reasonable time.
+     * @param geometry The block layout.
+     * @param hardness Which end of the sample to keep.
+     * @return The givens of the kept puzzles.
+     */
+    static int[][] puzzles(BoardGeometry geometry, Hardness hardness) {
+        ConstraintSolver solver = new ConstraintSolver(geometry);
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, solver);
+        Random random = new Random(SEED);
+
+        List<long[]> rated = new ArrayList<>(); // {nodes, pool index}
+        List<int[]> pool = new ArrayList<>();
+        int[] scratch = new int[geometry.getCells()];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            Puzzle puzzle = generator.generate(random, givensPerBlock(geometry), false);
+            int[] givens = new int[geometry.getCells()];
+            puzzle.copyGivens(givens);
+            System.arraycopy(givens, 0, scratch, 0, scratch.length);
+            solver.solve(scratch);
+            rated.add(new long[]{solver.getStats().getNodes(), i});
+            pool.add(givens);
+        }
+        rated.sort(Comparator.comparingLong((long[] r) -> r[0]).thenComparingLong(r -> r[1]));
+
+        int keep = POOL_SIZE / 4;
+        int from = hardness == Hardness.EASY ? 0 : POOL_SIZE - keep;
+        int[][] kept = new int[keep][];
+        for (int i = 0; i < keep; i++) {
+            kept[i] = pool.get((int) rated.get(from + i)[1]);
+        }
+        return kept;
+    }
+
+    /**
+     * Gets how many givens per block the sampled puzzles keep. Large boards get
+     * more givens so that searching them stays in the millisecond range.
+     * @param geometry The block layout.
+     * @return The givens per block.
+     */
+    static int givensPerBlock(BoardGeometry geometry) {
+        int size = geometry.getSize();
+        return size >= 25 ? (2 * size + 2) / 3 : (size + 1) / 2;
+    }
+
+    /**
+     * Creates a model whose player has already filled part of the empty cells
+     * with correct values. The starting board is served from a one-puzzle bank,
+     * so it is the same on every run and the model never generates one itself.
+     * @param geometry The block layout.
+     * @param fillRatio The share of the initially empty cells to fill, from 0 to 1.
+     * @return The model.
+     */
+    static SudokuModel playedModel(BoardGeometry geometry, double fillRatio) {
+        ConstraintSolver solver = new ConstraintSolver(geometry);
+        Puzzle puzzle = new PuzzleGenerator(geometry, solver).generate(new Random(SEED), givensPerBlock(geometry), false);
+        SudokuModel model;
+        try {
+            Path file = Files.createTempFile("sudoku-bench", ".bank");
+            try {
+                try (PuzzleBank.Writer writer = PuzzleBank.create(file, geometry)) {
+                    writer.add(puzzle, 0);
+                }
+                try (PuzzleBank bank = PuzzleBank.open(file)) {
+                    model = new SudokuModel(geometry, solver, bank);
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int size = geometry.getSize();
+        int[] grid = new int[geometry.getCells()];
+        puzzle.copySolution(grid);
+        List<Integer> empty = new ArrayList<>();
+        for (int i = 0; i < grid.length; i++) {
+            if (puzzle.getGiven(i) == 0) {
+                empty.add(i);
+            }
+        }
+        Collections.shuffle(empty, new Random(SEED));
+        int fill = (int) Math.round(empty.size() * fillRatio);
+        for (int k = 0; k < fill; k++) {
+            int i = empty.get(k);
+            model.setCellValue(i / size, i % size, grid[i]);
+        }
+        return model;
+    }
+
+    /**
+     * Finds the first cell the player can edit.
+     * @param model The model.
+     * @return The cell index.
+     */
+    static int firstEditableCell(SudokuModel model) {
+        BoardGeometry geometry = model.getGeometry();
+        for (int i = 0; i < geometry.getCells(); i++) {
+            if (!model.getCell(geometry.rowOf(i), geometry.colOf(i)).isFixed()) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Board has no editable cell");
+    }
+}
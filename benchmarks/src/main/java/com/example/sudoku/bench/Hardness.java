@@ -0,0 +1,12 @@
+package com.example.sudoku.bench;
+
+/**
+ * How hard a benchmark puzzle is for the search, measured by the number of
+ * nodes the constraint solver needs.
+ */
+public enum Hardness {
+    /** The easiest quarter of a sampled pool. */
+    EASY,
+    /** The hardest quarter of a sampled pool. */
+    HARD
+}
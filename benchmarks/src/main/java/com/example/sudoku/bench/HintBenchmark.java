@@ -0,0 +1,53 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Cell;
+import com.example.sudoku.model.SudokuModel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hint requests on a board that the player has partly filled. The hints are
+ * not applied, so every invocation sees the same board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HintBenchmark {
+
+    @Param({"2x3", "3x3", "4x4", "5x5"})
+    public String geometry;
+
+    @Param({"0.25", "0.5", "0.9"})
+    public double fillRatio;
+
+    private SudokuModel model;
+
+    @Setup
+    public void setUp() {
+        model = Fixtures.playedModel(BoardGeometry.parse(geometry), fillRatio);
+    }
+
+    @Benchmark
+    public Cell getHint() {
+        return model.getHint();
+    }
+
+    @Benchmark
+    public Cell getSmartHint() {
+        return model.getSmartHint();
+    }
+}
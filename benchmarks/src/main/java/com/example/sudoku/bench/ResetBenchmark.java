@@ -0,0 +1,50 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.SudokuModel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starting a new game. Only the geometries the game offers are measured:
+ * with two givens per block, larger boards never have a unique solution, and
+ * a unique reset is mostly spent adding givens until it has one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResetBenchmark {
+
+    @Param({"2x3", "3x3"})
+    public String geometry;
+
+    private SudokuModel model;
+
+    @Setup
+    public void setUp() {
+        model = new SudokuModel(BoardGeometry.parse(geometry));
+    }
+
+    @Benchmark
+    public void resetBoardUnique() {
+        model.resetBoard(true);
+    }
+
+    @Benchmark
+    public void resetBoardAnySolution() {
+        model.resetBoard(false);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.solver.Solver;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Raw solver speed on sampled puzzles of each geometry and hardness. Every
+ * invocation takes the next puzzle of a small pool, so the score is an
+ * average over the pool rather than one lucky board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"2x3", "3x3", "4x4", "5x5"})
+    public String geometry;
+
+    @Param({"constraint", "dancing-links", "parallel"})
+    public String solver;
+
+    @Param({"EASY", "HARD"})
+    public Hardness hardness;
+
+    private Solver engine;
+    private int[][] puzzles;
+    private int[] grid;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BoardGeometry layout = BoardGeometry.parse(geometry);
+        engine = Fixtures.solver(solver, layout);
+        puzzles = Fixtures.puzzles(layout, hardness);
+        grid = new int[layout.getCells()];
+    }
+
+    private int[] nextPuzzle() {
+        int[] puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        System.arraycopy(puzzle, 0, grid, 0, grid.length);
+        return grid;
+    }
+
+    @Benchmark
+    public boolean solve() {
+        return engine.solve(nextPuzzle());
+    }
+
+    /**
+     * The uniqueness check run by the generator.
+     */
+    @Benchmark
+    public int countSolutionsUpToTwo() {
+        return engine.countSolutions(nextPuzzle(), 2);
+    }
+}
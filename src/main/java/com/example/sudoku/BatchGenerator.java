@@ -0,0 +1,286 @@
+package com.example.sudoku;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleBank;
+import com.example.sudoku.model.PuzzleGenerator;
+import com.example.sudoku.model.PuzzleText;
+import com.example.sudoku.solver.ConstraintSolver;
+import com.example.sudoku.solver.LogicalRating;
+import com.example.sudoku.solver.LogicalSolver;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Headless entry point that generates puzzle corpora without starting JavaFX.
+ * <p>
+ * Usage: {@code BatchGenerator [--count N] [--geometry RxC] [--givens K] [--seed S]
+ * [--threads T] [--unique true|false] [--out FILE | --bank FILE]}
+ * <p>
+ * A fixed pool of workers generates puzzles, each with its own generator and
+ * solver. Workers format batches of lines and hand them to the writing thread
+ * through a bounded queue, so they block instead of piling up text when the
+ * output is slower than generation. Every line holds the givens and the solution,
+ * separated by a space (see {@link PuzzleText}). Puzzle {@code i} is always drawn
+ * from the same random seed, so a run is reproducible; the order of the lines
+ * depends on thread scheduling. The throughput is reported on standard error.
+ * <p>
+ * With {@code --bank} the puzzles are written to a binary {@link PuzzleBank}
+ * instead, rated by the hardest human technique they need (see {@link LogicalSolver}).
+ */
+public final class BatchGenerator {
+
+    private static final int BATCH_SIZE = 256;
+    private static final int QUEUE_BATCHES = 64;
+    private static final int BUFFER_CHARS = 1 << 16;
+    // Marks the end of one worker's output in the queue
+    private static final Batch END = new Batch(null, null, null);
+
+    private final BoardGeometry geometry;
+    private final long count;
+    private final int givensPerBlock;
+    private final long seed;
+    private final int threads;
+    private final boolean unique;
+    private final boolean binary;
+
+    private final AtomicLong nextIndex = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+
+    private BatchGenerator(BoardGeometry geometry, long count, int givensPerBlock, long seed,
+                           int threads, boolean unique, boolean binary) {
+        this.geometry = geometry;
+        this.count = count;
+        this.givensPerBlock = givensPerBlock;
+        this.seed = seed;
+        this.threads = threads;
+        this.unique = unique;
+        this.binary = binary;
+    }
+
+    /**
+     * Parses the command line, generates the puzzles and reports the throughput.
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        BoardGeometry geometry = BoardGeometry.SIX;
+        long count = 1000;
+        int givens = 2;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean unique = true;
+        String out = null;
+        String bank = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--count" -> count = Long.parseLong(value);
+                    case "--geometry" -> geometry = BoardGeometry.parse(value);
+                    case "--givens" -> givens = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--unique" -> unique = Boolean.parseBoolean(value);
+                    case "--out" -> out = value;
+                    case "--bank" -> bank = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (count < 0 || givens < 0 || threads < 1) {
+                throw new IllegalArgumentException("count and givens must not be negative, threads must be positive");
+            }
+            if (out != null && bank != null) {
+                throw new IllegalArgumentException("--out and --bank cannot be used together");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BatchGenerator [--count N] [--geometry RxC] [--givens K] [--seed S]"
+                    + " [--threads T] [--unique true|false] [--out FILE | --bank FILE]");
+            System.exit(2);
+            return;
+        }
+
+        BatchGenerator batch = new BatchGenerator(geometry, count, givens, seed, threads, unique, bank != null);
+        long start = System.nanoTime();
+        try {
+            if (bank != null) {
+                try (PuzzleBank.Writer writer = PuzzleBank.create(Paths.get(bank), geometry)) {
+                    batch.run(null, writer);
+                }
+            } else {
+                try (Writer writer = out == null
+                        ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_CHARS)
+                        : Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8)) {
+                    batch.run(writer, null);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error generating puzzles: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Generated %d %s puzzles in %.2f s (%.0f puzzles/s) with %d threads, seed %d%n",
+                count, geometry, seconds, count / Math.max(seconds, 1e-9), threads, seed);
+    }
+
+    /**
+     * Starts the workers and writes their batches until every worker is done.
+     * @param writer The destination of the puzzle lines, or null when writing a bank.
+     * @param bank The destination of the puzzle records, or null when writing text.
+     * @throws IOException If the output cannot be written.
+     */
+    private void run(Writer writer, PuzzleBank.Writer bank) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "puzzle-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int t = 0; t < threads; t++) {
+            pool.execute(this::work);
+        }
+        pool.shutdown();
+
+        int running = threads;
+        try {
+            while (running > 0) {
+                Batch batch = queue.take();
+                if (batch == END) {
+                    running--;
+                } else if (bank != null) {
+                    for (int i = 0; i < batch.puzzles.length; i++) {
+                        bank.add(batch.puzzles[i], batch.difficulties[i]);
+                    }
+                } else {
+                    writer.write(batch.text);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+            throw new IOException("Interrupted while writing puzzles", e);
+        } catch (IOException e) {
+            // Unblock the workers so the pool can wind down
+            failure.compareAndSet(null, e);
+            pool.shutdownNow();
+            throw e;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IllegalStateException("A generator worker failed", error);
+        }
+    }
+
+    /**
+     * Worker loop: claims puzzle indices in batches until the count is reached.
+     * Whatever it throws is kept for the writer, and it always ends with {@link #END}.
+     */
+    private void work() {
+        try {
+            ConstraintSolver solver = new ConstraintSolver(geometry);
+            PuzzleGenerator generator = new PuzzleGenerator(geometry, solver);
+            LogicalSolver rater = binary ? new LogicalSolver(geometry) : null;
+            int[] grid = new int[geometry.getCells()];
+            Random random = new Random();
+            while (failure.get() == null) {
+                long first = nextIndex.getAndAdd(BATCH_SIZE);
+                if (first >= count) {
+                    break;
+                }
+                int size = (int) (Math.min(first + BATCH_SIZE, count) - first);
+                Puzzle[] puzzles = binary ? new Puzzle[size] : null;
+                byte[] difficulties = binary ? new byte[size] : null;
+                StringBuilder lines = binary ? null : new StringBuilder(size * (2 * grid.length + 2));
+                for (int k = 0; k < size; k++) {
+                    random.setSeed(puzzleSeed(first + k));
+                    Puzzle puzzle = generator.generate(random, givensPerBlock, unique);
+                    if (binary) {
+                        puzzles[k] = puzzle;
+                        difficulties[k] = (byte) rate(puzzle, rater, grid);
+                        continue;
+                    }
+                    puzzle.copyGivens(grid);
+                    PuzzleText.append(geometry, grid, lines);
+                    lines.append(' ');
+                    puzzle.copySolution(grid);
+                    PuzzleText.append(geometry, grid, lines);
+                    lines.append('\n');
+                }
+                queue.put(new Batch(binary ? null : lines.toString(), puzzles, difficulties));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return; // The writer gave up; nobody is waiting for END
+        } catch (Throwable e) {
+            // También los Error: sin END el escritor esperaría para siempre
+            failure.compareAndSet(null, e);
+        }
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rates a puzzle by the hardest technique a player needs to solve it.
+     * @param puzzle The puzzle to rate.
+     * @param rater The worker's logical solver.
+     * @param grid A scratch array with room for every cell.
+     * @return The score in tenths (see {@link LogicalRating#getScore()}).
+     */
+    private static int rate(Puzzle puzzle, LogicalSolver rater, int[] grid) {
+        puzzle.copyGivens(grid);
+        return rater.rate(grid).getScore();
+    }
+
+    /**
+     * Derives the seed of one puzzle from the run seed (SplitMix64 finalizer),
+     * so neighbouring indices get unrelated random sequences.
+     * @param index The puzzle index.
+     * @return The seed of the puzzle.
+     */
+    private long puzzleSeed(long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * One worker's share of the output: formatted lines, or puzzles with their
+     * difficulties when writing a bank.
+     */
+    private static final class Batch {
+        final String text;
+        final Puzzle[] puzzles;
+        final byte[] difficulties;
+
+        Batch(String text, Puzzle[] puzzles, byte[] difficulties) {
+            this.text = text;
+            this.puzzles = puzzles;
+            this.difficulties = difficulties;
+        }
+    }
+}
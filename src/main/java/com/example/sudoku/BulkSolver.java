@@ -0,0 +1,423 @@
+package com.example.sudoku;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.PuzzleText;
+import com.example.sudoku.solver.ConstraintSolver;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Headless entry point that solves puzzle files of any length without starting JavaFX.
+ * <p>
+ * Usage: {@code BulkSolver [--in FILE] [--out FILE] [--geometry RxC] [--threads T]}
+ * <p>
+ * Every input line holds one board in the compact {@link PuzzleText} form;
+ * anything after the first space is ignored, so the output of
+ * {@link BatchGenerator} can be fed back as is. Without {@code --geometry} the
+ * layout is chosen by the length of the line: 36 cells for 6x6, 81 for 9x9.
+ * Every input line gets one output line, in the same order: the solution,
+ * {@code conflict} if two givens clash (the rules of {@link Board}),
+ * {@code unsolvable}, {@code invalid} if the line is not a board, or an empty
+ * line for an empty one.
+ * <p>
+ * A reader thread fills large byte chunks from the input channel and hands
+ * whole lines to a fixed pool of workers, which parse the digits straight from
+ * the bytes and format their answers into a byte buffer of the chunk. The
+ * writing thread puts the chunks back in input order. A fixed set of chunks is
+ * recycled, so memory stays the same whatever the size of the file. The
+ * throughput is reported on standard error.
+ */
+public final class BulkSolver {
+
+    private static final int CHUNK_BYTES = 1 << 20;
+    // Chunks per worker: one being solved and one waiting, plus the reader's and the writer's
+    private static final int CHUNKS_PER_THREAD = 2;
+    private static final byte[] CONFLICT = ascii("conflict");
+    private static final byte[] UNSOLVABLE = ascii("unsolvable");
+    private static final byte[] INVALID = ascii("invalid");
+    // Marks the end of the input in the queue of finished chunks
+    private static final Chunk END = new Chunk(0);
+
+    private final BoardGeometry geometry;
+    private final int threads;
+    private final Chunk[] chunks;
+
+    private final BlockingQueue<Chunk> free;
+    private final BlockingQueue<Chunk> finished;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final ThreadLocal<Map<BoardGeometry, Engine>> engines = ThreadLocal.withInitial(HashMap::new);
+    private volatile long chunkCount = -1;
+
+    private long lines;
+    private long solved;
+    private long conflicts;
+    private long unsolvable;
+    private long invalid;
+
+    private BulkSolver(BoardGeometry geometry, int threads) {
+        this.geometry = geometry;
+        this.threads = threads;
+        this.chunks = new Chunk[threads * CHUNKS_PER_THREAD + 2];
+        this.free = new ArrayBlockingQueue<>(chunks.length);
+        this.finished = new ArrayBlockingQueue<>(chunks.length + 1);
+        for (int k = 0; k < chunks.length; k++) {
+            chunks[k] = new Chunk(CHUNK_BYTES);
+            free.add(chunks[k]);
+        }
+    }
+
+    /**
+     * Parses the command line, solves the puzzles and reports the throughput.
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        BoardGeometry geometry = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String in = null;
+        String out = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--in" -> in = value;
+                    case "--out" -> out = value;
+                    case "--geometry" -> geometry = BoardGeometry.parse(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads must be positive");
+            }
+            if (geometry != null && !PuzzleText.isCompact(geometry)) {
+                throw new IllegalArgumentException(geometry + " boards have no one-character-per-cell form");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BulkSolver [--in FILE] [--out FILE] [--geometry RxC] [--threads T]");
+            System.exit(2);
+            return;
+        }
+
+        BulkSolver bulk = new BulkSolver(geometry, threads);
+        long start = System.nanoTime();
+        try (ReadableByteChannel input = in == null
+                     ? new FileInputStream(FileDescriptor.in).getChannel()
+                     : FileChannel.open(Paths.get(in), StandardOpenOption.READ);
+             WritableByteChannel output = out == null
+                     ? new FileOutputStream(FileDescriptor.out).getChannel()
+                     : FileChannel.open(Paths.get(out), StandardOpenOption.CREATE,
+                             StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            bulk.run(input, output);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error solving puzzles: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Read %d lines in %.2f s (%.0f lines/s) with %d threads: %d solved, %d conflict,"
+                        + " %d unsolvable, %d invalid%n", bulk.lines, seconds, bulk.lines / Math.max(seconds, 1e-9),
+                threads, bulk.solved, bulk.conflicts, bulk.unsolvable, bulk.invalid);
+    }
+
+    /**
+     * Starts the reader and the workers, and writes the solved chunks in input
+     * order until the whole input has gone through.
+     * @param input The puzzle lines.
+     * @param output The destination of the answers.
+     * @throws IOException If the input cannot be read or the output cannot be written.
+     */
+    private void run(ReadableByteChannel input, WritableByteChannel output) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "bulk-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread reader = new Thread(() -> read(input, pool), "bulk-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        // A chunk goes back to the reader only once written, so the ones in flight
+        // never span more sequence numbers than there are chunks
+        Chunk[] pending = new Chunk[chunks.length];
+        long next = 0;
+        try {
+            while (chunkCount < 0 || next < chunkCount) {
+                Chunk chunk = finished.take();
+                Throwable error = failure.get();
+                if (error instanceof IOException io) {
+                    throw io;
+                }
+                if (error != null) {
+                    throw new IllegalStateException("A worker failed", error);
+                }
+                if (chunk != END) {
+                    pending[(int) (chunk.sequence % pending.length)] = chunk;
+                }
+                int slot = (int) (next % pending.length);
+                while (pending[slot] != null) {
+                    write(pending[slot], output);
+                    free.put(pending[slot]);
+                    pending[slot] = null;
+                    next++;
+                    slot = (int) (next % pending.length);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing answers", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Reader loop: fills chunks with whole lines and submits them in sequence.
+     * The partial line at the end of a chunk is carried over to the next one.
+     * @param input The puzzle lines.
+     * @param pool The workers.
+     */
+    private void read(ReadableByteChannel input, ExecutorService pool) {
+        byte[] carry = new byte[CHUNK_BYTES];
+        int carried = 0;
+        long sequence = 0;
+        try {
+            boolean eof = false;
+            while (!eof) {
+                Chunk chunk = free.take();
+                System.arraycopy(carry, 0, chunk.input, 0, carried);
+                ByteBuffer buffer = ByteBuffer.wrap(chunk.input, carried, chunk.input.length - carried);
+                while (buffer.hasRemaining()) {
+                    if (input.read(buffer) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                int filled = buffer.position();
+                int length = filled;
+                if (!eof) {
+                    while (length > 0 && chunk.input[length - 1] != '\n') {
+                        length--;
+                    }
+                    if (length == 0) {
+                        throw new IOException("Line longer than " + CHUNK_BYTES + " bytes");
+                    }
+                }
+                carried = filled - length;
+                System.arraycopy(chunk.input, length, carry, 0, carried);
+                if (length == 0) {
+                    free.put(chunk); // Fin de la entrada justo en un límite de línea
+                    continue;
+                }
+                chunk.inputLength = length;
+                chunk.sequence = sequence++;
+                pool.execute(() -> solve(chunk));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return; // The writer gave up
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+        chunkCount = sequence;
+        finished.add(END);
+    }
+
+    /**
+     * Worker task: answers every line of a chunk, then hands it to the writer,
+     * even if it failed; the failure is kept for the writer to report.
+     * @param chunk The chunk to solve.
+     */
+    private void solve(Chunk chunk) {
+        try {
+            chunk.reset();
+            byte[] input = chunk.input;
+            int from = 0;
+            while (from < chunk.inputLength) {
+                int end = from;
+                while (end < chunk.inputLength && input[end] != '\n') {
+                    end++;
+                }
+                // El tablero termina en el primer blanco: se ignora el resto de la línea
+                int last = from;
+                while (last < end && input[last] != ' ' && input[last] != '\t' && input[last] != '\r') {
+                    last++;
+                }
+                answer(chunk, from, last - from);
+                from = end + 1;
+            }
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            // También tras un Error: el escritor espera este trozo
+            finished.add(chunk);
+        }
+    }
+
+    /**
+     * Answers one board and appends the answer line to the chunk's output.
+     * @param chunk The chunk that holds the board.
+     * @param offset The index of the first byte of the board.
+     * @param length The number of bytes of the board.
+     */
+    private void answer(Chunk chunk, int offset, int length) {
+        chunk.lines++;
+        if (length == 0) {
+            chunk.append(null);
+            return;
+        }
+        BoardGeometry lineGeometry = geometryOf(length);
+        if (lineGeometry == null) {
+            chunk.invalid++;
+            chunk.append(INVALID);
+            return;
+        }
+        Engine engine = engines.get().computeIfAbsent(lineGeometry, Engine::new);
+        int[] grid = engine.grid;
+        try {
+            PuzzleText.parse(lineGeometry, chunk.input, offset, length, grid);
+        } catch (IllegalArgumentException e) {
+            chunk.invalid++;
+            chunk.append(INVALID);
+            return;
+        }
+        engine.board.load(grid);
+        if (engine.board.hasConflicts()) {
+            chunk.conflicts++;
+            chunk.append(CONFLICT);
+        } else if (engine.solver.solve(grid)) {
+            chunk.solved++;
+            chunk.ensureRoom(grid.length + 1);
+            chunk.outputLength = PuzzleText.append(lineGeometry, grid, chunk.output, chunk.outputLength);
+            chunk.output[chunk.outputLength++] = '\n';
+        } else {
+            chunk.unsolvable++;
+            chunk.append(UNSOLVABLE);
+        }
+    }
+
+    /**
+     * Chooses the geometry of a board by its length.
+     * @param length The number of cells on the line.
+     * @return The geometry, or null if no geometry has that many cells.
+     */
+    private BoardGeometry geometryOf(int length) {
+        if (geometry != null) {
+            return geometry.getCells() == length ? geometry : null;
+        }
+        if (length == BoardGeometry.SIX.getCells()) {
+            return BoardGeometry.SIX;
+        }
+        if (length == BoardGeometry.NINE.getCells()) {
+            return BoardGeometry.NINE;
+        }
+        return null;
+    }
+
+    /**
+     * Writes the answers of a chunk and adds its counts to the totals.
+     * @param chunk A solved chunk.
+     * @param output The destination of the answers.
+     * @throws IOException If the output cannot be written.
+     */
+    private void write(Chunk chunk, WritableByteChannel output) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(chunk.output, 0, chunk.outputLength);
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        lines += chunk.lines;
+        solved += chunk.solved;
+        conflicts += chunk.conflicts;
+        unsolvable += chunk.unsolvable;
+        invalid += chunk.invalid;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * One worker's solver and scratch state for one geometry.
+     */
+    private static final class Engine {
+        final ConstraintSolver solver;
+        final Board board;
+        final int[] grid;
+
+        Engine(BoardGeometry geometry) {
+            this.solver = new ConstraintSolver(geometry);
+            this.board = new Board(geometry);
+            this.grid = new int[geometry.getCells()];
+        }
+    }
+
+    /**
+     * A slice of the input made of whole lines, with the answers to those lines
+     * and their counts. Chunks are reused for the whole run.
+     */
+    private static final class Chunk {
+        final byte[] input;
+        int inputLength;
+        long sequence;
+        byte[] output;
+        int outputLength;
+        long lines;
+        long solved;
+        long conflicts;
+        long unsolvable;
+        long invalid;
+
+        Chunk(int bytes) {
+            this.input = new byte[bytes];
+            this.output = new byte[bytes];
+        }
+
+        void reset() {
+            outputLength = 0;
+            lines = 0;
+            solved = 0;
+            conflicts = 0;
+            unsolvable = 0;
+            invalid = 0;
+        }
+
+        void ensureRoom(int bytes) {
+            if (outputLength + bytes > output.length) {
+                output = Arrays.copyOf(output, Math.max(output.length * 2, outputLength + bytes));
+            }
+        }
+
+        void append(byte[] word) {
+            int length = word == null ? 0 : word.length;
+            ensureRoom(length + 1);
+            if (word != null) {
+                System.arraycopy(word, 0, output, outputLength, length);
+                outputLength += length;
+            }
+            output[outputLength++] = '\n';
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.sudoku;
 
+import com.example.sudoku.view.SudokuGameStage;
 import com.example.sudoku.view.SudokuWelcomeStage;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -16,6 +17,10 @@ public class Main extends Application {
         try {
             SudokuWelcomeStage welcomeStage = SudokuWelcomeStage.getInstance();
             welcomeStage.show();
+            StartupTimings.mark("welcome shown");
+
+            // Mientras el jugador lee la bienvenida, el juego se prepara en segundo plano
+            SudokuGameStage.preload();
         } catch (IOException e) {
             System.err.println("Error initializing the welcome stage.");
             e.printStackTrace();
@@ -27,6 +32,7 @@ public class Main extends Application {
      * @param args Command line arguments.
      */
     public static void main(String[] args) {
+        StartupTimings.mark("launch");
         // Calls the launch() method from javafx.application.Application
         launch(args);
     }
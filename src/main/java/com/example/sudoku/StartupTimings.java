@@ -0,0 +1,52 @@
+package com.example.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records how long each startup phase takes, from the launch of the application
+ * to the first board on screen, and prints them once as a single line on
+ * standard error. Phases may be marked from any thread.
+ */
+public final class StartupTimings {
+
+    private static final long START = System.nanoTime();
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<Long> times = new ArrayList<>();
+    private static boolean reported;
+
+    private StartupTimings() {
+    }
+
+    /**
+     * Marks the end of a startup phase.
+     * @param phase A short name for the phase.
+     */
+    public static synchronized void mark(String phase) {
+        if (!reported) {
+            phases.add(phase);
+            times.add(System.nanoTime());
+        }
+    }
+
+    /**
+     * Prints every phase with its time since launch and its own duration.
+     * Only the first call prints; later marks are ignored.
+     */
+    public static synchronized void report() {
+        if (reported) {
+            return;
+        }
+        reported = true;
+        StringBuilder line = new StringBuilder("Startup timings:");
+        long previous = START;
+        for (int k = 0; k < phases.size(); k++) {
+            long time = times.get(k);
+            line.append(k == 0 ? " " : ", ").append(phases.get(k))
+                    .append(' ').append((time - START) / 1_000_000).append(" ms")
+                    .append(" (+").append((time - previous) / 1_000_000).append(')');
+            previous = time;
+        }
+        System.err.println(line);
+    }
+}
@@ -4,7 +4,7 @@ import javafx.scene.input.KeyEvent;
 
 /**
  * Interface for handling specific inputs (Criterio: Interfaces).
- * Allows the KeyInputAdapter to communicate key events back to the com.example.sudoku.main Controller.
+ * Allows the KeyInputAdapter and the board views to communicate events back to the com.example.sudoku.main Controller.
  */
 public interface I_InputHandler {
 
@@ -15,4 +15,11 @@ public interface I_InputHandler {
      * @param keyEvent The key event details.
      */
     void handleKeyInput(int row, int col, KeyEvent keyEvent);
+
+    /**
+     * Handles a click on a cell of the board.
+     * @param row The row index.
+     * @param col The column index.
+     */
+    void handleCellClick(int row, int col);
 }
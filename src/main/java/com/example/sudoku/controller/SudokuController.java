@@ -1,19 +1,35 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.metrics.ViewRefreshEvent;
+import com.example.sudoku.model.AutoSaver;
+import com.example.sudoku.model.BoardGeometry;
 import com.example.sudoku.model.Cell;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.HintEngine;
+import com.example.sudoku.model.I_BoardListener;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleBank;
 import com.example.sudoku.model.SudokuModel;
+import com.example.sudoku.model.Warmup;
+import com.example.sudoku.solver.ParallelSolver;
+import com.example.sudoku.view.CanvasBoardView;
+import com.example.sudoku.view.I_BoardView;
+import com.example.sudoku.view.TextFieldBoardView;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.control.TextField;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
-import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
-import javafx.scene.text.Font;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The Controller component in MVC for the main game board.
@@ -28,182 +44,313 @@ public class SudokuController implements I_InputHandler {
     @FXML
     private Label messageLabel;
 
+    @FXML
+    private Label gameTitle;
+
+    @FXML
+    private Button helpButton;
+
+    @FXML
+    private Button restartButton;
+
+    /** Smallest board size drawn on a canvas unless {@code sudoku.view} says otherwise. */
+    public static final int CANVAS_MIN_SIZE = 16;
+    private static final Metrics.Timer REFRESH_TIME = Metrics.timer("view.refresh");
+
     private SudokuModel model;
-    private final Map<String, TextField> cellFields = new HashMap<>();
-    private TextField selectedCell = null;
-    private static final int SIZE = 6;
+    private HintEngine hintEngine; // Solves for hints off the JavaFX thread
+    private I_BoardView boardView;
+    private int selectedIndex = -1; // Cell being edited, or -1
+    // Cells that must be redrawn on the next updateView()
+    private boolean[] dirty;
+    private int[] dirtyCells;
+    private int dirtyCount;
+    private int[] hintMarks; // Highlight of a hint until its cell changes again
+    private BoardGeometry geometry;
+    private int size;
+    private AutoSaver autoSaver;
+    private boolean restoredGame;
+    private String startMessage; // Mensaje inicial, con las teclas de este tablero
+    private ExecutorService puzzleWorker; // Builds new boards off the JavaFX thread
+    private CompletableFuture<Puzzle> nextPuzzle; // Board being prepared, or null
+    private Difficulty nextDifficulty;
+    private boolean loadingGame; // Waiting for nextPuzzle to start a game
+    private boolean preloadedBoard = true; // El tablero sigue siendo el de la carga inicial
 
     /**
      * Initializes the controller class. This method is automatically called
-     * after the fxml file has been loaded.
+     * after the fxml file has been loaded. The block layout can be chosen with
+     * the {@code sudoku.geometry} system property (for example {@code 3x3}), and
+     * the {@code sudoku.bank} property names a puzzle bank file to restart from,
+     * and the {@code sudoku.view} property chooses the board view (see {@link #createBoardView()}).
+     * The game saved by the last session, if any, is restored (see {@link #saveFile()}).
      */
     @FXML
     public void initialize() {
-        this.model = new SudokuModel();
+        this.geometry = configuredGeometry();
+        this.size = geometry.getSize();
+        this.startMessage = "👆 Haz clic en una celda y usa las teclas 1-" + BoardGeometry.symbol(size) + " para jugar";
+        gameTitle.setText(boardTitle(geometry));
+        messageLabel.setText(startMessage);
+        this.model = new SudokuModel(geometry, new ParallelSolver(geometry), openPuzzleBank());
+        int cells = geometry.getCells();
+        this.hintEngine = new HintEngine(model, Platform::runLater);
+        this.puzzleWorker = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "sudoku-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.boardView = createBoardView();
+        this.dirty = new boolean[cells];
+        this.dirtyCells = new int[cells];
+        this.hintMarks = new int[cells];
+        model.addBoardListener(new BoardChanges());
+        Path saveFile = saveFile();
+        this.autoSaver = new AutoSaver(saveFile);
+        restoreSavedGame(saveFile);
     }
 
     /**
-     * Creates and populates the sudoku grid with TextField cells. This method
-     * sets up the initial visual state of the board.
+     * Gets the board layout chosen with the {@code sudoku.geometry} system property.
+     * @return The configured geometry, 6x6 by default.
      */
-    public void initializeBoard() {
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Cell cellModel = model.getCell(row, col);
-                TextField cellField = createCellField(row, col, cellModel);
-
-                sudokuGrid.add(cellField, col, row);
-                cellFields.put(getKey(row, col), cellField);
-
-                applyGridStyling(cellField, row, col);
-            }
-        }
-        updateView();
+    public static BoardGeometry configuredGeometry() {
+        return BoardGeometry.parse(System.getProperty("sudoku.geometry", BoardGeometry.SIX.toString()));
     }
 
     /**
-     * Generates a unique string key for a cell based on its coordinates.
-     * @param row The cell's row.
-     * @param col The cell's column.
-     * @return A string key like "row_col".
+     * Builds the name of the game for a board layout, as shown in titles.
+     * @param geometry The board geometry.
+     * @return A name such as "Sudoku 9×9".
      */
-    private String getKey(int row, int col) {
-        return row + "_" + col;
+    public static String boardTitle(BoardGeometry geometry) {
+        return "Sudoku " + geometry.getSize() + "×" + geometry.getSize();
     }
 
     /**
-     * Creates a single TextField to represent a cell in the grid.
-     * It configures the size, font, and event listeners for the cell.
-     * @param row The row of the cell.
-     * @param col The column of the cell.
-     * @param cellModel The data model for the cell.
-     * @return A configured TextField for the cell.
+     * Gets the block layout of the board being played.
+     * @return The board geometry.
      */
-    private TextField createCellField(int row, int col, Cell cellModel) {
-        TextField cellField = new TextField(cellModel.getValue() != 0 ? String.valueOf(cellModel.getValue()) : "");
-        cellField.setPrefSize(70, 70);
-        cellField.setMinSize(70, 70);
-        cellField.setMaxSize(70, 70);
-        cellField.setAlignment(Pos.CENTER);
-        cellField.setFont(Font.font("Arial", 26));
-        cellField.setEditable(false);
-        cellField.setFocusTraversable(true);
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
 
-        cellField.getProperties().put("row", row);
-        cellField.getProperties().put("col", col);
+    /**
+     * Chooses how the board is drawn. The {@code sudoku.view} system property
+     * can be {@code fields} (one text field per cell) or {@code canvas} (the whole
+     * board on one canvas); by default boards of {@value #CANVAS_MIN_SIZE} digits
+     * or more use the canvas, which stays light however many cells there are.
+     * @return The board view.
+     */
+    private I_BoardView createBoardView() {
+        String view = System.getProperty("sudoku.view", size >= CANVAS_MIN_SIZE ? "canvas" : "fields");
+        if (view.equals("canvas")) {
+            return new CanvasBoardView(geometry, this);
+        }
+        return new TextFieldBoardView(geometry, this);
+    }
 
-        cellField.setOnMouseClicked(new CellClickHandler(row, col, cellModel.isFixed()));
-        cellField.setOnKeyPressed(new KeyInputAdapter(this, row, col));
+    /**
+     * Runs the solver and the validator for a while on this board geometry, so
+     * the JIT has compiled them before the first hint. Safe to call from a
+     * background thread: it does not touch the model or the view.
+     * @param budgetMillis How long the warm-up may take.
+     */
+    public void warmUp(long budgetMillis) {
+        Warmup.run(geometry, budgetMillis);
+    }
 
-        cellField.getStyleClass().add("sudoku-cell");
+    /**
+     * Gets the file the game is saved to after every move: the {@code sudoku.save}
+     * system property, or one file per board geometry in {@code ~/.sudoku}.
+     * @return The save file.
+     */
+    private Path saveFile() {
+        String saveFile = System.getProperty("sudoku.save");
+        if (saveFile != null) {
+            return Paths.get(saveFile);
+        }
+        return Paths.get(System.getProperty("user.home"), ".sudoku", "autosave-" + geometry + ".bin");
+    }
 
-        return cellField;
+    /**
+     * Loads the saved game into the model. A missing file leaves the new board in place.
+     * @param saveFile The save file.
+     */
+    private void restoreSavedGame(Path saveFile) {
+        try {
+            byte[] saved = AutoSaver.read(saveFile);
+            if (saved != null) {
+                model.restoreSnapshot(saved);
+                restoredGame = true;
+            }
+        } catch (IOException e) {
+            System.err.println("Error restoring the saved game " + saveFile + ": " + e.getMessage());
+        }
     }
 
     /**
-     * Applies the initial CSS styling to a cell, including the thick borders
-     * that define the 2x3 blocks.
-     * @param cellField The TextField to style.
-     * @param row The row of the cell.
-     * @param col The column of the cell.
+     * Hands a snapshot of the game to the background writer. Never blocks.
      */
-    private void applyGridStyling(TextField cellField, int row, int col) {
-        StringBuilder style = new StringBuilder();
+    private void autosave() {
+        autoSaver.save(model.saveSnapshot());
+    }
 
-        style.append("-fx-border-style: solid; ");
+    /**
+     * Saves the game and waits until it is on disk. Called when the game window closes.
+     */
+    public void flushAutosave() {
+        autosave();
+        autoSaver.flush();
+    }
 
-        if (col == 0) {
-            style.append("-fx-border-left-width: 0; ");
-        } else if (col == 3) {
-            style.append("-fx-border-left-width: 4; -fx-border-left-color: #2C3E50; ");
-        } else {
-            style.append("-fx-border-left-width: 1; -fx-border-left-color: #BDC3C7; ");
+    /**
+     * Opens the puzzle bank named by the {@code sudoku.bank} system property.
+     * The mapping stays valid for the life of the game, so the file itself is closed right away.
+     * @return The bank, or null if none is configured or it cannot be used for this board.
+     */
+    private PuzzleBank openPuzzleBank() {
+        String bankFile = System.getProperty("sudoku.bank");
+        if (bankFile == null) {
+            return null;
+        }
+        try (PuzzleBank bank = PuzzleBank.open(Paths.get(bankFile))) {
+            if (!bank.getGeometry().equals(geometry)) {
+                System.err.println("Puzzle bank " + bankFile + " is " + bank.getGeometry() + ", board is " + geometry);
+                return null;
+            }
+            return bank;
+        } catch (IOException e) {
+            System.err.println("Error loading the puzzle bank " + bankFile + ": " + e.getMessage());
+            return null;
         }
+    }
 
-        if (col == 5) {
-            style.append("-fx-border-right-width: 0; ");
-        } else if (col == 2) {
-            style.append("-fx-border-right-width: 4; -fx-border-right-color: #2C3E50; ");
-        } else {
-            style.append("-fx-border-right-width: 1; -fx-border-right-color: #BDC3C7; ");
+    /**
+     * Adds the board view to the sudoku grid and draws every cell. This method
+     * sets up the initial visual state of the board.
+     */
+    public void initializeBoard() {
+        boardView.attach(sudokuGrid);
+        for (int i = 0; i < geometry.getCells(); i++) {
+            markDirty(i);
+        }
+        updateView();
+        if (restoredGame) {
+            messageLabel.setText("💾 Partida anterior restaurada. ¡Continúa donde la dejaste!");
         }
+    }
 
-        if (row == 0) {
-            style.append("-fx-border-top-width: 0; ");
-        } else if (row == 2 || row == 4) {
-            style.append("-fx-border-top-width: 4; -fx-border-top-color: #2C3E50; ");
-        } else {
-            style.append("-fx-border-top-width: 1; -fx-border-top-color: #BDC3C7; ");
+    /**
+     * Marks the cells the board reports as changed, so only they are redrawn.
+     */
+    private class BoardChanges implements I_BoardListener {
+
+        @Override
+        public void valueChanged(int index, int oldValue, int newValue) {
+            clearHintMark(index);
+            markDirty(index);
+            cancelHint();
         }
 
-        if (row == 5) {
-            style.append("-fx-border-bottom-width: 0; ");
-        } else if (row == 1 || row == 3) {
-            style.append("-fx-border-bottom-width: 4; -fx-border-bottom-color: #2C3E50; ");
-        } else {
-            style.append("-fx-border-bottom-width: 1; -fx-border-bottom-color: #BDC3C7; ");
+        @Override
+        public void errorChanged(int index, boolean error) {
+            markDirty(index);
         }
 
-        if (model.getCell(row, col).isFixed()) {
-            style.append("-fx-background-color: #E8EAF6; -fx-font-weight: bold; -fx-text-fill: #3F51B5; ");
-            cellField.getStyleClass().add("sudoku-cell-fixed");
-        } else {
-            style.append("-fx-background-color: white; -fx-text-fill: #2C3E50; ");
+        @Override
+        public void givenChanged(int index, boolean given) {
+            clearHintMark(index);
+            markDirty(index);
         }
+    }
 
-        cellField.setStyle(style.toString());
+    private void clearHintMark(int index) {
+        hintMarks[index] = 0; // La celda ya quedó marcada para redibujar
     }
 
     /**
-     * An inner class to handle mouse click events on cells.
+     * Queues a cell to be redrawn by the next {@link #updateView()}.
+     * @param index The cell index.
      */
-    private class CellClickHandler implements javafx.event.EventHandler<MouseEvent> {
-        private final int row, col;
-        private final boolean isFixed;
+    private void markDirty(int index) {
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyCells[dirtyCount++] = index;
+        }
+    }
 
-        public CellClickHandler(int row, int col, boolean isFixed) {
-            this.row = row;
-            this.col = col;
-            this.isFixed = isFixed;
+    /**
+     * Moves the selection to another cell, marking both cells to be redrawn.
+     * @param index The newly selected cell, or -1 to clear the selection.
+     */
+    private void select(int index) {
+        if (selectedIndex >= 0) {
+            markDirty(selectedIndex);
+        }
+        selectedIndex = index;
+        if (index >= 0) {
+            markDirty(index);
+            boardView.focusCell(index);
         }
+    }
 
-        @Override
-        public void handle(MouseEvent event) {
-            if (event.getSource() instanceof TextField) {
-                TextField clickedCell = (TextField) event.getSource();
-                if (selectedCell != null) {
-                    updateCellStyling(selectedCell, false, false);
-                }
-                if (!isFixed) {
-                    selectedCell = clickedCell;
-                    selectedCell.requestFocus();
-                    updateCellStyling(selectedCell, true, false);
-                } else {
-                    selectedCell = null;
-                    messageLabel.setText("⚠️ Esta celda es fija y no se puede modificar");
-                }
-                updateView();
-            }
+    /**
+     * Highlights the cell where a hint was just placed, until its value changes again.
+     * @param hint The hint that was placed.
+     * @param mark {@link I_BoardView#HINT} or {@link I_BoardView#SMART_HINT}.
+     */
+    private void markHint(Cell hint, int mark) {
+        int index = geometry.index(hint.getRow(), hint.getCol());
+        hintMarks[index] = mark;
+        markDirty(index);
+    }
+
+    @Override
+    public void handleCellClick(int row, int col) {
+        // Se consulta al hacer clic, así sigue siendo válido tras reiniciar el tablero
+        if (!model.getCell(row, col).isFixed()) {
+            select(geometry.index(row, col));
+        } else {
+            select(-1);
+            messageLabel.setText("⚠️ Esta celda es fija y no se puede modificar");
         }
+        updateView();
     }
 
     @Override
     public void handleKeyInput(int row, int col, KeyEvent keyEvent) {
-        if (selectedCell == null || !selectedCell.getProperties().get("row").equals(row)) {
+        // Ctrl+Z deshace y Ctrl+Y (o Ctrl+Shift+Z) rehace, desde cualquier celda
+        if (keyEvent.isShortcutDown() && keyEvent.getCode() == KeyCode.Z) {
+            if (keyEvent.isShiftDown()) {
+                handleRedo();
+            } else {
+                handleUndo();
+            }
+            keyEvent.consume();
+            return;
+        }
+        if (keyEvent.isShortcutDown() && keyEvent.getCode() == KeyCode.Y) {
+            handleRedo();
+            keyEvent.consume();
+            return;
+        }
+        if (selectedIndex < 0 || selectedIndex != geometry.index(row, col)) {
             return;
         }
 
         int value = 0;
-        String key = keyEvent.getText();
+        int typed = geometry.parseSymbol(keyEvent.getText());
+        String maxSymbol = BoardGeometry.symbol(size);
 
-        if (key.matches("[1-6]")) {
-            value = Integer.parseInt(key);
+        if (typed > 0) {
+            value = typed;
         } else if (keyEvent.getCode() == KeyCode.BACK_SPACE || keyEvent.getCode() == KeyCode.DELETE) {
             value = 0;
         } else {
             showAlert(Alert.AlertType.WARNING, "❌ Entrada Inválida",
-                    "Por favor, ingresa únicamente números del 1 al 6.\n\nUsa BACKSPACE o DELETE para borrar.");
-            messageLabel.setText("❌ Entrada inválida. Solo se permiten números del 1 al 6");
+                    "Por favor, ingresa únicamente números del 1 al " + maxSymbol + ".\n\nUsa BACKSPACE o DELETE para borrar.");
+            messageLabel.setText("❌ Entrada inválida. Solo se permiten números del 1 al " + maxSymbol);
             keyEvent.consume();
             return;
         }
@@ -211,12 +358,14 @@ public class SudokuController implements I_InputHandler {
         boolean wasSet = model.setCellValue(row, col, value);
 
         if (wasSet) {
+            autosave();
             Cell currentCell = model.getCell(row, col);
 
             if (currentCell.isError() && value != 0) {
-                messageLabel.setText("❌ ERROR: El número " + value + " ya existe en esta fila, columna o bloque");
+                messageLabel.setText("❌ ERROR: El número " + BoardGeometry.symbol(value) + " ya existe en esta fila, columna o bloque");
                 showAlert(Alert.AlertType.ERROR, "❌ Violación de Reglas de Sudoku",
-                        String.format("El número %d ya existe en:\n• La misma fila, O\n• La misma columna, O\n• El mismo bloque 2×3\n\nLa celda se marcará con un borde rojo.", value));
+                        String.format("El número %s ya existe en:\n• La misma fila, O\n• La misma columna, O\n• El mismo bloque %d×%d\n\nLa celda se marcará con un borde rojo.",
+                                BoardGeometry.symbol(value), geometry.getBlockRows(), geometry.getBlockCols()));
             } else if (value == 0) {
                 messageLabel.setText("🗑️ Celda borrada. Selecciona otra celda para continuar");
             } else {
@@ -231,54 +380,56 @@ public class SudokuController implements I_InputHandler {
         }
     }
 
+    /**
+     * Redraws the cells that changed since the last call: their digit and their
+     * fixed, error, selected and hint states. Cells that did not change are
+     * not touched.
+     */
     public void updateView() {
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Cell cellModel = model.getCell(row, col);
-                TextField cellField = cellFields.get(getKey(row, col));
-                int value = cellModel.getValue();
-                cellField.setText(value != 0 ? String.valueOf(value) : "");
-                boolean isSelected = (selectedCell == cellField);
-                updateCellStyling(cellField, isSelected, cellModel.isError());
-            }
+        ViewRefreshEvent event = new ViewRefreshEvent();
+        event.begin();
+        long start = Metrics.start();
+        int redrawn = dirtyCount;
+        for (int k = 0; k < dirtyCount; k++) {
+            int index = dirtyCells[k];
+            dirty[index] = false;
+            renderCell(index);
+        }
+        dirtyCount = 0;
+        REFRESH_TIME.stop(start);
+        if (event.shouldCommit()) {
+            event.cells = redrawn;
+            event.view = boardView.getClass().getSimpleName();
+            event.commit();
         }
 
-        if (messageLabel.getText().equals("👆 Haz clic en una celda y usa las teclas 1-6 para jugar")) {
+        if (messageLabel.getText().equals(startMessage)) {
             if (model.hasErrors()) {
                 messageLabel.setText("⚠️ Hay errores en el tablero (celdas con borde rojo)");
             }
         }
     }
 
-    private void updateCellStyling(TextField cellField, boolean isSelected, boolean isError) {
-        int row = (int)cellField.getProperties().get("row");
-        int col = (int)cellField.getProperties().get("col");
-
-        cellField.getStyleClass().removeAll("sudoku-cell-selected", "sudoku-cell-error", "sudoku-cell-hint");
-
-        StringBuilder style = new StringBuilder();
-
-        if (isError) {
-            style.append("-fx-background-color: #FFCDD2; -fx-text-fill: #C62828; ");
-            style.append("-fx-border-color: #E53935; -fx-border-width: 3; ");
-            cellField.getStyleClass().add("sudoku-cell-error");
-        } else if (isSelected) {
-            style.append("-fx-background-color: #BBDEFB; -fx-text-fill: #1565C0; ");
-            cellField.getStyleClass().add("sudoku-cell-selected");
-        } else if (model.getCell(row, col).isFixed()) {
-            style.append("-fx-background-color: #E8EAF6; -fx-text-fill: #3F51B5; -fx-font-weight: bold; ");
-        } else {
-            style.append("-fx-background-color: white; -fx-text-fill: #2C3E50; ");
+    private void renderCell(int index) {
+        Cell cellModel = model.getCell(geometry.rowOf(index), geometry.colOf(index));
+        int state = hintMarks[index];
+        if (cellModel.isFixed()) {
+            state |= I_BoardView.FIXED;
         }
-
-        cellField.setStyle(style.toString());
+        if (cellModel.isError()) {
+            state |= I_BoardView.ERROR;
+        }
+        if (index == selectedIndex) {
+            state |= I_BoardView.SELECTED;
+        }
+        boardView.drawCell(index, cellModel.getValue(), state);
     }
 
     @FXML
     private void handleCheckBoard() {
         if (model.hasErrors()) {
             showStyledAlert(Alert.AlertType.ERROR, "❌ Errores Detectados",
-                    "El tablero contiene errores de validación.\n\nLas celdas con borde rojo violan las reglas del Sudoku:\n• Números repetidos en la misma fila\n• Números repetidos en la misma columna\n• Números repetidos en el mismo bloque 2×3\n\nCorrige estos errores antes de continuar.");
+                    "El tablero contiene errores de validación.\n\nLas celdas con borde rojo violan las reglas del Sudoku:\n• Números repetidos en la misma fila\n• Números repetidos en la misma columna\n• Números repetidos en el mismo bloque " + geometry.getBlockRows() + "×" + geometry.getBlockCols() + "\n\nCorrige estos errores antes de continuar.");
             messageLabel.setText("❌ Hay errores en el tablero. Revisa las celdas con borde rojo");
         } else if (model.isBoardSolved()) {
             handleVictory();
@@ -290,30 +441,14 @@ public class SudokuController implements I_InputHandler {
         updateView();
     }
 
+    /**
+     * Places a hint in a random empty cell (non-linear hint). The hint is
+     * computed in the background; the window stays responsive meanwhile.
+     */
     @FXML
     private void handleHelpOption() {
         // Use random hint (non-linear) by default
-        Cell hint = model.getHint();
-
-        if (hint != null) {
-            model.setCellValue(hint.getRow(), hint.getCol(), hint.getValue());
-            updateView();
-
-            TextField cellField = cellFields.get(getKey(hint.getRow(), hint.getCol()));
-            String currentStyle = cellField.getStyle();
-            cellField.setStyle(currentStyle + " -fx-background-color: #C8E6C9; -fx-text-fill: #2E7D32;");
-            cellField.getStyleClass().add("sudoku-cell-hint");
-
-            messageLabel.setText(String.format("💡 Pista aleatoria: %d colocado en (%d, %d).",
-                    hint.getValue(), hint.getRow() + 1, hint.getCol() + 1));
-
-            if (model.isBoardSolved()) {
-                handleVictory();
-            }
-        } else {
-            showStyledAlert(Alert.AlertType.INFORMATION, "💡 Pista",
-                    "El tablero ya está completo o no hay movimientos válidos posibles.");
-        }
+        requestHint(false);
     }
 
     /**
@@ -323,55 +458,196 @@ public class SudokuController implements I_InputHandler {
      */
     @FXML
     private void handleSmartHint() {
-        Cell hint = model.getSmartHint();
+        requestHint(true);
+    }
+
+    /**
+     * Starts computing a hint and shows that it is on its way. Editing the
+     * board before it arrives cancels it.
+     * @param smart true for the most constrained cell, false for a random one.
+     */
+    private void requestHint(boolean smart) {
+        if (hintEngine.isBusy()) {
+            return;
+        }
+        showHintProgress(true);
+        hintEngine.request(smart, hint -> {
+            showHintProgress(false);
+            applyHint(hint, smart);
+        });
+        if (hintEngine.isBusy()) {
+            messageLabel.setText("⏳ Buscando una pista... puedes seguir jugando mientras tanto");
+        }
+    }
+
+    /**
+     * Drops a hint still being computed, because the board it was for has changed.
+     */
+    private void cancelHint() {
+        if (hintEngine.isBusy()) {
+            hintEngine.cancel();
+            showHintProgress(false);
+            messageLabel.setText("✋ Pista cancelada: el tablero cambió");
+        }
+    }
+
+    private void showHintProgress(boolean busy) {
+        if (helpButton != null) {
+            helpButton.setDisable(busy);
+        }
+    }
 
+    /**
+     * Places a hint computed by the hint engine.
+     * @param hint The hint, or null if the board is full or has no solution.
+     * @param smart true if it came from the smart hint.
+     */
+    private void applyHint(Cell hint, boolean smart) {
         if (hint != null) {
-            model.setCellValue(hint.getRow(), hint.getCol(), hint.getValue());
+            model.placeHint(hint);
+            markHint(hint, smart ? I_BoardView.SMART_HINT : I_BoardView.HINT);
+            autosave();
             updateView();
 
-            TextField cellField = cellFields.get(getKey(hint.getRow(), hint.getCol()));
-            String currentStyle = cellField.getStyle();
-            cellField.setStyle(currentStyle + " -fx-background-color: #FFE082; -fx-text-fill: #F57C00;");
-            cellField.getStyleClass().add("sudoku-cell-hint");
-
-            messageLabel.setText(String.format("🧠 Pista inteligente: %d colocado en (%d, %d) - celda más restringida.",
-                    hint.getValue(), hint.getRow() + 1, hint.getCol() + 1));
+            if (smart) {
+                messageLabel.setText(String.format("🧠 Pista inteligente: %s colocado en (%d, %d) - celda más restringida.",
+                        BoardGeometry.symbol(hint.getValue()), hint.getRow() + 1, hint.getCol() + 1));
+            } else {
+                messageLabel.setText(String.format("💡 Pista aleatoria: %s colocado en (%d, %d).",
+                        BoardGeometry.symbol(hint.getValue()), hint.getRow() + 1, hint.getCol() + 1));
+            }
 
             if (model.isBoardSolved()) {
                 handleVictory();
             }
-        } else {
+        } else if (smart) {
             showStyledAlert(Alert.AlertType.INFORMATION, "🧠 Pista Inteligente",
                     "El tablero ya está completo o no hay movimientos válidos posibles.");
+        } else {
+            showStyledAlert(Alert.AlertType.INFORMATION, "💡 Pista",
+                    "El tablero ya está completo o no hay movimientos válidos posibles.");
         }
     }
 
+    /**
+     * Reverts the last move, whether typed by the player or placed by a hint.
+     */
     @FXML
-    private void handleRestartGame() {
-        model.resetBoard();
+    private void handleUndo() {
+        Cell changed = model.undo();
+        if (changed == null) {
+            messageLabel.setText("↶ No hay movimientos para deshacer");
+            return;
+        }
+        autosave();
+        updateView();
+        messageLabel.setText(String.format("↶ Movimiento deshecho en (%d, %d)", changed.getRow() + 1, changed.getCol() + 1));
+    }
 
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Cell cellModel = model.getCell(row, col);
-                TextField cellField = cellFields.get(getKey(row, col));
+    /**
+     * Applies again the last move that was undone.
+     */
+    @FXML
+    private void handleRedo() {
+        Cell changed = model.redo();
+        if (changed == null) {
+            messageLabel.setText("↷ No hay movimientos para rehacer");
+            return;
+        }
+        autosave();
+        updateView();
+        messageLabel.setText(String.format("↷ Movimiento rehecho en (%d, %d)", changed.getRow() + 1, changed.getCol() + 1));
+        if (model.isBoardSolved()) {
+            handleVictory();
+        }
+    }
 
-                cellField.setText(cellModel.getValue() != 0 ? String.valueOf(cellModel.getValue()) : "");
-                cellField.setEditable(false);
+    @FXML
+    private void handleRestartGame() {
+        newGame(model.getDifficulty(), "🔄 ¡Juego reiniciado! Nuevo desafío cargado. ¡Buena suerte!");
+    }
 
-                // Remover todas las clases de estilo
-                cellField.getStyleClass().removeAll("sudoku-cell-selected", "sudoku-cell-error", "sudoku-cell-hint", "sudoku-cell-fixed");
+    /**
+     * Starts a new board calibrated to a difficulty level. Later restarts keep the level.
+     * The board loaded with the window is kept if it already has that level, and
+     * a board prepared for it (see {@link #preparePuzzle(Difficulty)}) is used as
+     * soon as it is ready.
+     * @param difficulty The level chosen by the player.
+     */
+    public void startGame(Difficulty difficulty) {
+        String message = "🧩 Nuevo tablero de dificultad " + difficulty.getDisplayName() + ". ¡Buena suerte!";
+        if (preloadedBoard && !loadingGame && difficulty == model.getDifficulty()) {
+            preloadedBoard = false;
+            if (!restoredGame) {
+                messageLabel.setText(message);
+            }
+            return;
+        }
+        newGame(difficulty, message);
+    }
 
-                // CRÍTICO: Actualizar el event handler del click con el nuevo estado de isFixed
-                cellField.setOnMouseClicked(new CellClickHandler(row, col, cellModel.isFixed()));
+    /**
+     * Starts building a board of a difficulty in the background, so a game
+     * started with it later does not wait for the generator. A board being
+     * prepared for another level is dropped; nothing is prepared while a new
+     * game is waiting for its board.
+     * @param difficulty The level, or null for the classic board.
+     */
+    public void preparePuzzle(Difficulty difficulty) {
+        if (loadingGame || nextPuzzle != null && nextDifficulty == difficulty) {
+            return;
+        }
+        if (preloadedBoard && difficulty == model.getDifficulty()) {
+            return; // Ya está en el tablero
+        }
+        if (nextPuzzle != null) {
+            nextPuzzle.cancel(false); // Si aún no empezó, no llega a generarse
+        }
+        nextDifficulty = difficulty;
+        nextPuzzle = CompletableFuture.supplyAsync(() -> model.nextPuzzle(difficulty, true), puzzleWorker);
+    }
 
-                // Reaplicar el estilo base del grid
-                applyGridStyling(cellField, row, col);
-            }
+    /**
+     * Replaces the board with a new puzzle, built on a background thread. The
+     * restart button is disabled until it arrives; the old board stays playable
+     * meanwhile.
+     * @param difficulty The level of the new board, or null for the classic board.
+     * @param doneMessage The message shown once the board is loaded.
+     */
+    private void newGame(Difficulty difficulty, String doneMessage) {
+        if (loadingGame) {
+            return;
+        }
+        preloadedBoard = false;
+        preparePuzzle(difficulty);
+        CompletableFuture<Puzzle> puzzle = nextPuzzle;
+        loadingGame = true;
+        showGenerationProgress(true);
+        if (!puzzle.isDone()) {
+            messageLabel.setText("⏳ Generando un nuevo tablero...");
         }
+        puzzle.whenCompleteAsync((loaded, error) -> {
+            loadingGame = false;
+            nextPuzzle = null;
+            showGenerationProgress(false);
+            if (error != null) {
+                System.err.println("Error generating a new board: " + error);
+                messageLabel.setText("❌ No se pudo generar un nuevo tablero. Inténtalo de nuevo");
+                return;
+            }
+            // El tablero avisa de cada celda que cambió; solo esas se redibujan
+            model.loadPuzzle(loaded, difficulty);
+            select(-1);
+            autosave();
+            updateView();
+            messageLabel.setText(doneMessage);
+        }, Platform::runLater);
+    }
 
-        selectedCell = null;
-        updateView();
-        messageLabel.setText("🔄 ¡Juego reiniciado! Nuevo desafío cargado. ¡Buena suerte!");
+    private void showGenerationProgress(boolean busy) {
+        if (restartButton != null) {
+            restartButton.setDisable(busy);
+        }
     }
 
     private void handleVictory() {
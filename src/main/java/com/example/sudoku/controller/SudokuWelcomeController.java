@@ -1,10 +1,15 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.StartupTimings;
+import com.example.sudoku.model.Difficulty;
 import com.example.sudoku.view.SudokuGameStage;
 import com.example.sudoku.view.SudokuWelcomeStage;
 import javafx.fxml.FXML;
 import javafx.event.ActionEvent;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.scene.control.Toggle;
+import javafx.scene.control.ToggleGroup;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import java.io.IOException;
@@ -18,6 +23,28 @@ public class SudokuWelcomeController {
     @FXML
     private TextField nicknameTxt;
 
+    @FXML
+    private ToggleGroup difficultyGroup;
+
+    @FXML
+    private Label titleLabel;
+
+    /**
+     * Initializes the controller after the fxml file is loaded: the title
+     * names the board size chosen for the game, and choosing a difficulty
+     * starts preparing its board in the background (see {@link SudokuGameStage#prepareGame(Difficulty)}).
+     */
+    @FXML
+    public void initialize() {
+        titleLabel.setText(SudokuController.boardTitle(SudokuController.configuredGeometry()).toUpperCase());
+        difficultyGroup.selectedToggleProperty().addListener((observable, previous, selected) -> {
+            Difficulty difficulty = selectedDifficulty();
+            if (difficulty != null) {
+                SudokuGameStage.prepareGame(difficulty);
+            }
+        });
+    }
+
     // Este método es para que el jugador pueda darle a Enter en el campo de texto y empezar
     // el juego, en vez de tener que hacer clic en el botón. Es más cómodo.
     /**
@@ -51,11 +78,29 @@ public class SudokuWelcomeController {
 
             // Show the game window. If it doesn't exist, it creates it.
             SudokuGameStage gameStage = SudokuGameStage.getInstance();
+            Difficulty difficulty = selectedDifficulty();
+            if (difficulty != null) {
+                gameStage.getController().startGame(difficulty);
+            }
             gameStage.show();
+            StartupTimings.mark("board shown");
+            StartupTimings.report();
 
         } catch (IOException e) {
             System.err.println("Error loading the main Sudoku game view.");
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the difficulty chosen on the welcome screen.
+     * @return The level, or null for the classic board (fixed givens per block).
+     */
+    private Difficulty selectedDifficulty() {
+        Toggle selected = difficultyGroup.getSelectedToggle();
+        if (selected == null || "CLASSIC".equals(selected.getUserData())) {
+            return null;
+        }
+        return Difficulty.valueOf((String) selected.getUserData());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for the generation of one puzzle, with the number of
+ * attempts it took.
+ */
+@Name("com.example.sudoku.Generation")
+@Label("Puzzle Generation")
+@Category({"Sudoku", "Engine"})
+@Description("The generation of one puzzle")
+public final class GenerationEvent extends jdk.jfr.Event {
+
+    /** {@code RANDOM} for givens drawn per block, {@code TARGETED} for a difficulty band. */
+    @Label("Generator")
+    public String generator;
+
+    /** The board layout, such as {@code 3x3}. */
+    @Label("Geometry")
+    public String geometry;
+
+    /** Draws of givens (random) or solved grids dug (targeted). */
+    @Label("Attempts")
+    public int attempts;
+
+    /** The number of givens of the puzzle. */
+    @Label("Givens")
+    public int givens;
+
+    /** Whether the puzzle met its requirements: a single solution, or the difficulty band. */
+    @Label("On Target")
+    public boolean onTarget;
+}
@@ -0,0 +1,25 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one hint, from the request to the delivery of the
+ * answer. Cancelled requests are not recorded.
+ */
+@Name("com.example.sudoku.Hint")
+@Label("Hint")
+@Category({"Sudoku", "Game"})
+@Description("The time from asking for a hint to getting it")
+public final class HintEvent extends jdk.jfr.Event {
+
+    /** Whether the most constrained cell was asked for. */
+    @Label("Smart")
+    public boolean smart;
+
+    /** {@code KNOWN} (no solve needed), {@code SOLVED}, {@code UNSOLVABLE}, {@code BUDGET_EXHAUSTED} or {@code FULL}. */
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,139 @@
+package com.example.sudoku.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process registry of counters and latency timers for the engine and UI hot paths.
+ * <p>
+ * Metrics are off unless the JVM starts with {@code -Dsudoku.metrics=true}.
+ * The switch is read once into a constant, so with metrics off
+ * {@link #start()} and {@link Timer#stop(long)} fold away after JIT
+ * compilation and a hot path pays nothing. With metrics on, a counter is a
+ * {@link LongAdder} and a timer a {@link LatencyHistogram}; neither takes a lock.
+ * <p>
+ * Call sites keep the instruments they use in static fields, so the registry
+ * is only looked up once per class. {@link #report()} dumps every instrument
+ * on demand, and a run with metrics on prints the dump on standard error at exit.
+ * Detailed per-call data comes from the Flight Recorder events of this package instead.
+ */
+public final class Metrics {
+
+    /** Whether metrics are being recorded; fixed at startup. */
+    public static final boolean ENABLED = Boolean.getBoolean("sudoku.metrics");
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(report()), "sudoku-metrics"));
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets a counter, creating it on first use.
+     * @param name A dotted name such as {@code solver.nodes}.
+     * @return The counter with that name.
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Gets a latency timer, creating it on first use.
+     * @param name A dotted name such as {@code solver.solve}.
+     * @return The timer with that name.
+     */
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * Starts timing an operation.
+     * @return The start time to hand to {@link Timer#stop(long)}, or 0 when metrics are off.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Describes every instrument, sorted by name.
+     * @return One line per counter (its total) and per timer (calls, p50, p99
+     *         and maximum bucket in microseconds), or a note that metrics are off.
+     */
+    public static String report() {
+        if (!ENABLED) {
+            return "Metrics are off (start with -Dsudoku.metrics=true)\n";
+        }
+        Map<String, String> lines = new ConcurrentSkipListMap<>();
+        counters.forEach((name, counter) -> lines.put(name, String.format("%-24s %d%n", name, counter.get())));
+        timers.forEach((name, timer) -> lines.put(name, String.format("%-24s calls %d p50 %d us p99 %d us max %d us%n",
+                name, timer.latency.count(), timer.latency.percentile(50), timer.latency.percentile(99),
+                timer.latency.percentile(100))));
+        StringBuilder out = new StringBuilder("Metrics:\n");
+        lines.values().forEach(out::append);
+        return out.toString();
+    }
+
+    /**
+     * A running total.
+     */
+    public static final class Counter {
+        private final LongAdder total = new LongAdder();
+
+        private Counter() {
+        }
+
+        /**
+         * Adds to the total; does nothing when metrics are off.
+         * @param amount The amount to add.
+         */
+        public void add(long amount) {
+            if (ENABLED) {
+                total.add(amount);
+            }
+        }
+
+        /**
+         * Gets the total.
+         * @return The sum of everything added so far.
+         */
+        public long get() {
+            return total.sum();
+        }
+    }
+
+    /**
+     * A histogram of how long an operation takes.
+     */
+    public static final class Timer {
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private Timer() {
+        }
+
+        /**
+         * Records one operation; does nothing when metrics are off.
+         * @param start The value {@link Metrics#start()} returned when the operation began.
+         */
+        public void stop(long start) {
+            if (ENABLED) {
+                latency.record((System.nanoTime() - start) / 1000);
+            }
+        }
+
+        /**
+         * Gets the recorded latencies.
+         * @return The histogram, in microseconds.
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+}
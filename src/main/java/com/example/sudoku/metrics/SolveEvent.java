@@ -0,0 +1,48 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one run of the search solver: a solve or a count
+ * of solutions. Generation runs many of them per puzzle, so recordings that
+ * only care about slow searches should set a threshold on it.
+ */
+@Name("com.example.sudoku.Solve")
+@Label("Solve")
+@Category({"Sudoku", "Engine"})
+@Description("One run of a search solver")
+@StackTrace(false)
+public final class SolveEvent extends jdk.jfr.Event {
+
+    /** {@code CONSTRAINT} for constraint propagation, {@code DANCING_LINKS} for Algorithm X. */
+    @Label("Solver")
+    public String solver;
+
+    /** The board layout, such as {@code 3x3}. */
+    @Label("Geometry")
+    public String geometry;
+
+    /** The number of solutions after which the search stops. */
+    @Label("Solution Limit")
+    public int limit;
+
+    /** The number of solutions found, up to the limit. */
+    @Label("Solutions")
+    public int solutions;
+
+    /** The branch points visited. */
+    @Label("Nodes")
+    public long nodes;
+
+    /** The branches undone. */
+    @Label("Backtracks")
+    public long backtracks;
+
+    /** A {@link com.example.sudoku.solver.SolveStatus} name. */
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,29 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a full validation of a board, the pass that
+ * recounts every unit from scratch after the values are replaced wholesale.
+ */
+@Name("com.example.sudoku.Validation")
+@Label("Board Validation")
+@Category({"Sudoku", "Engine"})
+@Description("A full recount of the rows, columns and blocks of a board")
+public final class ValidationEvent extends jdk.jfr.Event {
+
+    /** The number of cells on the board. */
+    @Label("Cells")
+    public int cells;
+
+    /** The number of filled cells found. */
+    @Label("Filled")
+    public int filled;
+
+    /** The (unit, digit) pairs that appear more than once. */
+    @Label("Conflicts")
+    public int conflicts;
+}
@@ -0,0 +1,24 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one refresh of the board view.
+ */
+@Name("com.example.sudoku.ViewRefresh")
+@Label("View Refresh")
+@Category({"Sudoku", "Game"})
+@Description("A redraw of the cells that changed")
+public final class ViewRefreshEvent extends jdk.jfr.Event {
+
+    /** The number of cells redrawn. */
+    @Label("Cells")
+    public int cells;
+
+    /** The class of the board view. */
+    @Label("View")
+    public String view;
+}
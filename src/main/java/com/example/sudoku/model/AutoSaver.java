@@ -0,0 +1,122 @@
+package com.example.sudoku.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes saved games in the background.
+ * <p>
+ * {@link #save(byte[])} only hands the snapshot over and returns. A single
+ * daemon thread writes it to a temporary file through a {@link FileChannel},
+ * forces it to disk and renames it over the save file in one atomic move, so a
+ * crash leaves either the old game or the new one, never half of each. Saves
+ * that arrive while a write is running replace each other: at most one write
+ * is pending at any time, and it carries the newest snapshot.
+ */
+public class AutoSaver implements Closeable {
+
+    private final Path file;
+    private final Path temp;
+    private final ExecutorService writer;
+    // Newest snapshot not yet taken by the writer
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+
+    /**
+     * Constructs a saver for a file.
+     * @param file The save file; its directory is created on the first write.
+     */
+    public AutoSaver(Path file) {
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "sudoku-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads a save file.
+     * @param file The save file.
+     * @return Its bytes, or null if there is no saved game.
+     * @throws IOException If the file exists but cannot be read.
+     */
+    public static byte[] read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // Keep reading until the buffer is full
+            }
+            return data.array();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Schedules a snapshot to be written. Never blocks.
+     * @param snapshot The bytes of the saved game; not modified afterwards by the caller.
+     */
+    public void save(byte[] snapshot) {
+        if (pending.getAndSet(snapshot) == null) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Waits until every scheduled snapshot is on disk.
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error flushing the autosave: " + e.getCause());
+        }
+    }
+
+    /**
+     * Writes the last scheduled snapshot and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        flush();
+        writer.shutdown();
+    }
+
+    private void writePending() {
+        byte[] snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer data = ByteBuffer.wrap(snapshot);
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error writing the autosave " + file + ": " + e.getMessage());
+        }
+    }
+}
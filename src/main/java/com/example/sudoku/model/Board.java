@@ -0,0 +1,570 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.metrics.ValidationEvent;
+import java.util.Arrays;
+
+/**
+ * Primitive storage for the Sudoku grid.
+ * Cell values live in a flat row-major array and every row, column and block
+ * keeps a bitmask of the digits placed in it (bit {@code d - 1} for digit {@code d}),
+ * so checking whether a digit fits a cell is a single AND against three masks.
+ * <p>
+ * Validation is incremental: each unit keeps a running count per digit, and the
+ * board tracks how many (unit, digit) pairs are repeated and how many cells are
+ * filled. An edit only touches the counts of its own row, column and block, so
+ * error and completion queries are constant-time reads.
+ * <p>
+ * Every empty cell also keeps its candidate mask (the digits its row, column and
+ * block still allow), refreshed for the edited cell and its peers only. Empty cells
+ * are bucketed by their number of candidates, so the most constrained cells are
+ * found by looking at the first non-empty bucket.
+ * <p>
+ * Registered {@link I_BoardListener listeners} hear about every cell whose value,
+ * given flag or error state changed. An edit only looks at the edited cell and the
+ * peers holding the digit that left or entered it.
+ */
+public class Board {
+
+    private static final Metrics.Timer VALIDATE_TIME = Metrics.timer("board.validate");
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cells;
+
+    private final byte[] values;
+    private final boolean[] fixed;
+    private final long[] rowMasks;
+    private final long[] colMasks;
+    private final long[] blockMasks;
+    // Occurrences of each digit per unit, indexed as [unit * size + digit - 1]
+    private final int[] rowCounts;
+    private final int[] colCounts;
+    private final int[] blockCounts;
+    private int conflicts; // (unit, digit) pairs that appear more than once
+    private int filled;    // Non-empty cells
+
+    // Known solution of the loaded puzzle, and how many filled cells disagree with it
+    private final byte[] solution;
+    private boolean hasSolution;
+    private int divergent;
+    private long version; // Bumped on every change of a value
+
+    private final long[] candidates; // 0 for filled cells
+    // Empty cells grouped by candidate count: bucket k holds bucketSizes[k] cells from bucketCells[k * cells]
+    private final int[] bucketCells;
+    private final int[] bucketSizes;
+    private final int[] bucketOf;       // Bucket of each cell, or -1 if it is filled
+    private final int[] bucketPosition; // Position of each cell inside its bucket
+
+    // Listeners, replaced as a whole on every change so events never see a half-updated array
+    private I_BoardListener[] listeners = new I_BoardListener[0];
+    // What the listeners were last told about each cell
+    private final byte[] shownValues;
+    private final boolean[] shownFixed;
+    private final boolean[] shownErrors;
+
+    /**
+     * Constructs an empty board.
+     * @param geometry The block layout of the board.
+     */
+    public Board(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cells = geometry.getCells();
+        this.values = new byte[cells];
+        this.fixed = new boolean[cells];
+        this.rowMasks = new long[size];
+        this.colMasks = new long[size];
+        this.blockMasks = new long[size];
+        this.rowCounts = new int[size * size];
+        this.colCounts = new int[size * size];
+        this.blockCounts = new int[size * size];
+        this.solution = new byte[cells];
+        this.candidates = new long[cells];
+        this.bucketCells = new int[(size + 1) * cells];
+        this.bucketSizes = new int[size + 1];
+        this.bucketOf = new int[cells];
+        this.bucketPosition = new int[cells];
+        this.shownValues = new byte[cells];
+        this.shownFixed = new boolean[cells];
+        this.shownErrors = new boolean[cells];
+    }
+
+    /**
+     * Registers a listener for the changes of single cells. The listener is
+     * only told about changes made after this call.
+     * @param listener The listener to add.
+     */
+    public void addListener(I_BoardListener listener) {
+        if (listeners.length == 0) {
+            for (int i = 0; i < cells; i++) {
+                shownValues[i] = values[i];
+                shownFixed[i] = fixed[i];
+                shownErrors[i] = isError(i);
+            }
+        }
+        I_BoardListener[] grown = Arrays.copyOf(listeners, listeners.length + 1);
+        grown[listeners.length] = listener;
+        listeners = grown;
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener(I_BoardListener)}.
+     * @param listener The listener to remove.
+     */
+    public void removeListener(I_BoardListener listener) {
+        for (int k = 0; k < listeners.length; k++) {
+            if (listeners[k] == listener) {
+                I_BoardListener[] shrunk = new I_BoardListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, shrunk, 0, k);
+                System.arraycopy(listeners, k + 1, shrunk, k, shrunk.length - k);
+                listeners = shrunk;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the block layout of the board.
+     * @return The board geometry.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Replaces the whole board with a new puzzle. Every non-zero value
+     * becomes a fixed (given) cell.
+     * @param givens The initial values in row-major order (0 for empty).
+     */
+    public void load(int[] givens) {
+        hasSolution = false;
+        loadValues(givens);
+    }
+
+    /**
+     * Replaces the whole board with a new puzzle whose solution is known.
+     * The board then keeps track of whether the player's entries still agree
+     * with that solution (see {@link #matchesSolution()}).
+     * @param givens The initial values in row-major order (0 for empty).
+     * @param solved The solution of the puzzle in row-major order.
+     */
+    public void load(int[] givens, int[] solved) {
+        for (int i = 0; i < cells; i++) {
+            solution[i] = (byte) solved[i];
+        }
+        hasSolution = true;
+        loadValues(givens);
+    }
+
+    private void loadValues(int[] givens) {
+        for (int i = 0; i < cells; i++) {
+            values[i] = (byte) givens[i];
+            fixed[i] = givens[i] != 0;
+        }
+        version++;
+        validate();
+    }
+
+    /**
+     * Gets the value stored in a cell.
+     * @param index The cell index.
+     * @return The digit in the cell, or 0 if it is empty.
+     */
+    public int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Checks whether a cell is one of the starting numbers.
+     * @param index The cell index.
+     * @return true if the cell is fixed.
+     */
+    public boolean isFixed(int index) {
+        return fixed[index];
+    }
+
+    /**
+     * Checks whether a cell is currently an error, that is, whether its digit
+     * appears more than once in its row, column or block.
+     * @param index The cell index.
+     * @return true if the cell has an error.
+     */
+    public boolean isError(int index) {
+        int value = values[index];
+        if (value == 0) {
+            return false;
+        }
+        int digit = value - 1;
+        return rowCounts[geometry.rowOf(index) * size + digit] > 1
+                || colCounts[geometry.colOf(index) * size + digit] > 1
+                || blockCounts[geometry.blockOf(index) * size + digit] > 1;
+    }
+
+    /**
+     * Checks whether any digit is repeated in a row, column or block.
+     * @return true if the board has at least one conflict.
+     */
+    public boolean hasConflicts() {
+        return conflicts > 0;
+    }
+
+    /**
+     * Checks whether every cell is filled and no unit repeats a digit.
+     * @return true if the board is solved.
+     */
+    public boolean isSolved() {
+        return filled == cells && conflicts == 0;
+    }
+
+    /**
+     * Gets the number of non-empty cells.
+     * @return The filled cell count.
+     */
+    public int getFilledCount() {
+        return filled;
+    }
+
+    /**
+     * Checks whether the board was loaded with its solution and every filled
+     * cell agrees with it. This is a constant-time read of a running counter.
+     * @return true if the known solution is still reachable from the current values.
+     */
+    public boolean matchesSolution() {
+        return hasSolution && divergent == 0;
+    }
+
+    /**
+     * Checks whether the board was loaded with the puzzle's solution.
+     * @return true if {@link #getSolution(int)} gives the solution.
+     */
+    boolean hasSolution() {
+        return hasSolution;
+    }
+
+    /**
+     * Gets the value of a cell in the solution the board was loaded with.
+     * @param index The cell index.
+     * @return The solution digit, or 0 if no solution is known.
+     */
+    public int getSolution(int index) {
+        return hasSolution ? solution[index] : 0;
+    }
+
+    /**
+     * Gets a counter that changes every time a value on the board changes,
+     * so callers can tell whether results derived from the board are stale.
+     * @return The current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Stores a value in a cell and updates the counts of its row, column
+     * and block. Fixed cells and values outside the board's digits are
+     * ignored, and leave the board untouched.
+     * @param index The cell index.
+     * @param value The new digit, or 0 to clear the cell.
+     * @return true if the value was stored.
+     */
+    public boolean set(int index, int value) {
+        if (fixed[index] || value < 0 || value > size) {
+            return false;
+        }
+        int old = values[index];
+        if (old == value) {
+            return true;
+        }
+        int row = geometry.rowOf(index);
+        int col = geometry.colOf(index);
+        int block = geometry.blockOf(index);
+        long rowBefore = rowMasks[row];
+        long colBefore = colMasks[col];
+        long blockBefore = blockMasks[block];
+        if (old != 0) {
+            remove(index, old);
+        }
+        values[index] = (byte) value;
+        if (value != 0) {
+            add(index, value);
+        }
+        version++;
+        refreshCandidates(index);
+        // Peers only change when a digit entered or left one of the three units
+        if (rowBefore != rowMasks[row] || colBefore != colMasks[col] || blockBefore != blockMasks[block]) {
+            for (int peer : geometry.peers(index)) {
+                refreshCandidates(peer);
+            }
+        }
+        if (listeners.length > 0) {
+            publish(index);
+            // Solo los vecinos con el dígito que salió o entró pueden cambiar de estado de error
+            for (int peer : geometry.peers(index)) {
+                int digit = values[peer];
+                if (digit != 0 && (digit == old || digit == value)) {
+                    publish(peer);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the digits that can still go in a cell without repeating one in
+     * its row, column or block.
+     * @param index The cell index.
+     * @return The candidate mask, or 0 if the cell is filled.
+     */
+    public long candidates(int index) {
+        return candidates[index];
+    }
+
+    /**
+     * Gets the fewest candidates any empty cell has.
+     * @return The smallest candidate count, or -1 if every cell is filled.
+     */
+    public int getMinCandidateCount() {
+        for (int k = 0; k <= size; k++) {
+            if (bucketSizes[k] > 0) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the empty cells with a given number of candidates.
+     * @param count The number of candidates.
+     * @return The number of such cells.
+     */
+    public int countCellsWithCandidates(int count) {
+        return bucketSizes[count];
+    }
+
+    /**
+     * Gets one of the empty cells with a given number of candidates. The order
+     * of the cells is arbitrary and changes as the board is edited.
+     * @param count The number of candidates.
+     * @param n The position, below {@link #countCellsWithCandidates(int)}.
+     * @return The cell index.
+     */
+    public int cellWithCandidates(int count, int n) {
+        if (n < 0 || n >= bucketSizes[count]) {
+            throw new IndexOutOfBoundsException("Cell " + n + " of " + bucketSizes[count]);
+        }
+        return bucketCells[count * cells + n];
+    }
+
+    /**
+     * Gets the digits already used by the row, column and block of a cell.
+     * @param index The cell index.
+     * @return A digit mask of the used values.
+     */
+    public long usedMask(int index) {
+        return rowMasks[geometry.rowOf(index)] | colMasks[geometry.colOf(index)] | blockMasks[geometry.blockOf(index)];
+    }
+
+    /**
+     * Checks if a digit can be placed in a cell without repeating it
+     * in the cell's row, column or block.
+     * @param index The cell index.
+     * @param digit The digit to check.
+     * @return true if the placement is safe.
+     */
+    public boolean canPlace(int index, int digit) {
+        return (usedMask(index) & BoardGeometry.bit(digit)) == 0;
+    }
+
+    /**
+     * Copies the current values into a flat array.
+     * @param dest An array of at least as many elements as the board has cells.
+     */
+    public void copyValues(int[] dest) {
+        for (int i = 0; i < cells; i++) {
+            dest[i] = values[i];
+        }
+    }
+
+    /**
+     * Copies the current values into a compact array.
+     * @param dest An array of at least as many elements as the board has cells.
+     */
+    void copyValues(byte[] dest) {
+        System.arraycopy(values, 0, dest, 0, cells);
+    }
+
+    /**
+     * Replaces the values of the editable cells with a saved copy and revalidates
+     * the whole board. Fixed cells keep their givens.
+     * @param saved One value per cell, as filled by {@link #copyValues(byte[])}.
+     */
+    void restoreValues(byte[] saved) {
+        for (int i = 0; i < cells; i++) {
+            if (!fixed[i]) {
+                values[i] = saved[i];
+            }
+        }
+        version++;
+        validate();
+    }
+
+    /**
+     * Rebuilds every count, mask and counter from the stored values.
+     * Edits made through {@link #set(int, int)} keep them up to date on their own;
+     * this full pass is only needed after the values are replaced wholesale.
+     */
+    public void validate() {
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+        long start = Metrics.start();
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(colMasks, 0);
+        Arrays.fill(blockMasks, 0);
+        Arrays.fill(rowCounts, 0);
+        Arrays.fill(colCounts, 0);
+        Arrays.fill(blockCounts, 0);
+        conflicts = 0;
+        filled = 0;
+        divergent = 0;
+        for (int i = 0; i < cells; i++) {
+            if (values[i] != 0) {
+                add(i, values[i]);
+            }
+        }
+        Arrays.fill(bucketSizes, 0);
+        Arrays.fill(bucketOf, -1);
+        for (int i = 0; i < cells; i++) {
+            refreshCandidates(i);
+        }
+        if (listeners.length > 0) {
+            for (int i = 0; i < cells; i++) {
+                publish(i);
+            }
+        }
+        VALIDATE_TIME.stop(start);
+        if (event.shouldCommit()) {
+            event.cells = cells;
+            event.filled = filled;
+            event.conflicts = conflicts;
+            event.commit();
+        }
+    }
+
+    /**
+     * Tells the listeners what changed in a cell since they were last told.
+     * @param index The cell index.
+     */
+    private void publish(int index) {
+        if (shownFixed[index] != fixed[index]) {
+            shownFixed[index] = fixed[index];
+            for (I_BoardListener listener : listeners) {
+                listener.givenChanged(index, fixed[index]);
+            }
+        }
+        if (shownValues[index] != values[index]) {
+            int old = shownValues[index];
+            shownValues[index] = values[index];
+            for (I_BoardListener listener : listeners) {
+                listener.valueChanged(index, old, values[index]);
+            }
+        }
+        boolean error = isError(index);
+        if (shownErrors[index] != error) {
+            shownErrors[index] = error;
+            for (I_BoardListener listener : listeners) {
+                listener.errorChanged(index, error);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the candidate mask of a cell and moves it to the matching bucket.
+     * @param index The cell index.
+     */
+    private void refreshCandidates(int index) {
+        long mask = values[index] == 0 ? geometry.getAllDigits() & ~usedMask(index) : 0;
+        candidates[index] = mask;
+        int bucket = values[index] == 0 ? Long.bitCount(mask) : -1;
+        int current = bucketOf[index];
+        if (bucket == current) {
+            return;
+        }
+        if (current >= 0) {
+            // Swap-remove: the last cell of the bucket takes the freed position
+            int last = bucketCells[current * cells + --bucketSizes[current]];
+            int position = bucketPosition[index];
+            bucketCells[current * cells + position] = last;
+            bucketPosition[last] = position;
+        }
+        if (bucket >= 0) {
+            int position = bucketSizes[bucket]++;
+            bucketCells[bucket * cells + position] = index;
+            bucketPosition[index] = position;
+        }
+        bucketOf[index] = bucket;
+    }
+
+    /**
+     * Registers a digit in the row, column and block of a cell.
+     * @param index The cell index.
+     * @param digit The digit being added.
+     */
+    private void add(int index, int digit) {
+        filled++;
+        if (digit != solution[index]) {
+            divergent++;
+        }
+        increment(rowCounts, rowMasks, geometry.rowOf(index), digit);
+        increment(colCounts, colMasks, geometry.colOf(index), digit);
+        increment(blockCounts, blockMasks, geometry.blockOf(index), digit);
+    }
+
+    /**
+     * Unregisters a digit from the row, column and block of a cell.
+     * @param index The cell index.
+     * @param digit The digit being removed.
+     */
+    private void remove(int index, int digit) {
+        filled--;
+        if (digit != solution[index]) {
+            divergent--;
+        }
+        decrement(rowCounts, rowMasks, geometry.rowOf(index), digit);
+        decrement(colCounts, colMasks, geometry.colOf(index), digit);
+        decrement(blockCounts, blockMasks, geometry.blockOf(index), digit);
+    }
+
+    /**
+     * Adds one occurrence of a digit to a unit.
+     * @param counts The per-digit counts of the unit kind.
+     * @param masks The used-digit masks of the unit kind.
+     * @param unit The unit number.
+     * @param digit The digit.
+     */
+    private void increment(int[] counts, long[] masks, int unit, int digit) {
+        int count = ++counts[unit * size + digit - 1];
+        if (count == 1) {
+            masks[unit] |= BoardGeometry.bit(digit);
+        } else if (count == 2) {
+            conflicts++;
+        }
+    }
+
+    /**
+     * Removes one occurrence of a digit from a unit.
+     * @param counts The per-digit counts of the unit kind.
+     * @param masks The used-digit masks of the unit kind.
+     * @param unit The unit number.
+     * @param digit The digit.
+     */
+    private void decrement(int[] counts, long[] masks, int unit, int digit) {
+        int count = --counts[unit * size + digit - 1];
+        if (count == 0) {
+            masks[unit] &= ~BoardGeometry.bit(digit);
+        } else if (count == 1) {
+            conflicts--;
+        }
+    }
+}
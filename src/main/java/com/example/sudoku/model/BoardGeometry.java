@@ -0,0 +1,288 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Describes the shape of a Sudoku board made of rectangular blocks.
+ * A geometry with blocks of {@code blockRows x blockCols} cells has
+ * {@code blockRows * blockCols} rows, columns and digits. Digits are stored
+ * as bits of a {@code long} mask, so boards of up to 64 digits are supported.
+ * <p>
+ * The lookup tables (row, column and block of each cell, the cells of each
+ * unit and the peers of each cell) are computed once per geometry and shared
+ * by the board, the validator, the solvers and the generator. Arrays returned
+ * by this class are shared and must not be modified.
+ */
+public final class BoardGeometry {
+
+    /** Largest number of digits a geometry can have. */
+    public static final int MAX_SIZE = Long.SIZE;
+
+    /** Classic 6x6 board with 2x3 blocks. */
+    public static final BoardGeometry SIX = new BoardGeometry(2, 3);
+    /** Classic 9x9 board with 3x3 blocks. */
+    public static final BoardGeometry NINE = new BoardGeometry(3, 3);
+    /** 12x12 board with 3x4 blocks. */
+    public static final BoardGeometry TWELVE = new BoardGeometry(3, 4);
+    /** 16x16 board with 4x4 blocks. */
+    public static final BoardGeometry SIXTEEN = new BoardGeometry(4, 4);
+    /** 25x25 board with 5x5 blocks. */
+    public static final BoardGeometry TWENTY_FIVE = new BoardGeometry(5, 5);
+
+    private final int blockRows;
+    private final int blockCols;
+    private final int size;
+    private final int cells;
+    private final long allDigits;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] blockOf;
+    private final int[][] units; // Rows, then columns, then blocks
+    private final int[][] peers;
+
+    /**
+     * Builds the lookup tables of a geometry.
+     * @param blockRows The number of rows in a block.
+     * @param blockCols The number of columns in a block.
+     */
+    private BoardGeometry(int blockRows, int blockCols) {
+        this.blockRows = blockRows;
+        this.blockCols = blockCols;
+        this.size = blockRows * blockCols;
+        this.cells = size * size;
+        this.allDigits = size == Long.SIZE ? -1L : (1L << size) - 1;
+        this.rowOf = new int[cells];
+        this.colOf = new int[cells];
+        this.blockOf = new int[cells];
+        this.units = new int[3 * size][size];
+
+        int[] filled = new int[3 * size];
+        for (int i = 0; i < cells; i++) {
+            int row = i / size;
+            int col = i % size;
+            int block = (row / blockRows) * blockRows + col / blockCols;
+            rowOf[i] = row;
+            colOf[i] = col;
+            blockOf[i] = block;
+            units[row][filled[row]++] = i;
+            units[size + col][filled[size + col]++] = i;
+            units[2 * size + block][filled[2 * size + block]++] = i;
+        }
+
+        this.peers = new int[cells][];
+        int[] buffer = new int[3 * size];
+        for (int i = 0; i < cells; i++) {
+            int count = 0;
+            for (int[] unit : new int[][]{units[rowOf[i]], units[size + colOf[i]], units[2 * size + blockOf[i]]}) {
+                for (int peer : unit) {
+                    if (peer != i && !contains(buffer, count, peer)) {
+                        buffer[count++] = peer;
+                    }
+                }
+            }
+            peers[i] = Arrays.copyOf(buffer, count);
+        }
+    }
+
+    /**
+     * Gets the geometry for the given block dimensions.
+     * The standard layouts return shared instances.
+     * @param blockRows The number of rows in a block.
+     * @param blockCols The number of columns in a block.
+     * @return The board geometry.
+     * @throws IllegalArgumentException If the dimensions are not positive or
+     *                                  the board would have more than {@value #MAX_SIZE} digits.
+     */
+    public static BoardGeometry of(int blockRows, int blockCols) {
+        if (blockRows < 1 || blockCols < 1 || blockRows * blockCols > MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported block size " + blockRows + "x" + blockCols);
+        }
+        for (BoardGeometry standard : new BoardGeometry[]{SIX, NINE, TWELVE, SIXTEEN, TWENTY_FIVE}) {
+            if (standard.blockRows == blockRows && standard.blockCols == blockCols) {
+                return standard;
+            }
+        }
+        return new BoardGeometry(blockRows, blockCols);
+    }
+
+    /**
+     * Parses a block layout written as {@code ROWSxCOLS}, for example {@code 2x3}.
+     * @param text The layout to parse.
+     * @return The board geometry.
+     * @throws IllegalArgumentException If the text is not a valid layout.
+     */
+    public static BoardGeometry parse(String text) {
+        String[] parts = text.trim().toLowerCase().split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Block layout must look like 2x3: " + text);
+        }
+        try {
+            return of(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Block layout must look like 2x3: " + text, e);
+        }
+    }
+
+    /**
+     * Gets the bit that represents a digit inside a digit mask.
+     * @param digit A digit between 1 and the board size.
+     * @return The mask bit for the digit.
+     */
+    public static long bit(int digit) {
+        return 1L << (digit - 1);
+    }
+
+    /**
+     * Gets the number of rows in a block.
+     * @return The block height.
+     */
+    public int getBlockRows() { return blockRows; }
+
+    /**
+     * Gets the number of columns in a block.
+     * @return The block width.
+     */
+    public int getBlockCols() { return blockCols; }
+
+    /**
+     * Gets the number of rows, columns and digits.
+     * @return The board size.
+     */
+    public int getSize() { return size; }
+
+    /**
+     * Gets the total number of cells.
+     * @return The cell count.
+     */
+    public int getCells() { return cells; }
+
+    /**
+     * Gets the mask with one bit set for every digit of the board.
+     * @return The full digit mask.
+     */
+    public long getAllDigits() { return allDigits; }
+
+    /**
+     * Gets the number of units (rows, columns and blocks).
+     * @return The unit count.
+     */
+    public int getUnitCount() { return units.length; }
+
+    /**
+     * Computes the flat index of a cell.
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The row-major index of the cell.
+     */
+    public int index(int row, int col) { return row * size + col; }
+
+    /**
+     * Gets the row of a cell index.
+     * @param index The cell index.
+     * @return The row of the cell.
+     */
+    public int rowOf(int index) { return rowOf[index]; }
+
+    /**
+     * Gets the column of a cell index.
+     * @param index The cell index.
+     * @return The column of the cell.
+     */
+    public int colOf(int index) { return colOf[index]; }
+
+    /**
+     * Gets the block of a cell index, numbered left to right, top to bottom.
+     * @param index The cell index.
+     * @return The block of the cell.
+     */
+    public int blockOf(int index) { return blockOf[index]; }
+
+    /**
+     * Gets the cells of a unit. Units 0..size-1 are rows, the next size units
+     * are columns and the last size units are blocks.
+     * @param unit The unit number.
+     * @return The shared array of cell indices in the unit.
+     */
+    public int[] unit(int unit) { return units[unit]; }
+
+    /**
+     * Gets the cells that share a row, column or block with a cell.
+     * @param index The cell index.
+     * @return The shared array of peer indices.
+     */
+    public int[] peers(int index) { return peers[index]; }
+
+    /**
+     * Checks whether a row starts a new band of blocks.
+     * @param row The row index.
+     * @return true if the row is the first row of a block.
+     */
+    public boolean isBlockStartRow(int row) { return row % blockRows == 0; }
+
+    /**
+     * Checks whether a column starts a new stack of blocks.
+     * @param col The column index.
+     * @return true if the column is the first column of a block.
+     */
+    public boolean isBlockStartCol(int col) { return col % blockCols == 0; }
+
+    /**
+     * Formats a digit as the symbol shown to the player: 1-9, then A, B, C...
+     * Digits past Z (35) have no single-character symbol and are shown as numbers.
+     * @param digit The digit, or 0 for an empty cell.
+     * @return The symbol, or an empty string for 0.
+     */
+    public static String symbol(int digit) {
+        if (digit == 0) {
+            return "";
+        }
+        if (digit >= Character.MAX_RADIX) {
+            return Integer.toString(digit);
+        }
+        return String.valueOf(Character.toUpperCase(Character.forDigit(digit, Character.MAX_RADIX)));
+    }
+
+    /**
+     * Parses a symbol typed by the player.
+     * @param symbol The typed text.
+     * @return The digit it represents, or -1 if it is not a digit of this board.
+     */
+    public int parseSymbol(String symbol) {
+        if (symbol == null || symbol.length() != 1) {
+            return -1;
+        }
+        int digit = Character.digit(symbol.charAt(0), Character.MAX_RADIX);
+        return digit >= 1 && digit <= size ? digit : -1;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BoardGeometry)) {
+            return false;
+        }
+        BoardGeometry geometry = (BoardGeometry) other;
+        return blockRows == geometry.blockRows && blockCols == geometry.blockCols;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * blockRows + blockCols;
+    }
+
+    @Override
+    public String toString() {
+        return blockRows + "x" + blockCols;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.sudoku.model;
+
+/**
+ * Immutable copy of the board at one version, safe to read from any thread.
+ * <p>
+ * The model publishes a new snapshot after every operation that changes a
+ * value (see {@link SudokuModel#getSnapshot()}), so background work such as a
+ * hint solve, an autosave or an analysis never touches the live cells. A
+ * consumer takes a snapshot, computes, and checks
+ * {@link SudokuModel#isCurrent(BoardSnapshot)} before applying its result.
+ * <p>
+ * Values are packed into longs, 4 bits per cell on boards of up to 15 digits
+ * and 8 bits above that, so a 9x9 snapshot holds its values in two longs and
+ * its givens in another two. The longs are grouped in pages of
+ * {@value #PAGE_WORDS}: a snapshot that differs from the previous one in a
+ * single cell copies only that page and shares the rest, along with the givens.
+ */
+public final class BoardSnapshot {
+
+    private static final int PAGE_WORDS = 8;
+
+    private final BoardGeometry geometry;
+    private final long version;
+    private final int bitsPerValue;
+    private final long[][] pages;
+    private final long[] givens;
+    private final int filled;
+    private final boolean conflicts;
+
+    private BoardSnapshot(BoardGeometry geometry, long version, int bitsPerValue, long[][] pages, long[] givens,
+                          int filled, boolean conflicts) {
+        this.geometry = geometry;
+        this.version = version;
+        this.bitsPerValue = bitsPerValue;
+        this.pages = pages;
+        this.givens = givens;
+        this.filled = filled;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Copies a board.
+     * @param board The board, read from the thread that owns it.
+     * @return A snapshot of its current version.
+     */
+    static BoardSnapshot of(Board board) {
+        BoardGeometry geometry = board.getGeometry();
+        int cells = geometry.getCells();
+        // Potencias de dos, para que ningún valor quede partido entre dos longs
+        int bitsPerValue = geometry.getSize() < 16 ? 4 : 8;
+        int perWord = Long.SIZE / bitsPerValue;
+        int words = (cells + perWord - 1) / perWord;
+        long[][] pages = new long[(words + PAGE_WORDS - 1) / PAGE_WORDS][];
+        for (int p = 0; p < pages.length; p++) {
+            pages[p] = new long[Math.min(PAGE_WORDS, words - p * PAGE_WORDS)];
+        }
+        long[] givens = new long[(cells + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < cells; i++) {
+            int word = i / perWord;
+            pages[word / PAGE_WORDS][word % PAGE_WORDS] |= (long) board.get(i) << (i % perWord * bitsPerValue);
+            if (board.isFixed(i)) {
+                givens[i >>> 6] |= 1L << i;
+            }
+        }
+        return new BoardSnapshot(geometry, board.getVersion(), bitsPerValue, pages, givens,
+                board.getFilledCount(), board.hasConflicts());
+    }
+
+    /**
+     * Derives the snapshot of a board that changed in one cell since this one.
+     * @param board The board after the change, read from the thread that owns it.
+     * @param index The cell that changed; no other value nor any given may have changed.
+     * @return A snapshot of the board's current version.
+     */
+    BoardSnapshot withCell(Board board, int index) {
+        int perWord = Long.SIZE / bitsPerValue;
+        int word = index / perWord;
+        int shift = index % perWord * bitsPerValue;
+        long[][] copy = pages.clone();
+        long[] page = copy[word / PAGE_WORDS].clone();
+        page[word % PAGE_WORDS] = page[word % PAGE_WORDS] & ~(((1L << bitsPerValue) - 1) << shift)
+                | (long) board.get(index) << shift;
+        copy[word / PAGE_WORDS] = page;
+        return new BoardSnapshot(geometry, board.getVersion(), bitsPerValue, copy, givens,
+                board.getFilledCount(), board.hasConflicts());
+    }
+
+    /**
+     * Gets the block layout of the board.
+     * @return The board geometry.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Gets the board version this snapshot was taken at. Versions only grow,
+     * so a later snapshot always has a larger one.
+     * @return The version (see {@link SudokuModel#getBoardVersion()}).
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the value of a cell.
+     * @param index The cell index.
+     * @return The digit, or 0 if the cell was empty.
+     */
+    public int get(int index) {
+        int perWord = Long.SIZE / bitsPerValue;
+        int word = index / perWord;
+        return (int) (pages[word / PAGE_WORDS][word % PAGE_WORDS] >>> (index % perWord * bitsPerValue))
+                & ((1 << bitsPerValue) - 1);
+    }
+
+    /**
+     * Checks whether a cell is a given of the puzzle.
+     * @param index The cell index.
+     * @return true if the cell is fixed.
+     */
+    public boolean isFixed(int index) {
+        return (givens[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Copies the values into a flat array.
+     * @param dest An array of at least as many elements as the board has cells.
+     */
+    public void copyValues(int[] dest) {
+        for (int i = 0, cells = geometry.getCells(); i < cells; i++) {
+            dest[i] = get(i);
+        }
+    }
+
+    /**
+     * Gets the number of filled cells.
+     * @return The filled cell count.
+     */
+    public int getFilledCount() {
+        return filled;
+    }
+
+    /**
+     * Checks whether any row, column or block repeated a digit.
+     * @return true if the board had at least one conflict.
+     */
+    public boolean hasConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Checks whether every cell was filled without conflicts.
+     * @return true if the board was solved.
+     */
+    public boolean isSolved() {
+        return filled == geometry.getCells() && !conflicts;
+    }
+
+    @Override
+    public String toString() {
+        int[] grid = new int[geometry.getCells()];
+        copyValues(grid);
+        StringBuilder out = new StringBuilder("BoardSnapshot[v").append(version).append(' ');
+        PuzzleText.append(geometry, grid, out);
+        return out.append(']').toString();
+    }
+}
@@ -2,30 +2,53 @@ package com.example.sudoku.model;
 
 /**
  * Represents a single cell in the Sudoku board.
+ * Cells handed out by the model are thin views over the {@link Board} storage,
+ * so they always reflect the current state, and write through the model.
+ * Cells built with the public
+ * constructor are detached value holders (used, for example, for hints).
  */
 public class Cell {
 
-    private int value;
+    private final SudokuModel model; // null for detached cells
+    private final Board board;   // null for detached cells
+    private final int index;
     private final int row;
     private final int col;
+    private int value;           // Only used by detached cells
     private final boolean isFixed; // To know if it's one of the starting numbers
-    private boolean isError;     // To paint the cell red if there's a mistake
 
     // Este es el constructor de la celda. Cada vez que se crea una,
     // se le asigna su fila, columna y el número que tiene.
     // También decide si es una celda fija (si tiene un número desde el principio).
     /**
-     * Constructs a new Cell.
-     * @param row The row index (0-5).
-     * @param col The column index (0-5).
-     * @param initialValue The initial value (0 for empty, 1-6 for fixed).
+     * Constructs a new detached Cell.
+     * @param row The row index (0-based).
+     * @param col The column index (0-based).
+     * @param initialValue The initial value (0 for empty, otherwise fixed).
      */
     public Cell(int row, int col, int initialValue) {
+        this.model = null;
+        this.board = null;
+        this.index = -1;
         this.row = row;
         this.col = col;
         this.value = initialValue;
         this.isFixed = (initialValue != 0);
-        this.isError = false;
+    }
+
+    /**
+     * Constructs a Cell that reads the given board and writes through its model.
+     * @param model The model that owns the board.
+     * @param board The backing board storage.
+     * @param index The row-major index of the cell.
+     */
+    Cell(SudokuModel model, Board board, int index) {
+        this.model = model;
+        this.board = board;
+        this.index = index;
+        this.row = board.getGeometry().rowOf(index);
+        this.col = board.getGeometry().colOf(index);
+        this.isFixed = false;
     }
 
     // --- Getters ---
@@ -35,7 +58,7 @@ public class Cell {
      * Gets the current value of the cell.
      * @return The number in the cell (0 if empty).
      */
-    public int getValue() { return value; }
+    public int getValue() { return board != null ? board.get(index) : value; }
 
     /**
      * Gets the row index of the cell.
@@ -53,13 +76,21 @@ public class Cell {
      * Checks if the cell is a fixed (pre-filled) cell.
      * @return true if the cell is fixed, false otherwise.
      */
-    public boolean isFixed() { return isFixed; }
+    public boolean isFixed() { return board != null ? board.isFixed(index) : isFixed; }
 
     /**
-     * Checks if the cell is currently marked as an error.
+     * Checks if the cell is currently marked as an error. The error state is
+     * derived from the board's unit counts; detached cells are never errors.
      * @return true if the cell has an error, false otherwise.
      */
-    public boolean isError() { return isError; }
+    public boolean isError() { return board != null && board.isError(index); }
+
+    /**
+     * Gets the pencil marks of the cell: the digits its row, column and block
+     * still allow. Detached cells have none.
+     * @return A digit mask (bit {@code d - 1} for digit {@code d}), or 0 if the cell is filled.
+     */
+    public long getCandidates() { return board != null ? board.candidates(index) : 0; }
 
     // --- Setters ---
 
@@ -68,18 +99,15 @@ public class Cell {
     /**
      * Sets the value of the cell.
      * This operation will only succeed if the cell is not fixed.
+     * On the cells of a {@link SudokuModel} it is a player move, like
+     * {@link SudokuModel#setCellValue(int, int, int)}: it is journaled and published.
      * @param value The new value to set.
      */
     public void setValue(int value) {
-        if (!isFixed) {
+        if (model != null) {
+            model.setCellValue(row, col, value);
+        } else if (!isFixed) {
             this.value = value;
         }
     }
-
-    // Un setter simple para marcar si la celda tiene un error o no.
-    /**
-     * Sets the error state of the cell.
-     * @param error true to mark the cell as an error, false to clear it.
-     */
-    public void setError(boolean error) { this.isError = error; }
-}
\ No newline at end of file
+}
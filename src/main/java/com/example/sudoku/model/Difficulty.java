@@ -0,0 +1,57 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.solver.LogicalRating;
+
+/**
+ * Difficulty levels the player can choose. Each level is a band of
+ * {@link LogicalRating#getScore() logical scores} and a clue budget: the
+ * largest share of the cells that may start filled.
+ */
+public enum Difficulty {
+
+    /** Hidden singles only. */
+    EASY(0, 12, 0.50, "Fácil"),
+    /** Needs naked singles or locked candidates. */
+    MEDIUM(23, 29, 0.40, "Medio"),
+    /** Needs pairs, triples, X-wings or more. */
+    HARD(30, LogicalRating.BEYOND_TECHNIQUES, 0.33, "Difícil");
+
+    private final int minScore;
+    private final int maxScore;
+    private final double clueShare;
+    private final String displayName;
+
+    Difficulty(int minScore, int maxScore, double clueShare, String displayName) {
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.clueShare = clueShare;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Gets the lowest logical score of the level.
+     * @return The score in tenths.
+     */
+    public int getMinScore() { return minScore; }
+
+    /**
+     * Gets the highest logical score of the level.
+     * @return The score in tenths.
+     */
+    public int getMaxScore() { return maxScore; }
+
+    /**
+     * Gets the largest number of givens a puzzle of this level may have.
+     * @param geometry The block layout of the board.
+     * @return The clue budget.
+     */
+    public int clueBudget(BoardGeometry geometry) {
+        return (int) Math.round(geometry.getCells() * clueShare);
+    }
+
+    /**
+     * Gets the name shown to the player.
+     * @return The level name in Spanish.
+     */
+    public String getDisplayName() { return displayName; }
+}
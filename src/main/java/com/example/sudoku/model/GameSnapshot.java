@@ -0,0 +1,172 @@
+package com.example.sudoku.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary copy of a game in progress, used by the autosave.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ *  0  int   magic "SDKS"
+ *  4  short format version
+ *  6  byte  block rows
+ *  7  byte  block columns
+ *  8  long  elapsed playing time in milliseconds
+ * 16  byte  difficulty (ordinal plus one, 0 for the classic board)
+ * 17  byte  flags (bit 0: the solution is known)
+ * 18  short reserved
+ * 20  int   number of journaled moves
+ * 24  int   current position inside those moves
+ * 28  int   reserved
+ * 32  byte[cells]        current values
+ *     byte[cells]        solution (zeros when unknown)
+ *     byte[(cells+7)/8]  givens mask, one bit per cell
+ *     byte[cells]        values before the first journaled move
+ *     int[moves]         journaled moves, packed as in {@link MoveJournal}
+ *     int                CRC-32 of everything above
+ * </pre>
+ * A 9x9 game with a hundred moves takes well under a kilobyte.
+ */
+final class GameSnapshot {
+
+    private static final int MAGIC = 0x53444B53; // "SDKS"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SOLUTION_KNOWN = 1;
+
+    final BoardGeometry geometry;
+    final long elapsedMillis;
+    final Difficulty difficulty;
+    final byte[] values;
+    final byte[] solution; // null when unknown
+    final boolean[] givens;
+    final byte[] base;
+    final int[] moves;
+    final int position;
+
+    GameSnapshot(BoardGeometry geometry, long elapsedMillis, Difficulty difficulty, byte[] values,
+                 byte[] solution, boolean[] givens, byte[] base, int[] moves, int position) {
+        this.geometry = geometry;
+        this.elapsedMillis = elapsedMillis;
+        this.difficulty = difficulty;
+        this.values = values;
+        this.solution = solution;
+        this.givens = givens;
+        this.base = base;
+        this.moves = moves;
+        this.position = position;
+    }
+
+    /**
+     * Serializes the snapshot.
+     * @return The bytes to write to disk.
+     */
+    byte[] encode() {
+        int cells = geometry.getCells();
+        ByteBuffer out = ByteBuffer.allocate(size(cells, moves.length));
+        out.putInt(MAGIC).putShort(VERSION)
+                .put((byte) geometry.getBlockRows()).put((byte) geometry.getBlockCols())
+                .putLong(elapsedMillis)
+                .put((byte) (difficulty == null ? 0 : difficulty.ordinal() + 1))
+                .put((byte) (solution != null ? SOLUTION_KNOWN : 0))
+                .putShort((short) 0)
+                .putInt(moves.length).putInt(position).putInt(0);
+        out.put(values);
+        out.put(solution != null ? solution : new byte[cells]);
+        byte[] mask = new byte[(cells + 7) / 8];
+        for (int i = 0; i < cells; i++) {
+            if (givens[i]) {
+                mask[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.put(mask);
+        out.put(base);
+        for (int move : moves) {
+            out.putInt(move);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return out.array();
+    }
+
+    /**
+     * Reads a snapshot.
+     * @param data The bytes read from disk.
+     * @return The snapshot.
+     * @throws IOException If the data is not a valid snapshot of a supported version.
+     */
+    static GameSnapshot decode(byte[] data) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            if (data.length < HEADER_BYTES || in.getInt() != MAGIC) {
+                throw new IOException("Not a saved game");
+            }
+            if (in.getShort() != VERSION) {
+                throw new IOException("Unsupported saved game version " + in.getShort(4));
+            }
+            BoardGeometry geometry = BoardGeometry.of(in.get(), in.get());
+            long elapsedMillis = in.getLong();
+            int difficulty = in.get();
+            boolean solutionKnown = (in.get() & SOLUTION_KNOWN) != 0;
+            in.getShort();
+            int moveCount = in.getInt();
+            int position = in.getInt();
+            in.getInt();
+            int cells = geometry.getCells();
+            if (moveCount < 0 || moveCount > MoveJournal.DEFAULT_MAX_MOVES || position < 0 || position > moveCount
+                    || difficulty < 0 || difficulty > Difficulty.values().length
+                    || data.length != size(cells, moveCount)) {
+                throw new IOException("Corrupt saved game header");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length - Integer.BYTES);
+            if ((int) crc.getValue() != ByteBuffer.wrap(data).getInt(data.length - Integer.BYTES)) {
+                throw new IOException("Corrupt saved game (checksum mismatch)");
+            }
+            byte[] values = new byte[cells];
+            in.get(values);
+            byte[] solution = new byte[cells];
+            in.get(solution);
+            byte[] mask = new byte[(cells + 7) / 8];
+            in.get(mask);
+            boolean[] givens = new boolean[cells];
+            for (int i = 0; i < cells; i++) {
+                givens[i] = (mask[i >> 3] & (1 << (i & 7))) != 0;
+            }
+            byte[] base = new byte[cells];
+            in.get(base);
+            int[] moves = new int[moveCount];
+            for (int k = 0; k < moveCount; k++) {
+                moves[k] = in.getInt();
+            }
+            int size = geometry.getSize();
+            for (int i = 0; i < cells; i++) {
+                if (!isDigit(values[i], size) || !isDigit(solution[i], size) || !isDigit(base[i], size)) {
+                    throw new IOException("Corrupt saved game (digit out of range)");
+                }
+            }
+            for (int move : moves) {
+                if (MoveJournal.cellOf(move) >= cells || MoveJournal.oldValueOf(move) > size
+                        || MoveJournal.newValueOf(move) > size) {
+                    throw new IOException("Corrupt saved game (invalid move)");
+                }
+            }
+            return new GameSnapshot(geometry, elapsedMillis, difficulty == 0 ? null : Difficulty.values()[difficulty - 1],
+                    values, solutionKnown ? solution : null, givens, base, moves, position);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt saved game", e);
+        }
+    }
+
+    private static boolean isDigit(byte value, int size) {
+        return value >= 0 && value <= size;
+    }
+
+    private static int size(int cells, int moves) {
+        return HEADER_BYTES + 3 * cells + (cells + 7) / 8 + Integer.BYTES * moves + Integer.BYTES;
+    }
+}
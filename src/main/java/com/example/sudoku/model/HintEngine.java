@@ -0,0 +1,163 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.metrics.HintEvent;
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.solver.ParallelSolver;
+import com.example.sudoku.solver.SolveResult;
+import com.example.sudoku.solver.Solver;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Computes hints away from the thread that owns the model, so a hard solve
+ * never freezes the window.
+ * <p>
+ * A request picks the hint cell right away and takes the model's
+ * {@link BoardSnapshot}. While the player's entries agree with the puzzle's
+ * solution (or the board was already solved at this version) the answer is
+ * known and delivered at once. Otherwise the snapshot is unpacked and solved
+ * on a worker thread, and the result is handed back through
+ * the callback executor (on JavaFX, {@code Platform::runLater}). A new request
+ * or {@link #cancel()} drops the result in flight; callers cancel when the player
+ * edits the board. A result for a board that changed without a cancellation is
+ * never delivered either: the hint is computed again for the current board.
+ * <p>
+ * Every solve runs within the hint budget of the model
+ * ({@link SudokuModel#HINT_BUDGET_MILLIS}) and with a cancellation flag, so a
+ * cancelled solve stops at its next search node and a board the budget cannot
+ * settle gets no hint instead of keeping a worker busy. Every worker thread has
+ * its own solver. Except for the workers, an engine is used from the model's
+ * thread only.
+ * <p>
+ * Every delivered hint is timed from its request, as a {@link HintEvent} and
+ * in the {@code hint.latency} timer of {@link Metrics}.
+ */
+public class HintEngine {
+
+    private static final Metrics.Timer HINT_TIME = Metrics.timer("hint.latency");
+
+    private final SudokuModel model;
+    private final Executor callbackExecutor;
+    private final ExecutorService workers;
+    private final ThreadLocal<Solver> solvers;
+    private int generation;  // Bumped on every request and cancellation
+    private Future<?> running;
+    private AtomicBoolean runningCancel; // Stops the solve of the request in flight
+
+    /**
+     * Constructs an engine.
+     * @param model The model the hints are for.
+     * @param callbackExecutor Runs the result callbacks on the model's thread.
+     */
+    public HintEngine(SudokuModel model, Executor callbackExecutor) {
+        this.model = model;
+        this.callbackExecutor = callbackExecutor;
+        this.workers = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "sudoku-hints");
+            thread.setDaemon(true);
+            return thread;
+        });
+        BoardGeometry geometry = model.getGeometry();
+        this.solvers = ThreadLocal.withInitial(() -> new ParallelSolver(geometry));
+    }
+
+    /**
+     * Asks for a hint. Any request still in flight is cancelled first.
+     * @param smart true for the most constrained cell (see {@link SudokuModel#getSmartHint()}),
+     *              false for a random empty cell (see {@link SudokuModel#getHint()}).
+     * @param onResult Receives the hint, or null if the board is full or has no
+     *                 solution. It may be called before this method returns; it
+     *                 is not called at all if the request is cancelled.
+     */
+    public void request(boolean smart, Consumer<Cell> onResult) {
+        HintEvent event = new HintEvent();
+        event.begin();
+        request(smart, onResult, event, Metrics.start());
+    }
+
+    private void request(boolean smart, Consumer<Cell> onResult, HintEvent event, long start) {
+        cancel();
+        int index = smart ? model.mostConstrainedCell() : model.randomEmptyCell();
+        if (index < 0) {
+            finish(event, start, smart, "FULL");
+            onResult.accept(null);
+            return;
+        }
+        int known = model.knownSolvedValue(index);
+        if (known >= 0) {
+            finish(event, start, smart, known == 0 ? "UNSOLVABLE" : "KNOWN");
+            onResult.accept(hint(index, known));
+            return;
+        }
+        int ticket = generation;
+        BoardSnapshot snapshot = model.getSnapshot();
+        AtomicBoolean cancelFlag = new AtomicBoolean();
+        runningCancel = cancelFlag;
+        running = workers.submit(() -> {
+            int[] grid = new int[snapshot.getGeometry().getCells()];
+            snapshot.copyValues(grid);
+            SolveResult result = solvers.get().solve(grid, SudokuModel.hintBudget().withCancelFlag(cancelFlag));
+            if (!cancelFlag.get()) {
+                callbackExecutor.execute(() -> deliver(ticket, snapshot, smart, index, grid, result, onResult,
+                        event, start));
+            }
+        });
+    }
+
+    /**
+     * Checks whether a request is waiting for its solve.
+     * @return true while a result is in flight.
+     */
+    public boolean isBusy() {
+        return running != null;
+    }
+
+    /**
+     * Cancels the request in flight, if any; its callback will not be called.
+     */
+    public void cancel() {
+        generation++;
+        if (running != null) {
+            runningCancel.set(true);
+            running.cancel(false);
+            running = null;
+            runningCancel = null;
+        }
+    }
+
+    private void deliver(int ticket, BoardSnapshot snapshot, boolean smart, int index, int[] grid, SolveResult result,
+                         Consumer<Cell> onResult, HintEvent event, long start) {
+        if (ticket != generation) {
+            return; // Cancelada
+        }
+        running = null;
+        runningCancel = null;
+        if (!model.isCurrent(snapshot)) {
+            request(smart, onResult, event, start); // El tablero cambió mientras se resolvía
+            return;
+        }
+        // Un tablero que agotó el presupuesto se trata como sin solución hasta que cambie
+        boolean solvable = result.isSolved();
+        model.cacheSolution(snapshot.getVersion(), grid, solvable);
+        finish(event, start, smart, result.getStatus().name());
+        onResult.accept(hint(index, solvable ? grid[index] : 0));
+    }
+
+    private static void finish(HintEvent event, long start, boolean smart, String outcome) {
+        HINT_TIME.stop(start);
+        if (event.shouldCommit()) {
+            event.smart = smart;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private Cell hint(int index, int value) {
+        BoardGeometry geometry = model.getGeometry();
+        return value == 0 ? null : new Cell(geometry.rowOf(index), geometry.colOf(index), value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.sudoku.model;
+
+/**
+ * Receives the changes of single cells of a {@link Board}, so a view can
+ * redraw only the cells that changed instead of the whole grid.
+ * <p>
+ * Events are sent on the thread that changed the board, after the change is
+ * complete. A bulk change (a new puzzle, a restored game) sends one event per
+ * cell that actually differs from what the listener was last told.
+ */
+public interface I_BoardListener {
+
+    /**
+     * Called when the digit of a cell changes.
+     * @param index The cell index.
+     * @param oldValue The previous digit, or 0.
+     * @param newValue The new digit, or 0.
+     */
+    void valueChanged(int index, int oldValue, int newValue);
+
+    /**
+     * Called when a cell starts or stops repeating a digit of its row, column or block.
+     * @param index The cell index.
+     * @param error true if the cell is now an error.
+     */
+    void errorChanged(int index, boolean error);
+
+    /**
+     * Called when a cell becomes a given of a new puzzle, or stops being one.
+     * @param index The cell index.
+     * @param given true if the cell is now fixed.
+     */
+    void givenChanged(int index, boolean given);
+}
@@ -0,0 +1,261 @@
+package com.example.sudoku.model;
+
+/**
+ * History of the player's edits, for undo, redo and jumping to any point of a game.
+ * <p>
+ * Every edit is packed into one {@code int}: the cell index (12 bits), the old
+ * value (7 bits), the new value (7 bits) and a flag for hint placements. The
+ * entries live in a ring of primitives that doubles up to a maximum size and
+ * then drops its oldest moves, so recording allocates nothing once it has grown.
+ * Positions are absolute move numbers: position {@code p} is the board after the
+ * first {@code p} moves. Every {@value #CHECKPOINT_INTERVAL} moves the journal
+ * keeps a one-byte-per-cell copy of the board, so any position is at most that
+ * many replayed moves away from a checkpoint.
+ * <p>
+ * The journal only stores moves; {@link SudokuModel} applies them to the board.
+ */
+public class MoveJournal {
+
+    /** Number of moves between two checkpoints. */
+    public static final int CHECKPOINT_INTERVAL = 64;
+    /** Default number of moves kept before the oldest ones are dropped. */
+    public static final int DEFAULT_MAX_MOVES = 1 << 16;
+    /** Returned by {@link #undo()} and {@link #redo()} when there is no move to take. */
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 4 * CHECKPOINT_INTERVAL;
+    private static final int CELL_BITS = 12;
+    private static final int VALUE_BITS = 7;
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+    private static final int VALUE_MASK = (1 << VALUE_BITS) - 1;
+    private static final int OLD_SHIFT = CELL_BITS;
+    private static final int NEW_SHIFT = CELL_BITS + VALUE_BITS;
+    private static final int HINT_FLAG = 1 << (CELL_BITS + 2 * VALUE_BITS);
+
+    private final int cells;
+    private final int maxMoves;
+    private int[] entries;
+    private byte[][] checkpoints;
+    private long first;  // Oldest position still reachable, always on a checkpoint
+    private long cursor; // Current position
+    private long end;    // Position after the last recorded move
+
+    /**
+     * Constructs a journal that keeps up to {@value #DEFAULT_MAX_MOVES} moves.
+     * @param geometry The block layout of the board.
+     */
+    public MoveJournal(BoardGeometry geometry) {
+        this(geometry, DEFAULT_MAX_MOVES);
+    }
+
+    /**
+     * Constructs a journal.
+     * @param geometry The block layout of the board.
+     * @param maxMoves How many moves to keep before the oldest ones are dropped;
+     *                 rounded up to a power of two of at least {@value #INITIAL_CAPACITY}.
+     */
+    public MoveJournal(BoardGeometry geometry, int maxMoves) {
+        this.cells = geometry.getCells();
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < maxMoves) {
+            capacity <<= 1;
+        }
+        this.maxMoves = capacity;
+        this.entries = new int[INITIAL_CAPACITY];
+        this.checkpoints = new byte[INITIAL_CAPACITY / CHECKPOINT_INTERVAL + 1][];
+    }
+
+    /**
+     * Packs a move into a journal entry.
+     * @param cell The cell index.
+     * @param oldValue The value before the move.
+     * @param newValue The value after the move.
+     * @param hint true if the move placed a hint.
+     * @return The packed entry.
+     */
+    public static int pack(int cell, int oldValue, int newValue, boolean hint) {
+        return cell | oldValue << OLD_SHIFT | newValue << NEW_SHIFT | (hint ? HINT_FLAG : 0);
+    }
+
+    /**
+     * Gets the cell of an entry.
+     * @param entry The packed entry.
+     * @return The cell index.
+     */
+    public static int cellOf(int entry) { return entry & CELL_MASK; }
+
+    /**
+     * Gets the value a cell had before the move.
+     * @param entry The packed entry.
+     * @return The old digit, or 0.
+     */
+    public static int oldValueOf(int entry) { return entry >>> OLD_SHIFT & VALUE_MASK; }
+
+    /**
+     * Gets the value a cell had after the move.
+     * @param entry The packed entry.
+     * @return The new digit, or 0.
+     */
+    public static int newValueOf(int entry) { return entry >>> NEW_SHIFT & VALUE_MASK; }
+
+    /**
+     * Checks whether a move placed a hint.
+     * @param entry The packed entry.
+     * @return true for hint placements.
+     */
+    public static boolean isHint(int entry) { return (entry & HINT_FLAG) != 0; }
+
+    /**
+     * Forgets every move and starts a new history from the current board.
+     * @param board The board in its starting state.
+     */
+    void clear(Board board) {
+        first = 0;
+        cursor = 0;
+        end = 0;
+        snapshot(board, 0);
+    }
+
+    /**
+     * Records a move that was just applied to the board. Moves that were
+     * undone and not redone are discarded.
+     * @param entry The packed move.
+     * @param board The board after the move, for checkpoints.
+     */
+    void record(int entry, Board board) {
+        end = cursor;
+        if (end - first == entries.length) {
+            if (entries.length < maxMoves) {
+                grow();
+            } else {
+                first += CHECKPOINT_INTERVAL; // Se descarta el tramo más antiguo
+            }
+        }
+        entries[(int) (end & (entries.length - 1))] = entry;
+        end++;
+        cursor = end;
+        if (end % CHECKPOINT_INTERVAL == 0) {
+            snapshot(board, end);
+        }
+    }
+
+    /**
+     * Steps back one move.
+     * @return The move to revert, or {@link #NONE} at the start of the history.
+     */
+    int undo() {
+        if (cursor == first) {
+            return NONE;
+        }
+        cursor--;
+        return entryAt(cursor);
+    }
+
+    /**
+     * Steps forward one move.
+     * @return The move to apply again, or {@link #NONE} at the end of the history.
+     */
+    int redo() {
+        if (cursor == end) {
+            return NONE;
+        }
+        return entryAt(cursor++);
+    }
+
+    /**
+     * Gets the move that leads from a position to the next one.
+     * @param position A position from {@link #getFirstPosition()} to {@link #getEndPosition()} (excluded).
+     * @return The packed move.
+     */
+    public int entryAt(long position) {
+        if (position < first || position >= end) {
+            throw new IndexOutOfBoundsException("Move " + position + " outside " + first + ".." + end);
+        }
+        return entries[(int) (position & (entries.length - 1))];
+    }
+
+    /**
+     * Gets the checkpoint closest before a position.
+     * @param position A reachable position.
+     * @return The position of the checkpoint.
+     */
+    long checkpointBefore(long position) {
+        return position - position % CHECKPOINT_INTERVAL;
+    }
+
+    /**
+     * Gets the board saved at a checkpoint.
+     * @param position The position of the checkpoint.
+     * @return One value per cell; owned by the journal.
+     */
+    byte[] checkpoint(long position) {
+        return checkpoints[slot(position)];
+    }
+
+    /**
+     * Moves the current position without touching the board; the caller has
+     * already brought the board to that position.
+     * @param position A reachable position.
+     */
+    void moveTo(long position) {
+        cursor = position;
+    }
+
+    /**
+     * Gets the current position.
+     * @return The number of moves applied since the start of the history.
+     */
+    public long getPosition() { return cursor; }
+
+    /**
+     * Gets the oldest position that can still be reached.
+     * @return The position; it grows when old moves are dropped.
+     */
+    public long getFirstPosition() { return first; }
+
+    /**
+     * Gets the position after the last recorded move.
+     * @return The newest reachable position.
+     */
+    public long getEndPosition() { return end; }
+
+    /**
+     * Checks whether a move can be undone.
+     * @return true if the position is after the start of the history.
+     */
+    public boolean canUndo() { return cursor > first; }
+
+    /**
+     * Checks whether an undone move can be applied again.
+     * @return true if the position is before the end of the history.
+     */
+    public boolean canRedo() { return cursor < end; }
+
+    private void snapshot(Board board, long position) {
+        int slot = slot(position);
+        if (checkpoints[slot] == null) {
+            checkpoints[slot] = new byte[cells];
+        }
+        board.copyValues(checkpoints[slot]);
+    }
+
+    private int slot(long position) {
+        return (int) (position / CHECKPOINT_INTERVAL % checkpoints.length);
+    }
+
+    /**
+     * Doubles the ring, keeping every entry and checkpoint at its position.
+     */
+    private void grow() {
+        int[] grownEntries = new int[entries.length * 2];
+        byte[][] grownCheckpoints = new byte[grownEntries.length / CHECKPOINT_INTERVAL + 1][];
+        for (long p = first; p < end; p++) {
+            grownEntries[(int) (p & (grownEntries.length - 1))] = entries[(int) (p & (entries.length - 1))];
+        }
+        for (long p = first; p <= end; p += CHECKPOINT_INTERVAL) {
+            grownCheckpoints[(int) (p / CHECKPOINT_INTERVAL % grownCheckpoints.length)] = checkpoints[slot(p)];
+        }
+        entries = grownEntries;
+        checkpoints = grownCheckpoints;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.sudoku.model;
+
+/**
+ * An immutable generated puzzle: its givens and the solution they lead to.
+ * Both grids are flat row-major arrays; 0 marks an empty cell in the givens.
+ */
+public final class Puzzle {
+
+    private final BoardGeometry geometry;
+    private final int[] givens;
+    private final int[] solution;
+
+    /**
+     * Constructs a puzzle. The arrays are owned by the puzzle afterwards and
+     * must not be modified by the caller.
+     * @param geometry The block layout of the puzzle.
+     * @param givens The starting values (0 for empty).
+     * @param solution The solved grid.
+     */
+    public Puzzle(BoardGeometry geometry, int[] givens, int[] solution) {
+        this.geometry = geometry;
+        this.givens = givens;
+        this.solution = solution;
+    }
+
+    /**
+     * Gets the block layout of the puzzle.
+     * @return The board geometry.
+     */
+    public BoardGeometry getGeometry() { return geometry; }
+
+    /**
+     * Gets the starting value of a cell.
+     * @param index The cell index.
+     * @return The given digit, or 0 if the cell starts empty.
+     */
+    public int getGiven(int index) { return givens[index]; }
+
+    /**
+     * Gets the solution value of a cell.
+     * @param index The cell index.
+     * @return The digit of the cell in the solved grid.
+     */
+    public int getSolution(int index) { return solution[index]; }
+
+    /**
+     * Copies the givens into a flat array.
+     * @param dest An array with room for every cell.
+     */
+    public void copyGivens(int[] dest) {
+        System.arraycopy(givens, 0, dest, 0, givens.length);
+    }
+
+    /**
+     * Copies the solution into a flat array.
+     * @param dest An array with room for every cell.
+     */
+    public void copySolution(int[] dest) {
+        System.arraycopy(solution, 0, dest, 0, solution.length);
+    }
+
+    /**
+     * Counts the cells that start filled.
+     * @return The number of givens.
+     */
+    public int getGivenCount() {
+        int count = 0;
+        for (int given : givens) {
+            if (given != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
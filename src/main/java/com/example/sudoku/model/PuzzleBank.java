@@ -0,0 +1,434 @@
+package com.example.sudoku.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A read-only file of pre-generated puzzles, memory-mapped so that serving a
+ * puzzle is a few reads from the page cache.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ *  0  int   magic "SDKB"
+ *  4  short format version
+ *  6  byte  block rows
+ *  7  byte  block columns
+ *  8  int   number of puzzles
+ * 12  int   record size in bytes
+ * 16  long  offset of the difficulty index
+ * 24  long  reserved
+ * 32  records, one per puzzle:
+ *       solution digits minus one, packed in {@code bitsPerDigit} bits each,
+ *       one bit per cell telling whether it is a given,
+ *       one difficulty byte (0 to 255, higher is harder)
+ * index:
+ *       int[257] start of each difficulty inside the table below (the last entry is the count),
+ *       int[count] puzzle numbers grouped by difficulty
+ * </pre>
+ * Records are fixed-size, so puzzle {@code i} is found by arithmetic alone.
+ * A bank can be read by many threads at once.
+ */
+public final class PuzzleBank implements Closeable {
+
+    /** The number of difficulty levels a record can carry. */
+    public static final int DIFFICULTY_LEVELS = 256;
+
+    private static final int MAGIC = 0x53444B42; // "SDKB"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final BoardGeometry geometry;
+    private final int count;
+    private final int recordSize;
+    private final int bitsPerDigit;
+    private final int digitBytes;
+    private final int indexOffset;
+
+    private PuzzleBank(FileChannel channel, MappedByteBuffer data) throws IOException {
+        this.channel = channel;
+        this.data = data;
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a puzzle bank");
+        }
+        if (data.getShort(4) != VERSION) {
+            throw new IOException("Unsupported puzzle bank version " + data.getShort(4));
+        }
+        try {
+            this.geometry = BoardGeometry.of(data.get(6), data.get(7));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt puzzle bank header", e);
+        }
+        this.count = data.getInt(8);
+        this.recordSize = data.getInt(12);
+        this.bitsPerDigit = bitsPerDigit(geometry);
+        this.digitBytes = packedBytes(geometry.getCells() * bitsPerDigit);
+        long index = data.getLong(16);
+        long expectedIndex = HEADER_BYTES + (long) count * recordSize;
+        if (count < 0 || recordSize != recordSize(geometry) || index != expectedIndex
+                || index + 4L * (DIFFICULTY_LEVELS + 1 + count) > data.capacity()) {
+            throw new IOException("Corrupt puzzle bank header");
+        }
+        this.indexOffset = (int) index;
+    }
+
+    /**
+     * Opens a puzzle bank file.
+     * @param path The bank file.
+     * @return The opened bank; close it to release the mapping's file handle.
+     * @throws IOException If the file cannot be read or is not a valid bank.
+     */
+    public static PuzzleBank open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Puzzle bank is larger than 2 GB: " + path);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PuzzleBank(channel, data);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a new bank file, replacing any existing one.
+     * @param path The bank file.
+     * @param geometry The block layout of every puzzle in the bank.
+     * @return A writer that must be closed to complete the file.
+     * @throws IOException If the file cannot be created.
+     */
+    public static Writer create(Path path, BoardGeometry geometry) throws IOException {
+        return new Writer(path, geometry);
+    }
+
+    /**
+     * Gets the block layout of the puzzles in the bank.
+     * @return The board geometry.
+     */
+    public BoardGeometry getGeometry() { return geometry; }
+
+    /**
+     * Gets the number of puzzles in the bank.
+     * @return The puzzle count.
+     */
+    public int size() { return count; }
+
+    /**
+     * Gets the difficulty of a puzzle.
+     * @param index The puzzle number.
+     * @return The difficulty, from 0 to 255.
+     */
+    public int getDifficulty(int index) {
+        return data.get(recordOffset(index) + recordSize - 1) & 0xFF;
+    }
+
+    /**
+     * Counts the puzzles of a difficulty.
+     * @param difficulty The difficulty, from 0 to 255.
+     * @return The number of puzzles with that difficulty.
+     */
+    public int countWithDifficulty(int difficulty) {
+        return levelStart(difficulty + 1) - levelStart(difficulty);
+    }
+
+    /**
+     * Gets the n-th puzzle of a difficulty.
+     * @param difficulty The difficulty, from 0 to 255.
+     * @param n The position among the puzzles with that difficulty.
+     * @return The puzzle number.
+     */
+    public int indexWithDifficulty(int difficulty, int n) {
+        if (n < 0 || n >= countWithDifficulty(difficulty)) {
+            throw new IndexOutOfBoundsException("Puzzle " + n + " of difficulty " + difficulty);
+        }
+        return data.getInt(indexOffset + 4 * (DIFFICULTY_LEVELS + 1 + levelStart(difficulty) + n));
+    }
+
+    /**
+     * Picks a random puzzle.
+     * @param random The source of randomness.
+     * @return The puzzle number, or -1 if the bank is empty.
+     */
+    public int randomIndex(Random random) {
+        return count == 0 ? -1 : random.nextInt(count);
+    }
+
+    /**
+     * Picks a random puzzle of a difficulty range.
+     * @param random The source of randomness.
+     * @param minDifficulty The lowest accepted difficulty.
+     * @param maxDifficulty The highest accepted difficulty.
+     * @return The puzzle number, or -1 if the bank has no puzzle in the range.
+     */
+    public int randomIndex(Random random, int minDifficulty, int maxDifficulty) {
+        int from = levelStart(Math.max(0, Math.min(DIFFICULTY_LEVELS, minDifficulty)));
+        int to = levelStart(Math.max(0, Math.min(DIFFICULTY_LEVELS, maxDifficulty + 1)));
+        if (from >= to) {
+            return -1;
+        }
+        int n = from + random.nextInt(to - from);
+        return data.getInt(indexOffset + 4 * (DIFFICULTY_LEVELS + 1 + n));
+    }
+
+    /**
+     * Copies the givens of a puzzle into a flat array.
+     * @param index The puzzle number.
+     * @param dest An array with room for every cell; empty cells are set to 0.
+     */
+    public void copyGivens(int index, int[] dest) {
+        unpack(index, dest, true);
+    }
+
+    /**
+     * Copies the solution of a puzzle into a flat array.
+     * @param index The puzzle number.
+     * @param dest An array with room for every cell.
+     */
+    public void copySolution(int index, int[] dest) {
+        unpack(index, dest, false);
+    }
+
+    /**
+     * Reads a whole puzzle.
+     * @param index The puzzle number.
+     * @return A new puzzle object.
+     */
+    public Puzzle get(int index) {
+        int[] givens = new int[geometry.getCells()];
+        int[] solution = new int[geometry.getCells()];
+        copyGivens(index, givens);
+        copySolution(index, solution);
+        return new Puzzle(geometry, givens, solution);
+    }
+
+    /**
+     * Closes the file. The mapping itself is released by the garbage collector.
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int levelStart(int difficulty) {
+        if (difficulty < 0 || difficulty > DIFFICULTY_LEVELS) {
+            throw new IllegalArgumentException("Difficulty must be between 0 and 255: " + difficulty);
+        }
+        return data.getInt(indexOffset + 4 * difficulty);
+    }
+
+    private int recordOffset(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+        }
+        return HEADER_BYTES + index * recordSize;
+    }
+
+    /**
+     * Unpacks the digits of a record straight from the mapping.
+     * @param index The puzzle number.
+     * @param dest The array that receives the digits.
+     * @param givensOnly true to clear the cells that are not givens.
+     */
+    private void unpack(int index, int[] dest, boolean givensOnly) {
+        int offset = recordOffset(index);
+        int maskOffset = offset + digitBytes;
+        int digitMask = (1 << bitsPerDigit) - 1;
+        long window = 0;
+        int windowBits = 0;
+        int next = offset;
+        for (int i = 0, cells = geometry.getCells(); i < cells; i++) {
+            while (windowBits < bitsPerDigit) {
+                window = (window << 8) | (data.get(next++) & 0xFF);
+                windowBits += 8;
+            }
+            windowBits -= bitsPerDigit;
+            int digit = (int) (window >>> windowBits) & digitMask;
+            boolean given = (data.get(maskOffset + (i >>> 3)) & (0x80 >>> (i & 7))) != 0;
+            dest[i] = givensOnly && !given ? 0 : digit + 1;
+        }
+    }
+
+    private static int bitsPerDigit(BoardGeometry geometry) {
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(geometry.getSize() - 1));
+    }
+
+    private static int packedBytes(int bits) {
+        return (bits + 7) / 8;
+    }
+
+    private static int recordSize(BoardGeometry geometry) {
+        int cells = geometry.getCells();
+        return packedBytes(cells * bitsPerDigit(geometry)) + packedBytes(cells) + 1;
+    }
+
+    /**
+     * Streams puzzles into a new bank file. Records are written as they are
+     * added; only one difficulty byte per puzzle is kept in memory to build
+     * the index on {@link #close()}. A writer is not thread-safe.
+     */
+    public static final class Writer implements Closeable {
+        private static final int BUFFER_BYTES = 1 << 16;
+
+        private final FileChannel channel;
+        private final BoardGeometry geometry;
+        private final int recordSize;
+        private final int bitsPerDigit;
+        private final int digitBytes;
+        private final ByteBuffer buffer;
+        private byte[] difficulties = new byte[1024];
+        private int count;
+        private boolean closed;
+
+        private Writer(Path path, BoardGeometry geometry) throws IOException {
+            this.geometry = geometry;
+            this.recordSize = recordSize(geometry);
+            this.bitsPerDigit = bitsPerDigit(geometry);
+            this.digitBytes = packedBytes(geometry.getCells() * bitsPerDigit);
+            this.buffer = ByteBuffer.allocate(Math.max(BUFFER_BYTES, recordSize));
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_BYTES);
+        }
+
+        /**
+         * Appends a puzzle to the bank.
+         * @param puzzle The puzzle; it must use the bank's geometry.
+         * @param difficulty Its difficulty, from 0 to 255.
+         * @throws IOException If the file cannot be written.
+         */
+        public void add(Puzzle puzzle, int difficulty) throws IOException {
+            if (!puzzle.getGeometry().equals(geometry)) {
+                throw new IllegalArgumentException("Puzzle is " + puzzle.getGeometry() + ", bank is " + geometry);
+            }
+            if (difficulty < 0 || difficulty >= DIFFICULTY_LEVELS) {
+                throw new IllegalArgumentException("Difficulty must be between 0 and 255: " + difficulty);
+            }
+            if ((long) HEADER_BYTES + (long) (count + 1) * recordSize
+                    + 4L * (DIFFICULTY_LEVELS + 2 + count) > Integer.MAX_VALUE) {
+                throw new IOException("Puzzle bank cannot grow past 2 GB");
+            }
+            if (buffer.remaining() < recordSize) {
+                flush();
+            }
+            int start = buffer.position();
+            int cells = geometry.getCells();
+            long window = 0;
+            int windowBits = 0;
+            for (int i = 0; i < cells; i++) {
+                window = (window << bitsPerDigit) | (puzzle.getSolution(i) - 1);
+                windowBits += bitsPerDigit;
+                while (windowBits >= 8) {
+                    windowBits -= 8;
+                    buffer.put((byte) (window >>> windowBits));
+                }
+            }
+            if (windowBits > 0) {
+                buffer.put((byte) (window << (8 - windowBits)));
+            }
+            int maskOffset = start + digitBytes;
+            for (int i = 0, maskBytes = packedBytes(cells); i < maskBytes; i++) {
+                buffer.put(maskOffset + i, (byte) 0);
+            }
+            for (int i = 0; i < cells; i++) {
+                if (puzzle.getGiven(i) != 0) {
+                    int at = maskOffset + (i >>> 3);
+                    buffer.put(at, (byte) (buffer.get(at) | (0x80 >>> (i & 7))));
+                }
+            }
+            buffer.position(start + recordSize - 1);
+            buffer.put((byte) difficulty);
+
+            if (count == difficulties.length) {
+                difficulties = Arrays.copyOf(difficulties, 2 * count);
+            }
+            difficulties[count++] = (byte) difficulty;
+        }
+
+        /**
+         * Gets the number of puzzles added so far.
+         * @return The puzzle count.
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Writes the difficulty index and the header, then closes the file.
+         * @throws IOException If the file cannot be written.
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                flush();
+                long indexOffset = HEADER_BYTES + (long) count * recordSize;
+
+                // Counting sort of the puzzle numbers by difficulty
+                int[] starts = new int[DIFFICULTY_LEVELS + 1];
+                for (int i = 0; i < count; i++) {
+                    starts[(difficulties[i] & 0xFF) + 1]++;
+                }
+                for (int d = 0; d < DIFFICULTY_LEVELS; d++) {
+                    starts[d + 1] += starts[d];
+                }
+                int[] next = Arrays.copyOf(starts, DIFFICULTY_LEVELS);
+                int[] order = new int[count];
+                for (int i = 0; i < count; i++) {
+                    order[next[difficulties[i] & 0xFF]++] = i;
+                }
+                for (int start : starts) {
+                    putInt(start);
+                }
+                for (int index : order) {
+                    putInt(index);
+                }
+                flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC)
+                        .putShort(VERSION)
+                        .put((byte) geometry.getBlockRows())
+                        .put((byte) geometry.getBlockCols())
+                        .putInt(count)
+                        .putInt(recordSize)
+                        .putLong(indexOffset)
+                        .putLong(0L)
+                        .flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
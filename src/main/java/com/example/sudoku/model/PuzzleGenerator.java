@@ -0,0 +1,238 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.metrics.GenerationEvent;
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.solver.SearchBudget;
+import com.example.sudoku.solver.SolveResult;
+import com.example.sudoku.solver.Solver;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates random puzzles for any board geometry.
+ * A solved grid is built from the standard shifted pattern and randomized with
+ * validity-preserving permutations (digits, rows inside a band, bands, columns
+ * inside a stack and stacks). The puzzle then keeps a fixed number of random
+ * givens in every block.
+ * <p>
+ * A puzzle that must have a unique solution first tries a few draws with
+ * exactly that many givens per block. On boards where such draws are never
+ * unique (9x9 and larger with 2 givens per block) the last draw is then
+ * completed with givens from the solution until it is, so a unique puzzle is
+ * always unique and may have more givens in some blocks. An instance is not thread-safe.
+ */
+public class PuzzleGenerator {
+
+    // How many sets of exactly givensPerBlock givens a unique puzzle tries before adding givens
+    private static final int MAX_EXACT_DRAWS = 50;
+    /**
+     * Search nodes a uniqueness check may visit. Givens that need more are
+     * drawn again; a node limit, unlike a deadline, keeps seeded runs reproducible.
+     */
+    public static final long UNIQUE_CHECK_NODES = 20_000;
+    private static final SearchBudget UNIQUE_CHECK_BUDGET = SearchBudget.ofNodes(UNIQUE_CHECK_NODES);
+    private static final Metrics.Timer GENERATE_TIME = Metrics.timer("generator.random");
+    private static final Metrics.Counter GENERATE_ATTEMPTS = Metrics.counter("generator.random.attempts");
+
+    private final BoardGeometry geometry;
+    private final Solver solver;
+    private final int[] rowOrder;
+    private final int[] colOrder;
+    private final int[] digitOrder;
+    private final int[] blockCells;
+
+    /**
+     * Constructs a generator.
+     * @param geometry The block layout of the generated puzzles.
+     * @param solver The solver used for uniqueness checks; it must match the geometry.
+     */
+    public PuzzleGenerator(BoardGeometry geometry, Solver solver) {
+        this.geometry = geometry;
+        this.solver = solver;
+        this.rowOrder = new int[geometry.getSize()];
+        this.colOrder = new int[geometry.getSize()];
+        this.digitOrder = new int[geometry.getSize() + 1];
+        this.blockCells = new int[geometry.getSize()];
+    }
+
+    /**
+     * Gets the block layout of the generated puzzles.
+     * @return The board geometry.
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Generates a new puzzle.
+     * @param random The source of randomness.
+     * @param givensPerBlock How many cells of each block start filled.
+     * @param requireUniqueSolution true for a puzzle with exactly one solution: givens
+     *                              are drawn again a bounded number of times, and then
+     *                              added until the puzzle is unique.
+     * @return The generated puzzle.
+     */
+    public Puzzle generate(Random random, int givensPerBlock, boolean requireUniqueSolution) {
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        long start = Metrics.start();
+        int[] solution = randomSolvedBoard(random);
+        int[] givens = new int[geometry.getCells()];
+        int attempts = 0;
+        boolean unique;
+        do {
+            pickGivens(solution, givens, givensPerBlock, random);
+            attempts++;
+            unique = requireUniqueSolution && isUnique(givens);
+        } while (requireUniqueSolution && !unique && attempts < MAX_EXACT_DRAWS);
+        // Ningún sorteo exacto fue único: se completa el último con pistas de la solución
+        while (requireUniqueSolution && !unique) {
+            addGiven(solution, givens, random);
+            attempts++;
+            unique = isUnique(givens);
+        }
+        Puzzle puzzle = new Puzzle(geometry, givens, solution);
+        GENERATE_TIME.stop(start);
+        GENERATE_ATTEMPTS.add(attempts);
+        if (event.shouldCommit()) {
+            event.generator = "RANDOM";
+            event.geometry = geometry.toString();
+            event.attempts = attempts;
+            event.givens = puzzle.getGivenCount();
+            event.onTarget = true;
+            event.commit();
+        }
+        return puzzle;
+    }
+
+    /**
+     * Checks that a puzzle has exactly one solution within {@link #UNIQUE_CHECK_NODES}.
+     * @param givens The puzzle.
+     * @return false if it has several solutions, none, or the check ran out of nodes.
+     */
+    private boolean isUnique(int[] givens) {
+        SolveResult result = solver.countSolutions(givens, 2, UNIQUE_CHECK_BUDGET);
+        return result.getStatus().isComplete() && result.getSolutions() == 1;
+    }
+
+    /**
+     * Fills one more cell of an ambiguous puzzle from its solution. Where the
+     * solver reaches another solution, a cell on which the two disagree is
+     * chosen, so that solution is ruled out; otherwise any empty cell is.
+     * The puzzle fills up eventually, so completing it always ends.
+     * @param solution The solved grid the puzzle must lead to.
+     * @param givens The puzzle, with at least one empty cell.
+     * @param random The source of randomness.
+     */
+    private void addGiven(int[] solution, int[] givens, Random random) {
+        int[] other = givens.clone();
+        boolean differs = false;
+        if (solver.solve(other, UNIQUE_CHECK_BUDGET).isSolved()) {
+            differs = !Arrays.equals(other, solution);
+        }
+        int candidates = 0;
+        for (int i = 0; i < givens.length; i++) {
+            if (givens[i] == 0 && (!differs || other[i] != solution[i])) {
+                candidates++;
+            }
+        }
+        int pick = random.nextInt(candidates);
+        for (int i = 0; i < givens.length; i++) {
+            if (givens[i] == 0 && (!differs || other[i] != solution[i]) && pick-- == 0) {
+                givens[i] = solution[i];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Builds a random solved grid.
+     * @param random The source of randomness.
+     * @return The solved grid in row-major order.
+     */
+    public int[] randomSolvedBoard(Random random) {
+        int size = geometry.getSize();
+        int blockRows = geometry.getBlockRows();
+        int blockCols = geometry.getBlockCols();
+
+        // Rows come in bands of blockRows rows, columns in stacks of blockCols columns
+        permuteGroups(rowOrder, blockCols, blockRows, random);
+        permuteGroups(colOrder, blockRows, blockCols, random);
+        for (int d = 0; d <= size; d++) {
+            digitOrder[d] = d;
+        }
+        shuffle(digitOrder, 1, size, random);
+
+        int[] solved = new int[geometry.getCells()];
+        for (int r = 0; r < size; r++) {
+            int row = rowOrder[r];
+            for (int c = 0; c < size; c++) {
+                int pattern = ((row % blockRows) * blockCols + row / blockRows + colOrder[c]) % size + 1;
+                solved[geometry.index(r, c)] = digitOrder[pattern];
+            }
+        }
+        return solved;
+    }
+
+    /**
+     * Clears a puzzle array and copies random cells of every block from the solution.
+     * @param solution The solved grid.
+     * @param givens The puzzle array that receives the givens.
+     * @param givensPerBlock How many cells of each block to keep.
+     * @param random The source of randomness.
+     */
+    private void pickGivens(int[] solution, int[] givens, int givensPerBlock, Random random) {
+        int size = geometry.getSize();
+        int keep = Math.min(givensPerBlock, size);
+        Arrays.fill(givens, 0);
+        for (int block = 0; block < size; block++) {
+            System.arraycopy(geometry.unit(2 * size + block), 0, blockCells, 0, size);
+            // Partial Fisher-Yates: the first `keep` cells end up as a random sample
+            for (int i = 0; i < keep; i++) {
+                int j = i + random.nextInt(size - i);
+                int cell = blockCells[j];
+                blockCells[j] = blockCells[i];
+                blockCells[i] = cell;
+                givens[cell] = solution[cell];
+            }
+        }
+    }
+
+    /**
+     * Fills an order array with a random permutation that keeps groups together:
+     * the groups are shuffled, and so are the members inside each group.
+     * @param order The array to fill.
+     * @param groups The number of groups.
+     * @param groupSize The number of members in each group.
+     * @param random The source of randomness.
+     */
+    private static void permuteGroups(int[] order, int groups, int groupSize, Random random) {
+        int[] groupOrder = new int[groups];
+        for (int g = 0; g < groups; g++) {
+            groupOrder[g] = g;
+        }
+        shuffle(groupOrder, 0, groups, random);
+        for (int g = 0; g < groups; g++) {
+            for (int k = 0; k < groupSize; k++) {
+                order[g * groupSize + k] = groupOrder[g] * groupSize + k;
+            }
+            shuffle(order, g * groupSize, groupSize, random);
+        }
+    }
+
+    /**
+     * Shuffles a slice of an array in place.
+     * @param values The array.
+     * @param from The first index of the slice.
+     * @param length The length of the slice.
+     * @param random The source of randomness.
+     */
+    private static void shuffle(int[] values, int from, int length, Random random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[from + i];
+            values[from + i] = values[from + j];
+            values[from + j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.sudoku.model;
+
+/**
+ * Plain-text form of a board, one board per line.
+ * Boards of up to 35 digits use one symbol per cell (1-9, then A-Z) and '.'
+ * for empty cells, for example {@code 1.3...}. Larger boards have no
+ * single-character symbols, so their cells are written as numbers separated
+ * by commas, with 0 for empty cells.
+ */
+public final class PuzzleText {
+
+    /** The character that marks an empty cell in the compact form. */
+    public static final char EMPTY = '.';
+
+    private PuzzleText() {
+    }
+
+    /**
+     * Appends a board to a buffer.
+     * @param geometry The block layout of the board.
+     * @param grid The board in row-major order (0 for empty).
+     * @param out The buffer that receives the text.
+     */
+    public static void append(BoardGeometry geometry, int[] grid, StringBuilder out) {
+        int cells = geometry.getCells();
+        if (isCompact(geometry)) {
+            for (int i = 0; i < cells; i++) {
+                out.append(grid[i] == 0 ? EMPTY : Character.toUpperCase(Character.forDigit(grid[i], Character.MAX_RADIX)));
+            }
+        } else {
+            for (int i = 0; i < cells; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(grid[i]);
+            }
+        }
+    }
+
+    /**
+     * Parses a board written by {@link #append(BoardGeometry, int[], StringBuilder)}.
+     * @param geometry The block layout of the board.
+     * @param text The text of one board.
+     * @param grid The array that receives the board in row-major order.
+     * @throws IllegalArgumentException If the text is not a board of this geometry.
+     */
+    public static void parse(BoardGeometry geometry, CharSequence text, int[] grid) {
+        int cells = geometry.getCells();
+        int size = geometry.getSize();
+        if (isCompact(geometry)) {
+            if (text.length() != cells) {
+                throw new IllegalArgumentException("Expected " + cells + " cells but got " + text.length());
+            }
+            for (int i = 0; i < cells; i++) {
+                char c = text.charAt(i);
+                int digit = c == EMPTY || c == '0' ? 0 : Character.digit(c, Character.MAX_RADIX);
+                if (digit < 0 || digit > size) {
+                    throw new IllegalArgumentException("Invalid symbol '" + c + "' at cell " + i);
+                }
+                grid[i] = digit;
+            }
+            return;
+        }
+        String[] parts = text.toString().split(",");
+        if (parts.length != cells) {
+            throw new IllegalArgumentException("Expected " + cells + " cells but got " + parts.length);
+        }
+        for (int i = 0; i < cells; i++) {
+            int digit;
+            try {
+                digit = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number '" + parts[i] + "' at cell " + i, e);
+            }
+            if (digit < 0 || digit > size) {
+                throw new IllegalArgumentException("Invalid number '" + parts[i] + "' at cell " + i);
+            }
+            grid[i] = digit;
+        }
+    }
+
+    /**
+     * Parses a board in the compact form straight from bytes, without building
+     * a string. Used by bulk tools that read large files in raw chunks.
+     * @param geometry The block layout of the board; it must be compact.
+     * @param text The bytes holding the board (ASCII).
+     * @param offset The index of the first cell.
+     * @param length The number of bytes of the board.
+     * @param grid The array that receives the board in row-major order.
+     * @throws IllegalArgumentException If the bytes are not a board of this geometry.
+     */
+    public static void parse(BoardGeometry geometry, byte[] text, int offset, int length, int[] grid) {
+        int cells = geometry.getCells();
+        int size = geometry.getSize();
+        if (!isCompact(geometry)) {
+            throw new IllegalArgumentException(geometry + " boards have no compact form");
+        }
+        if (length != cells) {
+            throw new IllegalArgumentException("Expected " + cells + " cells but got " + length);
+        }
+        for (int i = 0; i < cells; i++) {
+            int c = text[offset + i];
+            int digit = c == EMPTY || c == '0' ? 0 : digitOf(c);
+            if (digit < 0 || digit > size) {
+                throw new IllegalArgumentException("Invalid symbol '" + (char) (c & 0xFF) + "' at cell " + i);
+            }
+            grid[i] = digit;
+        }
+    }
+
+    /**
+     * Writes a board in the compact form as ASCII bytes.
+     * @param geometry The block layout of the board; it must be compact.
+     * @param grid The board in row-major order (0 for empty).
+     * @param out The array that receives the bytes; it needs room for every cell.
+     * @param offset The index of the first byte to write.
+     * @return The index just past the last byte written.
+     */
+    public static int append(BoardGeometry geometry, int[] grid, byte[] out, int offset) {
+        int cells = geometry.getCells();
+        for (int i = 0; i < cells; i++) {
+            int digit = grid[i];
+            out[offset++] = (byte) (digit == 0 ? EMPTY : digit < 10 ? '0' + digit : 'A' + digit - 10);
+        }
+        return offset;
+    }
+
+    /**
+     * Decodes one ASCII symbol of the compact form.
+     * @param c The byte.
+     * @return The digit (1-9, then A-Z as 10-35), or -1 if it is not a symbol.
+     */
+    private static int digitOf(int c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether boards of a geometry use one character per cell.
+     * @param geometry The block layout.
+     * @return true if every digit has a single-character symbol.
+     */
+    public static boolean isCompact(BoardGeometry geometry) {
+        return geometry.getSize() < Character.MAX_RADIX;
+    }
+}
@@ -1,114 +1,332 @@
 package com.example.sudoku.model;
 
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.solver.LogicalSolver;
+import com.example.sudoku.solver.LogicalStep;
+import com.example.sudoku.solver.ParallelSolver;
+import com.example.sudoku.solver.SearchBudget;
+import com.example.sudoku.solver.Solver;
+import com.example.sudoku.solver.SolverStats;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * The Model component in MVC. Manages the Sudoku board state and game logic.
- * Enhanced version to ensure each 2x3 block starts with exactly 2 fixed numbers.
+ * Enhanced version to ensure each block starts with exactly 2 fixed numbers.
+ * The board layout is described by a {@link BoardGeometry}; the classic game
+ * uses 6x6 boards with 2x3 blocks.
+ * <p>
+ * The model is owned by one thread (the JavaFX thread in the game). Other
+ * threads read the board through {@link #getSnapshot()}: an immutable
+ * {@link BoardSnapshot} published after every operation that changes a value,
+ * without locks. A move copies only the part of the snapshot it changed.
  */
 public class SudokuModel {
 
-    private final Map<String, Cell> board;
-    private static final int SIZE = 6;
-    private static final int BLOCK_ROWS = 2;
-    private static final int BLOCK_COLS = 3;
+    private static final int DEFAULT_GIVENS_PER_BLOCK = 2;
+    // How long a difficulty-targeted board may take before the closest one is kept
+    private static final long GENERATION_TIMEOUT_MILLIS = 1500;
+    private static final Metrics.Timer RESET_TIME = Metrics.timer("model.resetBoard");
+    /** Longest a hint may search the player's board before giving up. */
+    public static final long HINT_BUDGET_MILLIS = 2000;
+
+    private final BoardGeometry geometry;
+    private final Board board;
+    private final Cell[] cells;
+    private final Solver solver;
+    private final PuzzleGenerator generator;
+    private final TargetedPuzzleGenerator targetedGenerator;
+    private final LogicalSolver logicalSolver;
+    private final MoveJournal journal;
+    private final Random random = new Random();
+    private int givensPerBlock = DEFAULT_GIVENS_PER_BLOCK;
+    private PuzzleBank puzzleBank;
+    private Difficulty difficulty;
+    // Playing time of the current game before the last (re)start of the clock
+    private long elapsedBeforeMillis;
+    private long clockStartNanos = System.nanoTime();
+
+    // Re-solved target once the player has left the puzzle's solution, valid for one board version
+    private final int[] fallbackSolution;
+    private boolean fallbackSolvable;
+    private long fallbackVersion = -1;
+
+    // Latest copy of the board for other threads; replaced, never modified
+    private volatile BoardSnapshot snapshot;
 
     /**
-     * Constructs a new SudokuModel and initializes the board.
+     * Constructs a new 6x6 SudokuModel that uses the {@link ParallelSolver}.
+     * (The board is small enough for it to stay on the calling thread.)
      */
     public SudokuModel() {
-        this.board = new HashMap<>();
+        this(BoardGeometry.SIX);
+    }
+
+    /**
+     * Constructs a new SudokuModel that uses the {@link ParallelSolver}: small
+     * boards are solved sequentially, large ones on the fork/join pool.
+     * @param geometry The block layout of the board.
+     */
+    public SudokuModel(BoardGeometry geometry) {
+        this(geometry, new ParallelSolver(geometry));
+    }
+
+    /**
+     * Constructs a new SudokuModel and initializes the board.
+     * @param geometry The block layout of the board.
+     * @param solver The solving engine used for hints and uniqueness checks;
+     *               it must be built for the same geometry.
+     */
+    public SudokuModel(BoardGeometry geometry, Solver solver) {
+        this(geometry, solver, null);
+    }
+
+    /**
+     * Constructs a new SudokuModel whose boards come from a puzzle bank, so that
+     * not even the first board is generated.
+     * @param geometry The block layout of the board.
+     * @param solver The solving engine used for hints and uniqueness checks;
+     *               it must be built for the same geometry.
+     * @param puzzleBank The bank to serve boards from, or null to generate them.
+     * @throws IllegalArgumentException If the bank holds puzzles of another geometry.
+     * @see #setPuzzleBank(PuzzleBank)
+     */
+    public SudokuModel(BoardGeometry geometry, Solver solver, PuzzleBank puzzleBank) {
+        this.geometry = geometry;
+        this.solver = solver;
+        this.board = new Board(geometry);
+        this.generator = new PuzzleGenerator(geometry, solver);
+        this.targetedGenerator = new TargetedPuzzleGenerator(geometry);
+        this.logicalSolver = new LogicalSolver(geometry);
+        this.journal = new MoveJournal(geometry);
+        this.cells = new Cell[geometry.getCells()];
+        this.fallbackSolution = new int[geometry.getCells()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Cell(this, board, i);
+        }
+        setPuzzleBank(puzzleBank);
         resetBoard();
     }
 
     /**
-     * Generates a unique string key for a cell based on its coordinates.
-     * @param row The cell's row.
-     * @param col The cell's column.
-     * @return A string key like "row_col".
+     * Gets the block layout of the board.
+     * @return The board geometry.
      */
-    private String getKey(int row, int col) {
-        return row + "_" + col;
+    public BoardGeometry getGeometry() {
+        return geometry;
     }
 
     /**
-     * Resets the board by generating a new, random, solvable puzzle.
-     * It starts from a solved template, shuffles the numbers, and then clears
-     * most of the cells, leaving exactly 2 fixed numbers per 2x3 block.
-     * This ensures compliance with HU-1 requirement.
+     * Sets how many cells of each block start filled in new puzzles.
+     * @param givensPerBlock The number of givens per block.
+     */
+    public void setGivensPerBlock(int givensPerBlock) {
+        this.givensPerBlock = givensPerBlock;
+    }
+
+    /**
+     * Chooses the difficulty of new puzzles. With a level set, new boards are dug
+     * until their logical score fits the level instead of keeping a fixed number
+     * of givens per block.
+     * @param difficulty The level, or null for the classic fixed givens per block.
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * Gets the difficulty of new puzzles.
+     * @return The level, or null for the classic fixed givens per block.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Serves new boards from a pre-generated puzzle bank instead of generating them.
+     * The bank is only read; the caller keeps ownership and closes it.
+     * @param puzzleBank The bank, or null to go back to generating puzzles.
+     * @throws IllegalArgumentException If the bank holds puzzles of another geometry.
+     */
+    public void setPuzzleBank(PuzzleBank puzzleBank) {
+        if (puzzleBank != null && !puzzleBank.getGeometry().equals(geometry)) {
+            throw new IllegalArgumentException("Puzzle bank is " + puzzleBank.getGeometry() + ", board is " + geometry);
+        }
+        this.puzzleBank = puzzleBank;
+    }
+
+    /**
+     * Resets the board by generating a new, random puzzle with a unique solution.
+     * @see #resetBoard(boolean)
      */
     public void resetBoard() {
-        // 1. Start with a valid solved 6x6 Sudoku template
-        int[][] solvedTemplate = {
-                {1, 2, 3, 4, 5, 6},
-                {4, 5, 6, 1, 2, 3},
-                {2, 3, 1, 5, 6, 4},
-                {5, 6, 4, 2, 3, 1},
-                {3, 1, 2, 6, 4, 5},
-                {6, 4, 5, 3, 1, 2}
-        };
-
-        // 2. Create a number mapping for randomization (1->3, 2->5, etc.)
-        List<Integer> numbers = IntStream.rangeClosed(1, SIZE).boxed().collect(Collectors.toList());
-        Collections.shuffle(numbers);
-        Map<Integer, Integer> numberMap = new HashMap<>();
-        for (int i = 0; i < SIZE; i++) {
-            numberMap.put(i + 1, numbers.get(i));
-        }
-
-        // 3. Apply the mapping to create a randomized solved board
-        int[][] randomizedSolvedBoard = new int[SIZE][SIZE];
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                randomizedSolvedBoard[r][c] = numberMap.get(solvedTemplate[r][c]);
-            }
+        resetBoard(true);
+    }
+
+    /**
+     * Resets the board by generating a new, random, solvable puzzle.
+     * It starts from a random solved board and then clears most of the cells,
+     * leaving exactly 2 fixed numbers per block (see {@link #setGivensPerBlock(int)}).
+     * This ensures compliance with HU-1 requirement. A unique puzzle on a board
+     * where 2 givens per block are never enough (9x9 and larger) gets the extra
+     * givens it needs (see {@link PuzzleGenerator}).
+     * When a difficulty is set (see {@link #setDifficulty(Difficulty)}) the puzzle is
+     * calibrated to it instead, within a bounded generation time.
+     * When a non-empty puzzle bank is set, a random puzzle of the bank is loaded
+     * instead (of the chosen difficulty, when the bank has one); bank puzzles are
+     * trusted to meet the requirements they were built with.
+     * @param requireUniqueSolution true for a puzzle with exactly one solution,
+     *                              so hints always match the player's target.
+     */
+    public void resetBoard(boolean requireUniqueSolution) {
+        long start = Metrics.start();
+        loadPuzzle(nextPuzzle(difficulty, requireUniqueSolution), difficulty);
+        RESET_TIME.stop(start);
+    }
+
+    /**
+     * Builds the puzzle of a new game, as {@link #resetBoard(boolean)} would,
+     * without touching the board. It may run on a background thread while the
+     * game goes on, so a slow generation never freezes the window; the result is
+     * then loaded on the model's thread with {@link #loadPuzzle(Puzzle, Difficulty)}.
+     * Only one puzzle may be built at a time, and the board must not be reset
+     * (nor a hint taken with {@link #getHint()} or {@link #getSmartHint()}, which
+     * share the solver) until it returns.
+     * @param difficulty The level to calibrate to, or null for the classic board
+     *                   (see {@link #setGivensPerBlock(int)}).
+     * @param requireUniqueSolution true for a puzzle with exactly one solution;
+     *                              calibrated puzzles always have one.
+     * @return The new puzzle.
+     */
+    public Puzzle nextPuzzle(Difficulty difficulty, boolean requireUniqueSolution) {
+        int bankIndex = -1;
+        PuzzleBank bank = puzzleBank;
+        if (bank != null) {
+            bankIndex = difficulty == null ? bank.randomIndex(random)
+                    : bank.randomIndex(random, difficulty.getMinScore(), difficulty.getMaxScore());
+        }
+        if (bankIndex >= 0) {
+            int[] givens = new int[geometry.getCells()];
+            int[] solution = new int[geometry.getCells()];
+            bank.copyGivens(bankIndex, givens);
+            bank.copySolution(bankIndex, solution);
+            return new Puzzle(geometry, givens, solution);
         }
+        Puzzle puzzle = difficulty != null
+                ? targetedGenerator.generate(random, difficulty, GENERATION_TIMEOUT_MILLIS) : null;
+        // Sin puzzle calibrado a tiempo, el tablero clásico, que siempre tiene solución única
+        return puzzle != null ? puzzle
+                : generator.generate(random, givensPerBlock, requireUniqueSolution || difficulty != null);
+    }
 
-        // 4. Create the puzzle by selecting exactly 2 cells per block as fixed
-        // There are 6 blocks in a 6x6 grid (3 blocks horizontally × 2 blocks vertically)
-        int[][] initialBoard = new int[SIZE][SIZE];
-        Random random = new Random();
-
-        // Process each 2x3 block
-        for (int blockRow = 0; blockRow < SIZE / BLOCK_ROWS; blockRow++) {
-            for (int blockCol = 0; blockCol < SIZE / BLOCK_COLS; blockCol++) {
-                // Get all positions in this block
-                List<int[]> blockPositions = new ArrayList<>();
-                int startRow = blockRow * BLOCK_ROWS;
-                int startCol = blockCol * BLOCK_COLS;
-
-                for (int r = startRow; r < startRow + BLOCK_ROWS; r++) {
-                    for (int c = startCol; c < startCol + BLOCK_COLS; c++) {
-                        blockPositions.add(new int[]{r, c});
-                    }
-                }
-
-                // Shuffle and select exactly 2 positions
-                Collections.shuffle(blockPositions, random);
-                for (int i = 0; i < 2; i++) {
-                    int[] pos = blockPositions.get(i);
-                    initialBoard[pos[0]][pos[1]] = randomizedSolvedBoard[pos[0]][pos[1]];
-                }
+    /**
+     * Starts a new game on a puzzle: the board, the journal and the clock start over.
+     * @param puzzle A puzzle of this board's geometry, usually from {@link #nextPuzzle(Difficulty, boolean)}.
+     * @param difficulty The level it was built for, or null for the classic board;
+     *                   later resets keep it.
+     * @throws IllegalArgumentException If the puzzle is of another geometry.
+     */
+    public void loadPuzzle(Puzzle puzzle, Difficulty difficulty) {
+        if (!puzzle.getGeometry().equals(geometry)) {
+            throw new IllegalArgumentException("Puzzle is " + puzzle.getGeometry() + ", board is " + geometry);
+        }
+        int[] initialBoard = new int[geometry.getCells()];
+        int[] solution = new int[geometry.getCells()];
+        puzzle.copyGivens(initialBoard);
+        puzzle.copySolution(solution);
+        this.difficulty = difficulty;
+        board.load(initialBoard, solution);
+        journal.clear(board);
+        elapsedBeforeMillis = 0;
+        clockStartNanos = System.nanoTime();
+        publish();
+    }
+
+    /**
+     * Gets how long the current game has been played, including the time
+     * before it was saved and restored.
+     * @return The playing time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedBeforeMillis + (System.nanoTime() - clockStartNanos) / 1_000_000;
+    }
+
+    /**
+     * Takes a compact binary copy of the game: values, givens, solution,
+     * journal and playing time. It is cheap enough to take after every move.
+     * @return The snapshot bytes, ready for {@link AutoSaver#save(byte[])}.
+     */
+    public byte[] saveSnapshot() {
+        int count = cells.length;
+        byte[] values = new byte[count];
+        board.copyValues(values);
+        byte[] solution = null;
+        if (board.hasSolution()) {
+            solution = new byte[count];
+            for (int i = 0; i < count; i++) {
+                solution[i] = (byte) board.getSolution(i);
             }
         }
+        boolean[] givens = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            givens[i] = board.isFixed(i);
+        }
+        long first = journal.getFirstPosition();
+        int[] moves = new int[(int) (journal.getEndPosition() - first)];
+        for (int k = 0; k < moves.length; k++) {
+            moves[k] = journal.entryAt(first + k);
+        }
+        return new GameSnapshot(geometry, getElapsedMillis(), difficulty, values, solution, givens,
+                journal.checkpoint(first), moves, (int) (journal.getPosition() - first)).encode();
+    }
 
-        // 5. Initialize the board with Cell objects
-        board.clear();
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                Cell cell = new Cell(row, col, initialBoard[row][col]);
-                board.put(getKey(row, col), cell);
+    /**
+     * Replaces the game with a saved one. The journal is rebuilt by replaying
+     * the saved moves, so undo and redo keep working after a restart.
+     * @param snapshot Bytes produced by {@link #saveSnapshot()}.
+     * @throws IOException If the snapshot is corrupt or belongs to another board geometry.
+     *                     A corrupt journal leaves a new game on the board.
+     */
+    public void restoreSnapshot(byte[] snapshot) throws IOException {
+        GameSnapshot saved = GameSnapshot.decode(snapshot);
+        if (!saved.geometry.equals(geometry)) {
+            throw new IOException("Saved game is " + saved.geometry + ", board is " + geometry);
+        }
+        int count = cells.length;
+        int[] givens = new int[count];
+        int[] solution = new int[count];
+        for (int i = 0; i < count; i++) {
+            givens[i] = saved.givens[i] ? saved.values[i] : 0;
+            solution[i] = saved.solution != null ? saved.solution[i] : 0;
+        }
+        if (saved.solution != null) {
+            board.load(givens, solution);
+        } else {
+            board.load(givens);
+        }
+        board.restoreValues(saved.base);
+        journal.clear(board);
+        for (int move : saved.moves) {
+            int index = MoveJournal.cellOf(move);
+            if (!board.set(index, MoveJournal.newValueOf(move))) {
+                resetBoard();
+                throw new IOException("Corrupt saved game (invalid move)");
             }
+            journal.record(move, board);
         }
-        validateAllCells();
+        moveTo(saved.position);
+        for (int i = 0; i < count; i++) {
+            if (board.get(i) != saved.values[i]) {
+                resetBoard();
+                throw new IOException("Corrupt saved game (values do not match the moves)");
+            }
+        }
+        difficulty = saved.difficulty;
+        elapsedBeforeMillis = saved.elapsedMillis;
+        clockStartNanos = System.nanoTime();
+        publish();
     }
 
     /**
@@ -118,144 +336,177 @@ public class SudokuModel {
      * @return The Cell object at the given location.
      */
     public Cell getCell(int row, int col) {
-        return board.get(getKey(row, col));
+        int size = geometry.getSize();
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            return null;
+        }
+        return cells[geometry.index(row, col)];
     }
 
     /**
      * Sets the value of a cell, if it's not a fixed cell.
-     * After setting the value, it triggers a full board validation.
+     * Only the row, column and block of the cell are revalidated, and the move
+     * is recorded in the journal (see {@link #undo()}).
      * @param row The row of the cell to change.
      * @param col The column of the cell to change.
-     * @param value The new value (1-6, or 0 to clear).
-     * @return true if the value was set, false otherwise.
+     * @param value The new value (1 to the board size, or 0 to clear).
+     * @return true if the value was set, false if the cell is fixed or outside
+     *         the board, or the value is out of range.
      */
     public boolean setCellValue(int row, int col, int value) {
-        Cell cell = getCell(row, col);
-        if (cell != null && !cell.isFixed()) {
-            cell.setValue(value);
-            validateAllCells();
-            return true;
-        }
-        return false;
+        return getCell(row, col) != null && applyMove(geometry.index(row, col), value, false);
     }
 
     /**
-     * Runs a full validation on the board. It checks every row, column, and
-     * block for duplicate numbers and updates the error state of each cell accordingly.
+     * Places a hint on the board. It is journaled like a player move, tagged as a hint.
+     * @param hint The hint, as returned by {@link #getHint()} or {@link #getSmartHint()}.
+     * @return true if the value was placed, false if the cell is fixed.
      */
-    public void validateAllCells() {
-        // Clear all errors first
-        for (Cell cell : board.values()) {
-            cell.setError(false);
+    public boolean placeHint(Cell hint) {
+        return getCell(hint.getRow(), hint.getCol()) != null
+                && applyMove(geometry.index(hint.getRow(), hint.getCol()), hint.getValue(), true);
+    }
+
+    /**
+     * Stores a value and records the move in the journal.
+     */
+    private boolean applyMove(int index, int value, boolean hint) {
+        int old = board.get(index);
+        if (!board.set(index, value)) {
+            return false;
+        }
+        if (old != value) {
+            journal.record(MoveJournal.pack(index, old, value, hint), board);
+            publish(index);
         }
+        return true;
+    }
 
-        // Validate rows
-        for (int i = 0; i < SIZE; i++) {
-            validateLine(getCellsInRow(i));
+    /**
+     * Reverts the last move. Only the cell and its peers are revalidated.
+     * @return The cell that changed, or null if there is nothing to undo.
+     */
+    public Cell undo() {
+        int entry = journal.undo();
+        if (entry == MoveJournal.NONE) {
+            return null;
         }
+        board.set(MoveJournal.cellOf(entry), MoveJournal.oldValueOf(entry));
+        publish(MoveJournal.cellOf(entry));
+        return cells[MoveJournal.cellOf(entry)];
+    }
 
-        // Validate columns
-        for (int i = 0; i < SIZE; i++) {
-            validateLine(getCellsInCol(i));
+    /**
+     * Applies again the last move that was undone.
+     * @return The cell that changed, or null if there is nothing to redo.
+     */
+    public Cell redo() {
+        int entry = journal.redo();
+        if (entry == MoveJournal.NONE) {
+            return null;
         }
+        board.set(MoveJournal.cellOf(entry), MoveJournal.newValueOf(entry));
+        publish(MoveJournal.cellOf(entry));
+        return cells[MoveJournal.cellOf(entry)];
+    }
 
-        // Validate blocks
-        for (int br = 0; br < SIZE / BLOCK_ROWS; br++) {
-            for (int bc = 0; bc < SIZE / BLOCK_COLS; bc++) {
-                validateLine(getCellsInBlock(br * BLOCK_ROWS, bc * BLOCK_COLS));
-            }
+    /**
+     * Brings the board to any point of the history. Short distances are walked
+     * move by move; longer ones restore the closest checkpoint and replay from there.
+     * @param position A position between {@link MoveJournal#getFirstPosition()} and
+     *                 {@link MoveJournal#getEndPosition()}.
+     * @throws IllegalArgumentException If the position is not in the history.
+     */
+    public void jumpTo(long position) {
+        if (position < journal.getFirstPosition() || position > journal.getEndPosition()) {
+            throw new IllegalArgumentException("Position " + position + " is not in the history");
         }
+        moveTo(position);
+        publish();
     }
 
     /**
-     * Validates a single line (a row, column, or block) for duplicate numbers.
-     * @param cells An array of Cells representing the line to check.
+     * Brings the board to a position of the history without publishing it.
      */
-    private void validateLine(Cell[] cells) {
-        Map<Integer, Integer> valueCount = new HashMap<>();
-        for (Cell cell : cells) {
-            int val = cell.getValue();
-            if (val != 0) {
-                valueCount.put(val, valueCount.getOrDefault(val, 0) + 1);
-            }
+    private void moveTo(long position) {
+        long current = journal.getPosition();
+        if (Math.abs(position - current) > MoveJournal.CHECKPOINT_INTERVAL) {
+            current = journal.checkpointBefore(position);
+            board.restoreValues(journal.checkpoint(current));
         }
-        for (Cell cell : cells) {
-            int val = cell.getValue();
-            if (val != 0 && valueCount.get(val) > 1) {
-                cell.setError(true);
-            }
+        while (current < position) {
+            int entry = journal.entryAt(current++);
+            board.set(MoveJournal.cellOf(entry), MoveJournal.newValueOf(entry));
+        }
+        while (current > position) {
+            int entry = journal.entryAt(--current);
+            board.set(MoveJournal.cellOf(entry), MoveJournal.oldValueOf(entry));
         }
+        journal.moveTo(position);
     }
 
     /**
-     * Gets all cells in a specific row.
-     * @param row The index of the row.
-     * @return An array of Cell objects.
+     * Gets the history of the current game.
+     * @return The journal; read it, the model applies the moves.
      */
-    private Cell[] getCellsInRow(int row) {
-        Cell[] cells = new Cell[SIZE];
-        for (int col = 0; col < SIZE; col++) {
-            cells[col] = getCell(row, col);
-        }
-        return cells;
+    public MoveJournal getJournal() {
+        return journal;
     }
 
     /**
-     * Gets all cells in a specific column.
-     * @param col The index of the column.
-     * @return An array of Cell objects.
+     * Registers a listener for the cells that change: edits, undo and redo,
+     * hints, new puzzles and restored games.
+     * @param listener The listener to add.
      */
-    private Cell[] getCellsInCol(int col) {
-        Cell[] cells = new Cell[SIZE];
-        for (int row = 0; row < SIZE; row++) {
-            cells[row] = getCell(row, col);
-        }
-        return cells;
+    public void addBoardListener(I_BoardListener listener) {
+        board.addListener(listener);
     }
 
     /**
-     * Gets all cells in a specific 2x3 block.
-     * @param startRow The starting row of the block.
-     * @param startCol The starting column of the block.
-     * @return An array of Cell objects.
+     * Removes a listener added with {@link #addBoardListener(I_BoardListener)}.
+     * @param listener The listener to remove.
      */
-    private Cell[] getCellsInBlock(int startRow, int startCol) {
-        Cell[] cells = new Cell[BLOCK_ROWS * BLOCK_COLS];
-        int k = 0;
-        for (int r = 0; r < BLOCK_ROWS; r++) {
-            for (int c = 0; c < BLOCK_COLS; c++) {
-                cells[k++] = getCell(startRow + r, startCol + c);
-            }
-        }
-        return cells;
+    public void removeBoardListener(I_BoardListener listener) {
+        board.removeListener(listener);
+    }
+
+    /**
+     * Runs a full validation on the board. It recounts every row, column, and
+     * block from scratch; regular edits are validated incrementally and do not need it.
+     */
+    public void validateAllCells() {
+        board.validate();
+    }
+
+    /**
+     * Gets the pencil marks of a cell: the digits its row, column and block
+     * still allow. The board keeps them up to date on every edit.
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return A digit mask (bit {@code d - 1} for digit {@code d}), or 0 if the
+     *         cell is filled or outside the board.
+     */
+    public long getCandidates(int row, int col) {
+        return getCell(row, col) == null ? 0 : board.candidates(geometry.index(row, col));
     }
 
     /**
      * Checks if the entire board is solved correctly. A solved board
      * has no empty cells (value 0) and no validation errors.
+     * This is a constant-time read of the board's running counters.
      * @return true if the board is solved, false otherwise.
      */
     public boolean isBoardSolved() {
-        validateAllCells();
-        for (Cell cell : board.values()) {
-            if (cell.getValue() == 0 || cell.isError()) {
-                return false;
-            }
-        }
-        return true;
+        return board.isSolved();
     }
 
     /**
      * Checks if there are any validation errors on the board.
+     * This is a constant-time read of the board's conflict counter.
      * @return true if there are errors, false otherwise.
      */
     public boolean hasErrors() {
-        for (Cell cell : board.values()) {
-            if (cell.isError()) {
-                return true;
-            }
-        }
-        return false;
+        return board.hasConflicts();
     }
 
     /**
@@ -266,40 +517,40 @@ public class SudokuModel {
      * or null if the board is already solved or unsolvable.
      */
     public Cell getHint() {
-        // 1. Collect all empty cells
-        List<int[]> emptyCells = new ArrayList<>();
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                if (getCell(r, c).getValue() == 0) {
-                    emptyCells.add(new int[]{r, c});
-                }
-            }
+        int selected = randomEmptyCell();
+        if (selected < 0) {
+            return null;
         }
 
-        // If no empty cells, return null
-        if (emptyCells.isEmpty()) {
-            return null;
+        // Look up its correct value
+        int value = solvedValue(selected);
+        if (value == 0) {
+            return null; // Unsolvable board
         }
+        return new Cell(geometry.rowOf(selected), geometry.colOf(selected), value);
+    }
 
-        // 2. Solve the board to get correct values
-        int[][] boardCopy = new int[SIZE][SIZE];
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                boardCopy[r][c] = getCell(r, c).getValue();
+    /**
+     * Picks the cell of a random hint: any empty cell, so hints are not always
+     * given in sequential order.
+     * @return The cell index, or -1 if the board is full.
+     */
+    int randomEmptyCell() {
+        // 1. Collect all empty cells
+        List<Integer> emptyCells = new ArrayList<>();
+        for (int i = 0; i < cells.length; i++) {
+            if (board.get(i) == 0) {
+                emptyCells.add(i);
             }
         }
 
-        if (!solve(boardCopy)) {
-            return null; // Unsolvable board
+        // If no empty cells, there is nothing to hint
+        if (emptyCells.isEmpty()) {
+            return -1;
         }
 
-        // 3. Select a RANDOM empty cell (non-linear hint)
-        Random random = new Random();
-        int[] selectedCell = emptyCells.get(random.nextInt(emptyCells.size()));
-        int row = selectedCell[0];
-        int col = selectedCell[1];
-
-        return new Cell(row, col, boardCopy[row][col]);
+        // 2. Select a RANDOM empty cell (non-linear hint)
+        return emptyCells.get(random.nextInt(emptyCells.size()));
     }
 
     /**
@@ -310,130 +561,170 @@ public class SudokuModel {
      * or null if no empty cells exist.
      */
     public Cell getSmartHint() {
-        // 1. Find the empty cell with fewest possible values
-        int minOptions = SIZE + 1;
-        List<int[]> bestCells = new ArrayList<>();
-
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                if (getCell(r, c).getValue() == 0) {
-                    // Count how many numbers are possible for this cell
-                    int possibleCount = countPossibleValues(r, c);
-
-                    if (possibleCount < minOptions) {
-                        minOptions = possibleCount;
-                        bestCells.clear();
-                        bestCells.add(new int[]{r, c});
-                    } else if (possibleCount == minOptions) {
-                        bestCells.add(new int[]{r, c});
-                    }
-                }
-            }
-        }
-
-        if (bestCells.isEmpty()) {
+        int selected = mostConstrainedCell();
+        if (selected < 0) {
             return null;
         }
 
-        // If multiple cells have the same minimum options, pick randomly among them
-        Random random = new Random();
-        int[] selectedCell = bestCells.get(random.nextInt(bestCells.size()));
-        int row = selectedCell[0];
-        int col = selectedCell[1];
-
-        // Get the correct value by solving
-        int[][] boardCopy = new int[SIZE][SIZE];
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                boardCopy[r][c] = getCell(r, c).getValue();
-            }
-        }
-
-        if (solve(boardCopy)) {
-            return new Cell(row, col, boardCopy[row][col]);
+        // Get the correct value
+        int value = solvedValue(selected);
+        if (value != 0) {
+            return new Cell(geometry.rowOf(selected), geometry.colOf(selected), value);
         }
 
         return null;
     }
 
     /**
-     * Counts how many valid numbers can be placed in a given cell.
-     * Used by getSmartHint() to find the most constrained cells.
-     * @param row The row of the cell.
-     * @param col The column of the cell.
-     * @return The count of possible valid values (1-6).
+     * Picks the cell of a smart hint: an empty cell with the fewest candidates.
+     * @return The cell index, or -1 if the board is full.
      */
-    private int countPossibleValues(int row, int col) {
-        int count = 0;
-        int[][] tempBoard = new int[SIZE][SIZE];
-
-        // Copy current board state
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                tempBoard[r][c] = getCell(r, c).getValue();
-            }
+    int mostConstrainedCell() {
+        // 1. Find the empty cells with fewest possible values (the board keeps them bucketed)
+        int minOptions = board.getMinCandidateCount();
+        if (minOptions < 0) {
+            return -1;
         }
 
-        // Test each number 1-6
-        for (int num = 1; num <= SIZE; num++) {
-            if (isSafe(tempBoard, row, col, num)) {
-                count++;
-            }
-        }
+        // If multiple cells have the same minimum options, pick randomly among them
+        return board.cellWithCandidates(minOptions,
+                random.nextInt(board.countCellsWithCandidates(minOptions)));
+    }
 
-        return count;
+    /**
+     * Finds the next step a player could deduce on the current board, using the
+     * cheapest technique that applies, so a hint can explain itself.
+     * @return The step (see {@link LogicalStep#describe(BoardGeometry)}), or null if the
+     * board is full, has errors or needs more than the known techniques.
+     */
+    public LogicalStep getLogicalHint() {
+        if (board.hasConflicts()) {
+            return null;
+        }
+        int[] grid = new int[cells.length];
+        board.copyValues(grid);
+        return logicalSolver.nextStep(grid);
     }
 
     /**
-     * Solves a Sudoku board using a recursive backtracking algorithm.
-     * @param board A 2D integer array representing the board.
-     * @return true if a solution was found, false otherwise.
+     * Gets the value a hint gives for a cell. While every entry of the player
+     * agrees with the puzzle's solution, the board's copy of it is read directly.
+     * Otherwise the current board is solved once and the result is reused until
+     * the board changes. The solve is bounded by {@link #HINT_BUDGET_MILLIS}; a
+     * board it cannot settle in time gets no hints until it changes.
+     * @param index The cell index.
+     * @return The correct digit, or 0 if the current board has no solution
+     *         (or none was found within the budget).
      */
-    private boolean solve(int[][] board) {
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                if (board[r][c] == 0) {
-                    for (int num = 1; num <= SIZE; num++) {
-                        if (isSafe(board, r, c, num)) {
-                            board[r][c] = num;
-                            if (solve(board)) {
-                                return true;
-                            }
-                            board[r][c] = 0; // Backtrack
-                        }
-                    }
-                    return false;
-                }
-            }
+    private int solvedValue(int index) {
+        if (board.matchesSolution()) {
+            return board.getSolution(index);
         }
-        return true; // Solved
+        if (fallbackVersion != board.getVersion()) {
+            board.copyValues(fallbackSolution);
+            fallbackSolvable = solve(fallbackSolution);
+            fallbackVersion = board.getVersion();
+        }
+        return fallbackSolvable ? fallbackSolution[index] : 0;
     }
 
     /**
-     * Checks if it is safe to place a number in a given cell according to Sudoku rules.
-     * @param board The board state.
-     * @param row The row to check.
-     * @param col The column to check.
-     * @param num The number to check.
-     * @return true if the placement is safe, false otherwise.
+     * Gets the value a hint gives for a cell without running the solver.
+     * @param index The cell index.
+     * @return The correct digit, 0 if the current board has no solution (or
+     *         none was found within the budget), or -1 if the board has to be solved first.
      */
-    private boolean isSafe(int[][] board, int row, int col, int num) {
-        // Check row
-        for (int c = 0; c < SIZE; c++) {
-            if (board[row][c] == num) return false;
+    int knownSolvedValue(int index) {
+        if (board.matchesSolution()) {
+            return board.getSolution(index);
         }
-        // Check column
-        for (int r = 0; r < SIZE; r++) {
-            if (board[r][col] == num) return false;
+        if (fallbackVersion != board.getVersion()) {
+            return -1;
         }
-        // Check block
-        int blockStartRow = row - row % BLOCK_ROWS;
-        int blockStartCol = col - col % BLOCK_COLS;
-        for (int r = 0; r < BLOCK_ROWS; r++) {
-            for (int c = 0; c < BLOCK_COLS; c++) {
-                if (board[blockStartRow + r][blockStartCol + c] == num) return false;
-            }
+        return fallbackSolvable ? fallbackSolution[index] : 0;
+    }
+
+    /**
+     * Keeps a solve of the board run elsewhere, so later hints on the same
+     * board version do not solve it again.
+     * @param version The board version that was solved.
+     * @param solved The solved grid, or the unchanged board if it had no solution.
+     * @param solvable Whether a solution was found.
+     */
+    void cacheSolution(long version, int[] solved, boolean solvable) {
+        if (version == board.getVersion()) {
+            System.arraycopy(solved, 0, fallbackSolution, 0, fallbackSolution.length);
+            fallbackSolvable = solvable;
+            fallbackVersion = version;
         }
-        return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the latest copy of the board. It can be called from any thread and
+     * never blocks; the copy stays valid after the board changes.
+     * @return The snapshot of the last completed operation.
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Checks whether a snapshot still describes the board, so a result computed
+     * from it may be applied. It can be called from any thread.
+     * @param taken A snapshot returned by {@link #getSnapshot()}.
+     * @return true if no value has changed since it was taken.
+     */
+    public boolean isCurrent(BoardSnapshot taken) {
+        return taken.getVersion() == snapshot.getVersion();
+    }
+
+    /**
+     * Publishes a new snapshot of the whole board.
+     */
+    private void publish() {
+        snapshot = BoardSnapshot.of(board);
+    }
+
+    /**
+     * Publishes a new snapshot after a change of one cell, sharing the rest
+     * of the previous one.
+     * @param index The cell that changed.
+     */
+    private void publish(int index) {
+        snapshot = snapshot.withCell(board, index);
+    }
+
+    /**
+     * Gets the version of the board, bumped on every change of a value.
+     * @return The current version.
+     */
+    public long getBoardVersion() {
+        return board.getVersion();
+    }
+
+    /**
+     * Solves a Sudoku board with the injected solver, within the hint budget.
+     * @param board A flat row-major array representing the board.
+     * @return true if a solution was found, false otherwise.
+     */
+    private boolean solve(int[] board) {
+        return solver.solve(board, hintBudget()).isSolved();
+    }
+
+    /**
+     * Gets the limits of a hint's solve, starting now.
+     * @return A budget of {@link #HINT_BUDGET_MILLIS}.
+     */
+    static SearchBudget hintBudget() {
+        return SearchBudget.ofMillis(HINT_BUDGET_MILLIS);
+    }
+
+    /**
+     * Gets the search statistics of the last solve run by a hint request.
+     * Hints that agree with the puzzle's solution do not run the solver.
+     * @return The solver statistics.
+     */
+    public SolverStats getSolverStats() {
+        return solver.getStats();
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.metrics.GenerationEvent;
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.solver.ConstraintSolver;
+import com.example.sudoku.solver.LogicalRating;
+import com.example.sudoku.solver.LogicalSolver;
+import com.example.sudoku.solver.SearchBudget;
+import com.example.sudoku.solver.SolveResult;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates puzzles of a chosen difficulty by digging holes in a solved grid.
+ * Cells are emptied in random order. A removal is kept only if the puzzle still
+ * has a single solution and its {@link LogicalSolver logical score} does not go
+ * above the band; digging stops once the score is inside the band and the
+ * givens fit the clue budget. A grid that runs out of cells first is replaced
+ * by a new one.
+ * <p>
+ * On boards of {@value #PARALLEL_MIN_SIZE} digits or more the next removals are
+ * checked side by side on a {@link ForkJoinPool}, one per worker. The first one
+ * that passes is applied; those that failed are dropped, since emptying more
+ * cells never brings back uniqueness, and the other passing ones are checked
+ * again against the new grid.
+ * <p>
+ * Generation gives up at a deadline and returns the closest puzzle found, so a
+ * caller on the UI thread is never stalled for long; if not a single cell could
+ * be emptied by then, it returns no puzzle at all. An instance is not thread-safe.
+ */
+public class TargetedPuzzleGenerator {
+
+    /** Smallest board size whose removals are checked in parallel. */
+    public static final int PARALLEL_MIN_SIZE = 9;
+    private static final int REJECTED = -1;
+    private static final Metrics.Timer GENERATE_TIME = Metrics.timer("generator.targeted");
+    private static final Metrics.Counter GENERATE_ATTEMPTS = Metrics.counter("generator.targeted.attempts");
+
+    private final BoardGeometry geometry;
+    private final PuzzleGenerator grids;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Evaluator> evaluators;
+    private int lastScore;
+    private boolean lastOnTarget;
+
+    /**
+     * Constructs a generator on the common fork/join pool.
+     * @param geometry The block layout of the generated puzzles.
+     */
+    public TargetedPuzzleGenerator(BoardGeometry geometry) {
+        this(geometry, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a generator.
+     * @param geometry The block layout of the generated puzzles.
+     * @param pool The pool that checks removals in parallel.
+     */
+    public TargetedPuzzleGenerator(BoardGeometry geometry, ForkJoinPool pool) {
+        this.geometry = geometry;
+        this.grids = new PuzzleGenerator(geometry, new ConstraintSolver(geometry));
+        this.pool = pool;
+        this.evaluators = ThreadLocal.withInitial(Evaluator::new);
+    }
+
+    /**
+     * Generates a puzzle of a difficulty level.
+     * @param random The source of randomness.
+     * @param difficulty The level, which gives the score band and the clue budget.
+     * @param timeoutMillis How long to search before settling for the closest puzzle.
+     * @return The generated puzzle, which always has a single solution, or null
+     *         if the deadline passed before any cell was emptied.
+     */
+    public Puzzle generate(Random random, Difficulty difficulty, long timeoutMillis) {
+        return generate(random, difficulty.getMinScore(), difficulty.getMaxScore(),
+                difficulty.clueBudget(geometry), timeoutMillis);
+    }
+
+    /**
+     * Generates a puzzle whose logical score lies in a band.
+     * @param random The source of randomness.
+     * @param minScore The lowest accepted score, in tenths.
+     * @param maxScore The highest accepted score, in tenths.
+     * @param clueBudget The largest accepted number of givens.
+     * @param timeoutMillis How long to search before settling for the closest puzzle.
+     * @return The generated puzzle, which always has a single solution, or null
+     *         if the deadline passed before any cell was emptied.
+     */
+    public Puzzle generate(Random random, int minScore, int maxScore, int clueBudget, long timeoutMillis) {
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        long start = Metrics.start();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Dig best = null;
+        int attempts = 0;
+        do {
+            attempts++;
+            Dig dig = new Dig(grids.randomSolvedBoard(random));
+            dig.run(random, minScore, maxScore, clueBudget, deadline);
+            if (best == null || dig.distance(minScore, maxScore, clueBudget) < best.distance(minScore, maxScore, clueBudget)) {
+                best = dig;
+            }
+        } while (best.distance(minScore, maxScore, clueBudget) > 0 && System.nanoTime() < deadline);
+        boolean dug = best.count < best.givens.length;
+        lastScore = best.score;
+        lastOnTarget = dug && best.distance(minScore, maxScore, clueBudget) == 0;
+        GENERATE_TIME.stop(start);
+        GENERATE_ATTEMPTS.add(attempts);
+        if (event.shouldCommit()) {
+            event.generator = "TARGETED";
+            event.geometry = geometry.toString();
+            event.attempts = attempts;
+            event.givens = best.count;
+            event.onTarget = lastOnTarget;
+            event.commit();
+        }
+        // Una cuadrícula resuelta no es un puzzle
+        return dug ? new Puzzle(geometry, best.givens, best.solution) : null;
+    }
+
+    /**
+     * Gets the logical score of the last generated puzzle.
+     * @return The score in tenths.
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Checks whether the last generated puzzle met its band and clue budget,
+     * or was the closest one found before the deadline.
+     * @return true if the target was met.
+     */
+    public boolean isLastOnTarget() {
+        return lastOnTarget;
+    }
+
+    /**
+     * One solved grid being dug into a puzzle.
+     */
+    private final class Dig {
+        final int[] solution;
+        final int[] givens;
+        int count;
+        int score; // A full grid needs no technique
+
+        Dig(int[] solution) {
+            this.solution = solution;
+            this.givens = solution.clone();
+            this.count = solution.length;
+        }
+
+        void run(Random random, int minScore, int maxScore, int clueBudget, long deadline) {
+            int cells = givens.length;
+            int[] queue = new int[cells];
+            for (int i = 0; i < cells; i++) {
+                queue[i] = i;
+            }
+            for (int i = cells - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = queue[i];
+                queue[i] = queue[j];
+                queue[j] = tmp;
+            }
+            int window = geometry.getSize() < PARALLEL_MIN_SIZE ? 1 : Math.max(1, pool.getParallelism());
+            int[] results = new int[window];
+            int head = 0;
+            SearchBudget budget = SearchBudget.ofNodes(PuzzleGenerator.UNIQUE_CHECK_NODES).withDeadline(deadline);
+            while (head < cells && (count > clueBudget || score < minScore) && System.nanoTime() < deadline) {
+                int width = Math.min(window, cells - head);
+                if (width == 1) {
+                    results[0] = evaluators.get().evaluate(givens, queue[head], maxScore, budget);
+                } else {
+                    pool.invoke(new Removals(givens, queue, head, 0, width, results, maxScore, budget));
+                }
+                int first = 0;
+                while (first < width && results[first] == REJECTED) {
+                    first++;
+                }
+                if (first == width) {
+                    head += width;
+                    continue;
+                }
+                givens[queue[head + first]] = 0;
+                count--;
+                score = results[first];
+                // Las que pasaron después de la elegida vuelven al frente de la cola
+                int keep = 0;
+                for (int k = width - 1; k > first; k--) {
+                    if (results[k] != REJECTED) {
+                        queue[head + width - 1 - keep] = queue[head + k];
+                        keep++;
+                    }
+                }
+                head += width - keep;
+            }
+        }
+
+        /**
+         * Measures how far the puzzle is from the target; 0 means it is on target.
+         */
+        int distance(int minScore, int maxScore, int clueBudget) {
+            int miss = score < minScore ? minScore - score : Math.max(0, score - maxScore);
+            return miss * givens.length + Math.max(0, count - clueBudget);
+        }
+    }
+
+    /**
+     * Checks a range of candidate removals, splitting it between workers.
+     */
+    private final class Removals extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] givens;
+        private final int[] queue;
+        private final int head;
+        private final int from;
+        private final int to;
+        private final int[] results;
+        private final int maxScore;
+        private final SearchBudget budget;
+
+        Removals(int[] givens, int[] queue, int head, int from, int to, int[] results, int maxScore,
+                 SearchBudget budget) {
+            this.givens = givens;
+            this.queue = queue;
+            this.head = head;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.maxScore = maxScore;
+            this.budget = budget;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = evaluators.get().evaluate(givens, queue[head + from], maxScore, budget);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Removals(givens, queue, head, from, middle, results, maxScore, budget),
+                    new Removals(givens, queue, head, middle, to, results, maxScore, budget));
+        }
+    }
+
+    /**
+     * The solvers and scratch grid of one worker thread.
+     */
+    private final class Evaluator {
+        private final int[] grid = new int[geometry.getCells()];
+        private final ConstraintSolver solver = new ConstraintSolver(geometry);
+        private final LogicalSolver rater = new LogicalSolver(geometry);
+
+        /**
+         * Rates the puzzle with one more cell emptied. A uniqueness check that
+         * runs out of budget rejects the removal, so the puzzle stays unique.
+         * @return The new score, or {@link #REJECTED} if the removal must not be kept.
+         */
+        int evaluate(int[] givens, int cell, int maxScore, SearchBudget budget) {
+            System.arraycopy(givens, 0, grid, 0, grid.length);
+            grid[cell] = 0;
+            int score = rater.rate(grid).getScore();
+            if (score > maxScore) {
+                return REJECTED;
+            }
+            // Lo que las técnicas resuelven ya tiene solución única; solo el resto pasa por la búsqueda
+            if (score >= LogicalRating.BEYOND_TECHNIQUES) {
+                SolveResult unique = solver.countSolutions(grid, 2, budget);
+                if (!unique.getStatus().isComplete() || unique.getSolutions() != 1) {
+                    return REJECTED;
+                }
+            }
+            return score;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.solver.ConstraintSolver;
+import com.example.sudoku.solver.LogicalSolver;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the hot paths of the game for a short while, so the JIT compiles them
+ * before the player needs them: grid generation, the search solver, the
+ * logical rater and the incremental validation of the board. Meant for a
+ * background thread at startup; the results are thrown away.
+ */
+public final class Warmup {
+
+    private Warmup() {
+    }
+
+    /**
+     * Exercises the solver and the validator until a time budget runs out.
+     * @param geometry The block layout the game plays on.
+     * @param budgetMillis How long to keep going.
+     * @return The number of puzzles that went through the warm-up.
+     */
+    public static int run(BoardGeometry geometry, long budgetMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        Random random = new Random(geometry.getCells());
+        ConstraintSolver solver = new ConstraintSolver(geometry);
+        PuzzleGenerator grids = new PuzzleGenerator(geometry, solver);
+        LogicalSolver rater = new LogicalSolver(geometry);
+        Board board = new Board(geometry);
+        int cells = geometry.getCells();
+        int[] grid = new int[cells];
+        int rounds = 0;
+        while (System.nanoTime() < deadline) {
+            int[] solution = grids.randomSolvedBoard(random);
+            int[] puzzle = solution.clone();
+            for (int i = 0; i < cells; i++) {
+                if (random.nextBoolean()) {
+                    puzzle[i] = 0;
+                }
+            }
+            // Validación incremental: cada celda vacía se llena y se vuelve a vaciar
+            board.load(puzzle, solution);
+            for (int i = 0; i < cells; i++) {
+                if (puzzle[i] == 0) {
+                    board.set(i, solution[i]);
+                    board.set(i, random.nextInt(geometry.getSize()) + 1);
+                    board.set(i, 0);
+                }
+            }
+            System.arraycopy(puzzle, 0, grid, 0, cells);
+            solver.solve(grid);
+            solver.countSolutions(puzzle, 2);
+            rater.rate(puzzle);
+            rounds++;
+        }
+        return rounds;
+    }
+}
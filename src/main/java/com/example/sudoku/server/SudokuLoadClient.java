@@ -0,0 +1,173 @@
+package com.example.sudoku.server;
+
+import com.example.sudoku.metrics.LatencyHistogram;
+import com.example.sudoku.model.BoardGeometry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for {@link SudokuServer}, meant to run on the same machine.
+ * <p>
+ * Usage: {@code SudokuLoadClient [--url URL] [--endpoint solve|validate|hint|generate]
+ * [--geometry RxC] [--batch N] [--threads T] [--seconds S]}
+ * <p>
+ * The client first fetches {@code batch} puzzles from {@code /generate}, in as
+ * many requests as the server's cell limit needs; then
+ * every thread posts them to the endpoint in a closed loop (a new request as
+ * soon as the previous answer arrives) for the given time. With the
+ * {@code generate} endpoint each request asks for {@code batch} new puzzles instead.
+ * The latency percentiles and the throughput seen by the client are reported
+ * on standard error.
+ */
+public final class SudokuLoadClient {
+
+    private SudokuLoadClient() {
+    }
+
+    /**
+     * Parses the command line, runs the load and reports the results.
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        String url = "http://127.0.0.1:8080";
+        String endpoint = "solve";
+        String geometry = "2x3";
+        int batch = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int seconds = 10;
+        int chunk;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--url" -> url = value;
+                    case "--endpoint" -> endpoint = value;
+                    case "--geometry" -> geometry = value;
+                    case "--batch" -> batch = Integer.parseInt(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--seconds" -> seconds = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (batch < 1 || batch > SudokuServer.MAX_BATCH || threads < 1 || seconds < 1) {
+                throw new IllegalArgumentException("batch must be 1 to " + SudokuServer.MAX_BATCH
+                        + ", threads and seconds must be positive");
+            }
+            // Puzzles per /generate request the server accepts on this geometry
+            chunk = Math.max(1, SudokuServer.MAX_GENERATE_CELLS / BoardGeometry.parse(geometry).getCells());
+            if (endpoint.equals("generate") && batch > chunk) {
+                throw new IllegalArgumentException("generate batch must be at most " + chunk + " on " + geometry);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SudokuLoadClient [--url URL] [--endpoint solve|validate|hint|generate]"
+                    + " [--geometry RxC] [--batch N] [--threads T] [--seconds S]");
+            System.exit(2);
+            return;
+        }
+
+        try {
+            byte[] body;
+            URL target;
+            if (endpoint.equals("generate")) {
+                body = null;
+                target = new URL(url + "/generate?geometry=" + geometry + "&count=" + batch);
+            } else {
+                // Solo los enunciados: la primera mitad de cada línea
+                StringBuilder puzzles = new StringBuilder();
+                for (int fetched = 0; fetched < batch; ) {
+                    URL generate = new URL(url + "/generate?geometry=" + geometry + "&count=" + Math.min(chunk, batch - fetched));
+                    for (String line : new String(exchange(generate, null), StandardCharsets.UTF_8).split("\n")) {
+                        int space = line.indexOf(' ');
+                        if (space > 0) { // Las líneas "exhausted" no traen puzzle
+                            puzzles.append(line, 0, space).append('\n');
+                            fetched++;
+                        }
+                    }
+                }
+                body = puzzles.toString().getBytes(StandardCharsets.UTF_8);
+                target = new URL(url + "/" + endpoint + "?geometry=" + geometry);
+            }
+            run(target, body, batch, threads, seconds);
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Error running the load: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void run(URL target, byte[] body, int batch, int threads, int seconds)
+            throws InterruptedException {
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            exchange(target, body);
+                            latency.record((System.nanoTime() - sent) / 1000);
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "sudoku-load");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long requests = latency.count();
+        System.err.printf("%s: %d requests (%d errors) in %.1f s with %d threads, batch %d%n",
+                target.getPath(), requests, errors.get(), elapsed, threads, batch);
+        System.err.printf("p50 %d us, p99 %d us, %.1f req/s, %.1f puzzles/s%n",
+                latency.percentile(50), latency.percentile(99), requests / elapsed, requests * batch / elapsed);
+    }
+
+    /**
+     * Sends one request and reads the whole answer.
+     * @param target The endpoint.
+     * @param body The body to post, or null for a GET.
+     * @return The answer.
+     * @throws IOException If the request fails or the server answers with an error.
+     */
+    private static byte[] exchange(URL target, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) target.openConnection();
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            // Sin modo streaming el cuerpo sale junto a las cabeceras, en un solo envío
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        int status = connection.getResponseCode();
+        if (status != HttpURLConnection.HTTP_OK) {
+            try (InputStream error = connection.getErrorStream()) {
+                String message = error == null ? "" : new String(error.readAllBytes(), StandardCharsets.UTF_8).trim();
+                throw new IOException("HTTP " + status + " from " + target.getPath() + ": " + message);
+            }
+        }
+        // Leer todo permite que la conexión se reutilice (keep-alive)
+        try (InputStream in = connection.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.example.sudoku.server;
+
+import com.example.sudoku.metrics.LatencyHistogram;
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleGenerator;
+import com.example.sudoku.model.PuzzleText;
+import com.example.sudoku.model.TargetedPuzzleGenerator;
+import com.example.sudoku.solver.ConstraintSolver;
+import com.example.sudoku.solver.LogicalSolver;
+import com.example.sudoku.solver.LogicalStep;
+import com.example.sudoku.solver.SearchBudget;
+import com.example.sudoku.solver.SolveResult;
+import com.example.sudoku.solver.SolveStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless HTTP service that generates, solves, validates and gives hints on
+ * puzzles, for other components that must not start JavaFX.
+ * <p>
+ * Usage: {@code SudokuServer [--host H] [--port P] [--threads T] [--report SECONDS]}
+ * <p>
+ * Every endpoint takes the board layout as {@code ?geometry=RxC} (6x6 by default)
+ * and answers in plain text, one line per puzzle, in the {@link PuzzleText} format:
+ * <ul>
+ *   <li>{@code GET /generate?count=N[&difficulty=EASY|MEDIUM|HARD][&givens=K][&seed=S]}:
+ *       lines of givens and solution separated by a space, as written by the batch generator.
+ *       Boards of up to {@value #MAX_GENERATE_SIZE} digits are generated, with at most
+ *       {@value #MAX_GENERATE_CELLS} cells per request (count times cells).</li>
+ *   <li>{@code POST /solve}: the solution of each puzzle line, or {@code unsolvable}.</li>
+ *   <li>{@code POST /validate}: {@code conflict}, {@code unsolvable}, {@code unique} or
+ *       {@code multiple} for each puzzle line.</li>
+ *   <li>{@code POST /hint}: {@code row col digit technique} (1-based) for each puzzle line,
+ *       with {@code SEARCH} when no logical technique applies; or {@code solved},
+ *       {@code conflict} or {@code unsolvable}.</li>
+ *   <li>On these three, a puzzle whose search needs more than {@code ?nodes=N} branch
+ *       nodes ({@value #DEFAULT_PUZZLE_NODES} by default, {@value #MAX_PUZZLE_NODES} at
+ *       most) is answered {@code exhausted}.</li>
+ *   <li>{@code GET /stats}: requests, puzzles, p50 and p99 latency and throughput per endpoint.</li>
+ *   <li>{@code GET /metrics}: the engine counters and timers of {@link Metrics}, when the
+ *       server runs with {@code -Dsudoku.metrics=true}.</li>
+ * </ul>
+ * A request stops working after {@value #REQUEST_DEADLINE_MILLIS} ms: the puzzles it
+ * did not finish are answered {@code exhausted}, so one hostile request cannot hold
+ * a worker for longer than that.
+ * <p>
+ * Requests are batched: a body carries up to {@value #MAX_BATCH} puzzles, and each
+ * worker thread keeps one engine per geometry (solvers, generators, board and
+ * buffers) that it reuses across lines and requests, so the per-puzzle cost is
+ * only the parse and the work itself. The service listens on the loopback
+ * interface unless told otherwise; {@link SudokuLoadClient} load-tests it.
+ */
+public final class SudokuServer {
+
+    /** Largest number of puzzles in one request. */
+    public static final int MAX_BATCH = 10_000;
+    private static final int MAX_BODY_BYTES = 16 << 20;
+    /** Default search nodes allowed per puzzle on the line endpoints. */
+    public static final long DEFAULT_PUZZLE_NODES = 200_000;
+    /** Largest {@code ?nodes=} a line endpoint accepts. */
+    public static final long MAX_PUZZLE_NODES = 50_000_000;
+    // How long a difficulty-targeted puzzle may take before the closest one is kept
+    private static final long GENERATION_TIMEOUT_MILLIS = 1500;
+    /** Largest board size served by {@code /generate}; 25x25 boards take tens of seconds each. */
+    public static final int MAX_GENERATE_SIZE = 16;
+    /** Most cells, over all puzzles, that one {@code /generate} request may ask for. */
+    public static final int MAX_GENERATE_CELLS = 100_000;
+    /** How long one request may keep working before its remaining puzzles are answered {@code exhausted}. */
+    public static final long REQUEST_DEADLINE_MILLIS = 10_000;
+    private static final BoardGeometry DEFAULT_GEOMETRY = BoardGeometry.SIX;
+    private static final String TEXT = "text/plain; charset=utf-8";
+
+    /**
+     * The operations the service offers.
+     */
+    private enum Endpoint {
+        GENERATE("/generate"), SOLVE("/solve"), VALIDATE("/validate"), HINT("/hint");
+
+        final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Counters of one endpoint since the server started.
+     */
+    private static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong puzzles = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    private final HttpServer http;
+    private final ExecutorService workers;
+    private final int threads;
+    private final EndpointStats[] stats = new EndpointStats[Endpoint.values().length];
+    private final ThreadLocal<Map<BoardGeometry, Engine>> engines = ThreadLocal.withInitial(HashMap::new);
+    private long startNanos;
+
+    /**
+     * Constructs a server; it does not accept requests until {@link #start()}.
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param threads The number of worker threads.
+     * @throws IOException If the address cannot be bound.
+     */
+    public SudokuServer(InetSocketAddress address, int threads) throws IOException {
+        // Sin Nagle: las respuestas cortas salen de inmediato en lugar de esperar el ACK retrasado
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.threads = threads;
+        this.http = HttpServer.create(address, 0);
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "sudoku-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats[endpoint.ordinal()] = new EndpointStats();
+            http.createContext(endpoint.path, exchange -> handle(exchange, endpoint));
+        }
+        http.createContext("/stats", exchange -> send(exchange, 200, report()));
+        http.createContext("/metrics", exchange -> send(exchange, 200, Metrics.report()));
+        http.createContext("/", exchange -> send(exchange, 404, "Unknown endpoint " + exchange.getRequestURI().getPath() + "\n"));
+        http.setExecutor(workers);
+    }
+
+    /**
+     * Parses the command line, starts the server and reports its statistics periodically.
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        String host = null;
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int reportSeconds = 10;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--host" -> host = value;
+                    case "--port" -> port = Integer.parseInt(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--report" -> reportSeconds = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (port < 0 || threads < 1 || reportSeconds < 0) {
+                throw new IllegalArgumentException("port and report must not be negative, threads must be positive");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SudokuServer [--host H] [--port P] [--threads T] [--report SECONDS]");
+            System.exit(2);
+            return;
+        }
+
+        SudokuServer server;
+        try {
+            InetAddress address = host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+            server = new SudokuServer(new InetSocketAddress(address, port), threads);
+        } catch (IOException e) {
+            System.err.println("Error starting the server: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        server.start();
+        System.err.printf("Sudoku service listening on port %d with %d workers%n", server.getPort(), threads);
+        if (reportSeconds > 0) {
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "sudoku-server-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(() -> System.err.print(server.report()), reportSeconds, reportSeconds, TimeUnit.SECONDS);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            System.err.print(server.report());
+        }));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        http.start();
+    }
+
+    /**
+     * Stops accepting requests, lets the running ones finish for up to a second
+     * and stops the workers.
+     */
+    public void stop() {
+        http.stop(1);
+        workers.shutdown();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     * @return The bound port.
+     */
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    /**
+     * Describes the traffic served so far.
+     * @return One line per endpoint with requests, puzzles, errors, p50 and p99
+     *         latency and throughput since the server started.
+     */
+    public String report() {
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1e9, 1e-9);
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("uptime %.1f s, %d workers%n", seconds, threads));
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointStats s = stats[endpoint.ordinal()];
+            long requests = s.requests.get();
+            long puzzles = s.puzzles.get();
+            out.append(String.format("%-9s requests %d puzzles %d errors %d p50 %d us p99 %d us %.1f req/s %.1f puzzles/s%n",
+                    endpoint.path.substring(1), requests, puzzles, s.errors.get(),
+                    s.latency.percentile(50), s.latency.percentile(99), requests / seconds, puzzles / seconds));
+        }
+        return out.toString();
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        long start = System.nanoTime();
+        EndpointStats s = stats[endpoint.ordinal()];
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            BoardGeometry geometry = query.containsKey("geometry")
+                    ? BoardGeometry.parse(query.get("geometry")) : DEFAULT_GEOMETRY;
+            Engine engine = engines.get().computeIfAbsent(geometry, Engine::new);
+            StringBuilder out = engine.out;
+            out.setLength(0);
+            int puzzles;
+            if (endpoint == Endpoint.GENERATE) {
+                puzzles = engine.generate(query, out);
+            } else {
+                if (!"POST".equals(exchange.getRequestMethod())) {
+                    send(exchange, 405, "Use POST with one puzzle per line\n");
+                    s.errors.incrementAndGet();
+                    return;
+                }
+                long nodes = Long.parseLong(query.getOrDefault("nodes", Long.toString(DEFAULT_PUZZLE_NODES)));
+                if (nodes < 1 || nodes > MAX_PUZZLE_NODES) {
+                    throw new IllegalArgumentException("nodes must be between 1 and " + MAX_PUZZLE_NODES);
+                }
+                // El plazo cuenta desde la llegada, también mientras se lee el cuerpo
+                SearchBudget budget = SearchBudget.ofNodes(nodes)
+                        .withDeadline(start + TimeUnit.MILLISECONDS.toNanos(REQUEST_DEADLINE_MILLIS));
+                puzzles = engine.processLines(endpoint, readBody(exchange), budget, out);
+            }
+            send(exchange, 200, out);
+            s.puzzles.addAndGet(puzzles);
+        } catch (IllegalArgumentException e) {
+            s.errors.incrementAndGet();
+            send(exchange, 400, e.getMessage() + "\n");
+        } catch (RuntimeException e) {
+            s.errors.incrementAndGet();
+            System.err.println("Error serving " + exchange.getRequestURI() + ": " + e);
+            send(exchange, 500, "Internal error\n");
+        } finally {
+            s.requests.incrementAndGet();
+            s.latency.record((System.nanoTime() - start) / 1000);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body larger than " + MAX_BODY_BYTES + " bytes");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void send(HttpExchange exchange, int status, CharSequence text) throws IOException {
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", TEXT);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * The solvers, generators and buffers of one worker thread for one geometry.
+     */
+    private static final class Engine {
+        final BoardGeometry geometry;
+        final ConstraintSolver solver;
+        final PuzzleGenerator generator;
+        final TargetedPuzzleGenerator targeted;
+        final LogicalSolver logical;
+        final Board board;
+        final int[] grid;
+        final int[] work;
+        final Random random = new Random();
+        final StringBuilder out = new StringBuilder();
+
+        Engine(BoardGeometry geometry) {
+            this.geometry = geometry;
+            this.solver = new ConstraintSolver(geometry);
+            this.generator = new PuzzleGenerator(geometry, solver);
+            this.targeted = new TargetedPuzzleGenerator(geometry);
+            this.logical = new LogicalSolver(geometry);
+            this.board = new Board(geometry);
+            this.grid = new int[geometry.getCells()];
+            this.work = new int[geometry.getCells()];
+        }
+
+        /**
+         * Generates puzzles as lines of givens and solution. Puzzles not started
+         * before the request's deadline, or cut short by it before reaching their
+         * difficulty, are answered {@code exhausted}.
+         * @return The number of puzzles generated.
+         */
+        int generate(Map<String, String> query, StringBuilder out) {
+            if (geometry.getSize() > MAX_GENERATE_SIZE) {
+                throw new IllegalArgumentException("Boards larger than " + MAX_GENERATE_SIZE + "x"
+                        + MAX_GENERATE_SIZE + " are not generated");
+            }
+            int maxCount = Math.min(MAX_BATCH, MAX_GENERATE_CELLS / geometry.getCells());
+            int count = Integer.parseInt(query.getOrDefault("count", "1"));
+            if (count < 1 || count > maxCount) {
+                throw new IllegalArgumentException("count must be between 1 and " + maxCount + " on " + geometry);
+            }
+            Difficulty difficulty = query.containsKey("difficulty")
+                    ? Difficulty.valueOf(query.get("difficulty").toUpperCase()) : null;
+            int givens = Integer.parseInt(query.getOrDefault("givens", "2"));
+            Random source = query.containsKey("seed") ? new Random(Long.parseLong(query.get("seed"))) : random;
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REQUEST_DEADLINE_MILLIS);
+            int generated = 0;
+            for (int k = 0; k < count; k++) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    for (int rest = k; rest < count; rest++) {
+                        out.append("exhausted\n");
+                    }
+                    return generated;
+                }
+                long timeout = Math.min(GENERATION_TIMEOUT_MILLIS, remainingMillis);
+                Puzzle puzzle = difficulty != null
+                        ? targeted.generate(source, difficulty, timeout)
+                        : generator.generate(source, givens, true);
+                // Un puzzle fuera de banda solo vale si tuvo todo su tiempo, no lo que quedaba del plazo
+                if (puzzle == null || difficulty != null && timeout < GENERATION_TIMEOUT_MILLIS
+                        && !targeted.isLastOnTarget()) {
+                    out.append("exhausted\n");
+                    continue;
+                }
+                puzzle.copyGivens(grid);
+                PuzzleText.append(geometry, grid, out);
+                out.append(' ');
+                puzzle.copySolution(grid);
+                PuzzleText.append(geometry, grid, out);
+                out.append('\n');
+                generated++;
+            }
+            return generated;
+        }
+
+        /**
+         * Answers every non-blank line of a request body. Once the budget's
+         * deadline passes, the remaining lines are answered {@code exhausted}.
+         * @return The number of puzzles processed.
+         */
+        int processLines(Endpoint endpoint, String body, SearchBudget budget, StringBuilder out) {
+            int puzzles = 0;
+            int from = 0;
+            while (from < body.length()) {
+                int end = body.indexOf('\n', from);
+                if (end < 0) {
+                    end = body.length();
+                }
+                int last = end;
+                while (last > from && Character.isWhitespace(body.charAt(last - 1))) {
+                    last--;
+                }
+                if (last > from) {
+                    if (++puzzles > MAX_BATCH) {
+                        throw new IllegalArgumentException("More than " + MAX_BATCH + " puzzles in one request");
+                    }
+                    if (budget.isExpired()) {
+                        out.append("exhausted\n");
+                    } else {
+                        try {
+                            PuzzleText.parse(geometry, body.subSequence(from, last), grid);
+                        } catch (IllegalArgumentException e) {
+                            throw new IllegalArgumentException("Line " + puzzles + ": " + e.getMessage(), e);
+                        }
+                        switch (endpoint) {
+                            case SOLVE -> solve(budget, out);
+                            case VALIDATE -> validate(budget, out);
+                            case HINT -> hint(budget, out);
+                            default -> throw new IllegalStateException("Not a line endpoint: " + endpoint);
+                        }
+                        out.append('\n');
+                    }
+                }
+                from = end + 1;
+            }
+            return puzzles;
+        }
+
+        private void solve(SearchBudget budget, StringBuilder out) {
+            SolveResult result = solver.solve(grid, budget);
+            switch (result.getStatus()) {
+                case SOLVED -> PuzzleText.append(geometry, grid, out);
+                case UNSOLVABLE -> out.append("unsolvable");
+                default -> out.append("exhausted");
+            }
+        }
+
+        private void validate(SearchBudget budget, StringBuilder out) {
+            board.load(grid);
+            if (board.hasConflicts()) {
+                out.append("conflict");
+                return;
+            }
+            SolveResult result = solver.countSolutions(grid, 2, budget);
+            int solutions = result.getSolutions();
+            if (!result.getStatus().isComplete()) {
+                out.append("exhausted");
+                return;
+            }
+            out.append(solutions == 0 ? "unsolvable" : solutions == 1 ? "unique" : "multiple");
+        }
+
+        private void hint(SearchBudget budget, StringBuilder out) {
+            board.load(grid);
+            if (board.hasConflicts()) {
+                out.append("conflict");
+                return;
+            }
+            int minOptions = board.getMinCandidateCount();
+            if (minOptions < 0) {
+                out.append("solved");
+                return;
+            }
+            if (minOptions == 0) {
+                out.append("unsolvable"); // Una celda vacía sin candidatos
+                return;
+            }
+            System.arraycopy(grid, 0, work, 0, grid.length);
+            LogicalStep step = logical.nextStep(work);
+            if (step != null && step.isPlacement()) {
+                appendHint(step.getCell(), step.getDigit(), step.getTechnique().name(), out);
+                return;
+            }
+            // Sin técnica lógica: la celda más restringida, con el valor de la búsqueda
+            int cell = board.cellWithCandidates(minOptions, 0);
+            System.arraycopy(grid, 0, work, 0, grid.length);
+            SolveResult result = solver.solve(work, budget);
+            if (!result.isSolved()) {
+                out.append(result.getStatus() == SolveStatus.UNSOLVABLE ? "unsolvable" : "exhausted");
+                return;
+            }
+            appendHint(cell, work[cell], "SEARCH", out);
+        }
+
+        private void appendHint(int cell, int digit, String technique, StringBuilder out) {
+            out.append(geometry.rowOf(cell) + 1).append(' ').append(geometry.colOf(cell) + 1).append(' ')
+                    .append(BoardGeometry.symbol(digit)).append(' ').append(technique);
+        }
+    }
+}
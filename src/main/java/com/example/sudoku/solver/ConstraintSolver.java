@@ -0,0 +1,390 @@
+package com.example.sudoku.solver;
+
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.metrics.SolveEvent;
+import com.example.sudoku.model.BoardGeometry;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sudoku solver based on constraint propagation.
+ * Every empty cell keeps a bitmask of its remaining candidates. Placing a value
+ * removes it from the cell's peers, naked singles (cells with one candidate left)
+ * and hidden singles (digits with one place left in a unit) are placed until
+ * nothing changes, and only then the search branches on the empty cell with
+ * the fewest candidates (minimum remaining values).
+ * <p>
+ * The search state lives in two stacks with one board-sized frame per depth.
+ * They grow on demand and are reused by later calls, so a warmed-up solver
+ * does not allocate. An instance is not thread-safe.
+ * <p>
+ * A {@link SearchBudget} is checked at every branch node, so a budgeted search
+ * stops within one node of running out.
+ */
+public class ConstraintSolver implements Solver {
+
+    private static final int INITIAL_FRAMES = 16;
+    private static final Metrics.Timer SOLVE_TIME = Metrics.timer("solver.search");
+    private static final Metrics.Counter SOLVE_NODES = Metrics.counter("solver.nodes");
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cells;
+    private final long all;
+
+    // One frame of `cells` entries per search depth
+    private int[] values;
+    private long[] candidates;
+    // Cells that were left with a single candidate and still need to be placed
+    private final int[] pending;
+    private int pendingCount;
+    private final int[] firstSolution;
+    private int solutionCount;
+    private int solutionLimit;
+    private AtomicBoolean cancelFlag;
+    private SearchBudget budget;
+    private SolveStatus stopped; // Why the budget stopped the last run, or null
+    private int budgetTicks;
+    private final SolverStats stats = new SolverStats();
+
+    /**
+     * Constructs a solver for boards of the given geometry.
+     * @param geometry The block layout of the boards to solve.
+     */
+    public ConstraintSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cells = geometry.getCells();
+        this.all = geometry.getAllDigits();
+        int frames = Math.min(INITIAL_FRAMES, cells + 1);
+        this.values = new int[frames * cells];
+        this.candidates = new long[frames * cells];
+        this.pending = new int[cells];
+        this.firstSolution = new int[cells];
+    }
+
+    @Override
+    public boolean solve(int[] grid) {
+        if (run(grid, 1, null) == 0) {
+            return false;
+        }
+        System.arraycopy(firstSolution, 0, grid, 0, cells);
+        return true;
+    }
+
+    @Override
+    public int countSolutions(int[] grid, int limit) {
+        return run(grid, limit, null);
+    }
+
+    @Override
+    public SolveResult solve(int[] grid, SearchBudget budget) {
+        SolveResult result = SolveResult.of(run(grid, 1, budget), 1, stopped, stats);
+        if (result.isSolved()) {
+            System.arraycopy(firstSolution, 0, grid, 0, cells);
+        }
+        return result;
+    }
+
+    @Override
+    public SolveResult countSolutions(int[] grid, int limit, SearchBudget budget) {
+        return SolveResult.of(run(grid, limit, budget), limit, stopped, stats);
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Sets a flag that, once raised by another thread, makes the running
+     * search stop at its next node.
+     * @param cancelFlag The shared flag, or null to disable cooperative cancellation.
+     */
+    void setCancelFlag(AtomicBoolean cancelFlag) {
+        this.cancelFlag = cancelFlag;
+    }
+
+    /**
+     * Loads a board and propagates it without branching. Used to split the
+     * search tree into independent subtrees.
+     * @param grid The board to expand. On return it holds every value placed by propagation.
+     * @return The most constrained empty cell, -1 if propagation solved the board,
+     *         or -2 if the board is contradictory.
+     */
+    int expand(int[] grid) {
+        stats.reset();
+        if (!load(grid) || !propagate(0)) {
+            return -2;
+        }
+        System.arraycopy(values, 0, grid, 0, cells);
+        return mostConstrained(0);
+    }
+
+    /**
+     * Gets the candidates left for a cell after the last {@link #expand(int[])}.
+     * @param cell The cell index.
+     * @return The candidate mask of the cell.
+     */
+    long candidatesOf(int cell) {
+        return candidates[cell];
+    }
+
+    /**
+     * Copies the first solution found by the last run.
+     * @param dest An array with room for every cell.
+     */
+    void copyFirstSolution(int[] dest) {
+        System.arraycopy(firstSolution, 0, dest, 0, cells);
+    }
+
+    /**
+     * Loads a board and searches until {@code limit} solutions are found
+     * or the search space is exhausted.
+     * @param grid The board to search.
+     * @param limit The number of solutions after which the search stops.
+     * @param budget The limits of the search, or null for none.
+     * @return The number of solutions found.
+     */
+    private int run(int[] grid, int limit, SearchBudget budget) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long start = Metrics.start();
+        stats.reset();
+        solutionCount = 0;
+        solutionLimit = limit;
+        this.budget = budget;
+        stopped = null;
+        budgetTicks = 0;
+        if (limit > 0 && load(grid)) {
+            search(0);
+        }
+        this.budget = null;
+        SOLVE_TIME.stop(start);
+        SOLVE_NODES.add(stats.getNodes());
+        if (event.shouldCommit()) {
+            event.solver = "CONSTRAINT";
+            event.geometry = geometry.toString();
+            event.limit = limit;
+            event.solutions = solutionCount;
+            event.nodes = stats.getNodes();
+            event.backtracks = stats.getBacktracks();
+            event.outcome = cancelFlag != null && cancelFlag.get() ? SolveStatus.CANCELLED.name()
+                    : SolveResult.statusOf(solutionCount, limit, stopped).name();
+            event.commit();
+        }
+        return solutionCount;
+    }
+
+    /**
+     * Initializes the first stack frame from the givens.
+     * @param grid The board to load.
+     * @return false if a given is out of range or two givens already contradict each other.
+     */
+    private boolean load(int[] grid) {
+        pendingCount = 0;
+        for (int i = 0; i < cells; i++) {
+            values[i] = 0;
+            candidates[i] = all;
+        }
+        for (int i = 0; i < cells; i++) {
+            int digit = grid[i];
+            if (digit < 0 || digit > size) {
+                return false; // Fuera de rango: bit() daría la vuelta y lo tomaría por otro dígito
+            }
+            if (digit != 0) {
+                if ((candidates[i] & BoardGeometry.bit(digit)) == 0 || !assign(0, i, digit)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Propagates the frame at the given depth and branches on its most
+     * constrained cell. The first solution reached is kept in {@link #firstSolution}.
+     * @param depth The current search depth.
+     * @return true once the solution limit has been reached or the budget has run
+     *         out, and the search must stop.
+     */
+    private boolean search(int depth) {
+        if (cancelFlag != null && cancelFlag.get()) {
+            return true;
+        }
+        if (budget != null && (stopped = budget.check(stats.getNodes(), budgetTicks++)) != null) {
+            return true;
+        }
+        int offset = depth * cells;
+        if (!propagate(offset)) {
+            return false;
+        }
+
+        int best = mostConstrained(offset);
+        if (best < 0) {
+            // Every cell is filled
+            if (solutionCount++ == 0) {
+                System.arraycopy(values, offset, firstSolution, 0, cells);
+            }
+            return solutionCount >= solutionLimit;
+        }
+
+        ensureFrames(depth + 2);
+        int next = offset + cells;
+        long options = candidates[offset + best];
+        while (options != 0) {
+            long bit = options & -options;
+            options ^= bit;
+            stats.addNode();
+            System.arraycopy(values, offset, values, next, cells);
+            System.arraycopy(candidates, offset, candidates, next, cells);
+            pendingCount = 0;
+            if (assign(next, best, Long.numberOfTrailingZeros(bit) + 1) && search(depth + 1)) {
+                return true;
+            }
+            stats.addBacktrack();
+        }
+        return false;
+    }
+
+    /**
+     * Finds the empty cell with the fewest candidates in a propagated frame.
+     * @param offset The start of the frame.
+     * @return The cell index, or -1 if every cell is filled.
+     */
+    private int mostConstrained(int offset) {
+        int best = -1;
+        int bestCount = size + 1;
+        for (int i = 0; i < cells; i++) {
+            if (values[offset + i] == 0) {
+                int count = Long.bitCount(candidates[offset + i]);
+                if (count < bestCount) {
+                    best = i;
+                    bestCount = count;
+                    if (count == 2) {
+                        break; // Cells with one candidate were already placed
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Places naked and hidden singles until the frame reaches a fixed point.
+     * @param offset The start of the frame.
+     * @return false if the frame ran into a contradiction.
+     */
+    private boolean propagate(int offset) {
+        while (true) {
+            while (pendingCount > 0) {
+                int cell = pending[--pendingCount];
+                if (values[offset + cell] == 0) {
+                    long remaining = candidates[offset + cell];
+                    if (remaining == 0 || !assign(offset, cell, Long.numberOfTrailingZeros(remaining) + 1)) {
+                        return false;
+                    }
+                    stats.addPropagation();
+                }
+            }
+            int placed = placeHiddenSingles(offset);
+            if (placed < 0) {
+                return false;
+            }
+            if (placed == 0 && pendingCount == 0) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Places every digit that has a single possible cell in some unit.
+     * @param offset The start of the frame.
+     * @return The number of digits placed, or -1 on a contradiction.
+     */
+    private int placeHiddenSingles(int offset) {
+        int placedCount = 0;
+        for (int u = 0, units = geometry.getUnitCount(); u < units; u++) {
+            int[] unit = geometry.unit(u);
+            long once = 0;
+            long twice = 0;
+            long placed = 0;
+            for (int cell : unit) {
+                int value = values[offset + cell];
+                if (value != 0) {
+                    placed |= BoardGeometry.bit(value);
+                } else {
+                    long options = candidates[offset + cell];
+                    twice |= once & options;
+                    once |= options;
+                }
+            }
+            if ((once | placed) != all) {
+                return -1; // Some digit has nowhere to go in this unit
+            }
+            long hidden = once & ~twice & ~placed;
+            while (hidden != 0) {
+                long bit = hidden & -hidden;
+                hidden ^= bit;
+                int target = -1;
+                for (int cell : unit) {
+                    if (values[offset + cell] == 0 && (candidates[offset + cell] & bit) != 0) {
+                        target = cell;
+                        break;
+                    }
+                }
+                if (target < 0 || !assign(offset, target, Long.numberOfTrailingZeros(bit) + 1)) {
+                    return -1;
+                }
+                stats.addPropagation();
+                placedCount++;
+            }
+        }
+        return placedCount;
+    }
+
+    /**
+     * Places a digit in a cell and removes it from the candidates of its peers.
+     * Peers left with a single candidate are queued for propagation.
+     * @param offset The start of the frame.
+     * @param cell The cell index.
+     * @param digit The digit to place.
+     * @return false if a peer was left without candidates.
+     */
+    private boolean assign(int offset, int cell, int digit) {
+        long bit = BoardGeometry.bit(digit);
+        values[offset + cell] = digit;
+        candidates[offset + cell] = bit;
+        for (int peer : geometry.peers(cell)) {
+            int slot = offset + peer;
+            long options = candidates[slot];
+            if ((options & bit) != 0) {
+                options &= ~bit;
+                candidates[slot] = options;
+                if (values[slot] == 0) {
+                    if (options == 0) {
+                        return false;
+                    }
+                    if ((options & (options - 1)) == 0) {
+                        pending[pendingCount++] = peer;
+                    }
+                } else if (values[slot] == digit) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes sure the stacks have room for the given number of frames.
+     * @param frames The number of frames needed.
+     */
+    private void ensureFrames(int frames) {
+        if (frames * cells > values.length) {
+            int grown = Math.min(Math.max(frames, 2 * values.length / cells), cells + 1);
+            values = Arrays.copyOf(values, grown * cells);
+            candidates = Arrays.copyOf(candidates, grown * cells);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.sudoku.solver;
+
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.metrics.SolveEvent;
+import com.example.sudoku.model.BoardGeometry;
+
+/**
+ * Sudoku solver based on Knuth's Algorithm X with Dancing Links.
+ * The puzzle is modelled as an exact-cover problem with one row per
+ * (cell, digit) candidate and four column groups: every cell holds a digit,
+ * and every row, column and block holds every digit once.
+ * <p>
+ * The toroidal node matrix is stored in parallel int arrays that are built
+ * once per geometry in the constructor. A solve covers the givens, searches, and uncovers
+ * everything again, so the same matrix is reused by every call. The search
+ * always branches on the column with the fewest remaining rows, which keeps
+ * its cost stable on hard and adversarial boards. A {@link SearchBudget} is
+ * checked every time the search goes one level deeper. Every run is timed and
+ * recorded like those of {@link ConstraintSolver}, under its own metric names and
+ * with {@code DANCING_LINKS} in its {@link SolveEvent}. An instance is not thread-safe.
+ */
+public class DancingLinksSolver implements Solver {
+
+    private static final int ROOT = 0;
+    private static final Metrics.Timer SOLVE_TIME = Metrics.timer("solver.dlx.search");
+    private static final Metrics.Counter SOLVE_NODES = Metrics.counter("solver.dlx.nodes");
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cells;
+    private final int columnCount;
+    private final int rowCount;
+
+    // Node links; indices 1..columnCount are the column headers
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] candidate; // (cell * size + digit - 1) of each node
+    private final int[] columnSize; // Rows left in each column
+    private final boolean[] covered;
+    private final int[] rowStart;  // First node of each candidate row
+
+    private final int[] solution;
+    private final int[] firstSolution;
+    private int solutionCount;
+    private int solutionLimit;
+    private final int[] givenColumns;
+    private final SolverStats stats = new SolverStats();
+    private SearchBudget budget;
+    private SolveStatus stopped; // Why the budget stopped the last run, or null
+    private int budgetTicks;
+
+    /**
+     * Constructs the solver and preallocates its node matrix.
+     * @param geometry The block layout of the boards to solve.
+     */
+    public DancingLinksSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cells = geometry.getCells();
+        this.columnCount = 4 * cells;
+        this.rowCount = cells * size;
+        solution = new int[cells];
+        firstSolution = new int[cells];
+        givenColumns = new int[4 * cells];
+        int nodes = 1 + columnCount + 4 * rowCount;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        candidate = new int[nodes];
+        columnSize = new int[columnCount + 1];
+        covered = new boolean[columnCount + 1];
+        rowStart = new int[rowCount];
+        buildMatrix();
+    }
+
+    @Override
+    public boolean solve(int[] grid) {
+        if (run(grid, 1, null) == 0) {
+            return false;
+        }
+        copySolution(grid);
+        return true;
+    }
+
+    @Override
+    public int countSolutions(int[] grid, int limit) {
+        return run(grid, limit, null);
+    }
+
+    @Override
+    public SolveResult solve(int[] grid, SearchBudget budget) {
+        SolveResult result = SolveResult.of(run(grid, 1, budget), 1, stopped, stats);
+        if (result.isSolved()) {
+            copySolution(grid);
+        }
+        return result;
+    }
+
+    @Override
+    public SolveResult countSolutions(int[] grid, int limit, SearchBudget budget) {
+        return SolveResult.of(run(grid, limit, budget), limit, stopped, stats);
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Covers the givens, searches until {@code limit} covers are found or the
+     * matrix is exhausted, and restores the matrix.
+     * @param grid The board to search.
+     * @param limit The number of solutions after which the search stops.
+     * @param budget The limits of the search, or null for none.
+     * @return The number of solutions found.
+     */
+    private int run(int[] grid, int limit, SearchBudget budget) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long begin = Metrics.start();
+        stats.reset();
+        solutionCount = 0;
+        solutionLimit = limit;
+        this.budget = budget;
+        stopped = null;
+        budgetTicks = 0;
+        int givens = 0;
+        boolean consistent = true;
+        for (int cell = 0; cell < cells && consistent; cell++) {
+            int digit = grid[cell];
+            if (digit == 0) {
+                continue;
+            }
+            if (digit < 0 || digit > size) {
+                consistent = false; // Fuera de rango: no tiene fila propia en la matriz
+                break;
+            }
+            int start = rowStart[cell * size + digit - 1];
+            int node = start;
+            do {
+                if (covered[column[node]]) {
+                    consistent = false; // Two givens claim the same constraint
+                    break;
+                }
+                node = right[node];
+            } while (node != start);
+            if (consistent) {
+                node = start;
+                do {
+                    cover(column[node]);
+                    givenColumns[givens++] = column[node];
+                    node = right[node];
+                } while (node != start);
+            }
+        }
+
+        if (consistent && limit > 0) {
+            search();
+        }
+        this.budget = null;
+
+        // Restore the matrix for the next call
+        while (givens > 0) {
+            uncover(givenColumns[--givens]);
+        }
+        SOLVE_TIME.stop(begin);
+        SOLVE_NODES.add(stats.getNodes());
+        if (event.shouldCommit()) {
+            event.solver = "DANCING_LINKS";
+            event.geometry = geometry.toString();
+            event.limit = limit;
+            event.solutions = solutionCount;
+            event.nodes = stats.getNodes();
+            event.backtracks = stats.getBacktracks();
+            event.outcome = SolveResult.statusOf(solutionCount, limit, stopped).name();
+            event.commit();
+        }
+        return solutionCount;
+    }
+
+    /**
+     * Fills the empty cells of a board with the first solution found.
+     * @param grid The board that was searched.
+     */
+    private void copySolution(int[] grid) {
+        for (int cell = 0; cell < cells; cell++) {
+            if (grid[cell] == 0) {
+                grid[cell] = firstSolution[cell];
+            }
+        }
+    }
+
+    /**
+     * Builds the column headers and the four nodes of every candidate row.
+     */
+    private void buildMatrix() {
+        left[ROOT] = columnCount;
+        right[ROOT] = columnCount == 0 ? ROOT : 1;
+        for (int c = 1; c <= columnCount; c++) {
+            left[c] = c - 1;
+            right[c] = c == columnCount ? ROOT : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+
+        int node = columnCount + 1;
+        int[] columns = new int[4];
+        for (int cell = 0; cell < cells; cell++) {
+            int row = geometry.rowOf(cell);
+            int col = geometry.colOf(cell);
+            int block = geometry.blockOf(cell);
+            for (int d = 0; d < size; d++) {
+                int id = cell * size + d;
+                columns[0] = 1 + cell;
+                columns[1] = 1 + cells + row * size + d;
+                columns[2] = 1 + 2 * cells + col * size + d;
+                columns[3] = 1 + 3 * cells + block * size + d;
+                rowStart[id] = node;
+                for (int k = 0; k < 4; k++) {
+                    int header = columns[k];
+                    column[node] = header;
+                    candidate[node] = id;
+                    // Append at the bottom of the column
+                    up[node] = up[header];
+                    down[node] = header;
+                    down[up[header]] = node;
+                    up[header] = node;
+                    columnSize[header]++;
+                    // Link into the row ring
+                    left[node] = k == 0 ? node + 3 : node - 1;
+                    right[node] = k == 3 ? node - 3 : node + 1;
+                    node++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs Algorithm X on the uncovered part of the matrix. The digits of the
+     * rows on the current path are kept in {@link #solution}, and the first
+     * complete cover is copied to {@link #firstSolution}.
+     * @return true once the solution limit has been reached or the budget has run
+     *         out, and the search must stop.
+     */
+    private boolean search() {
+        if (budget != null && (stopped = budget.check(stats.getNodes(), budgetTicks++)) != null) {
+            return true;
+        }
+        if (right[ROOT] == ROOT) {
+            if (solutionCount++ == 0) {
+                System.arraycopy(solution, 0, firstSolution, 0, cells);
+            }
+            return solutionCount >= solutionLimit;
+        }
+
+        int chosen = right[ROOT];
+        for (int c = right[chosen]; c != ROOT && columnSize[chosen] > 1; c = right[c]) {
+            if (columnSize[c] < columnSize[chosen]) {
+                chosen = c;
+            }
+        }
+        if (columnSize[chosen] == 0) {
+            return false;
+        }
+
+        boolean forced = columnSize[chosen] == 1;
+        cover(chosen);
+        for (int row = down[chosen]; row != chosen; row = down[row]) {
+            if (forced) {
+                stats.addPropagation();
+            } else {
+                stats.addNode();
+            }
+            int id = candidate[row];
+            solution[id / size] = id % size + 1;
+            for (int node = right[row]; node != row; node = right[node]) {
+                cover(column[node]);
+            }
+            boolean stop = search();
+            for (int node = left[row]; node != row; node = left[node]) {
+                uncover(column[node]);
+            }
+            if (stop) {
+                uncover(chosen);
+                return true;
+            }
+            stats.addBacktrack();
+        }
+        uncover(chosen);
+        return false;
+    }
+
+    /**
+     * Removes a column and every row that intersects it.
+     * @param header The column header node.
+     */
+    private void cover(int header) {
+        covered[header] = true;
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+        for (int row = down[header]; row != header; row = down[row]) {
+            for (int node = right[row]; node != row; node = right[node]) {
+                down[up[node]] = down[node];
+                up[down[node]] = up[node];
+                columnSize[column[node]]--;
+            }
+        }
+    }
+
+    /**
+     * Restores a column removed by {@link #cover(int)}.
+     * @param header The column header node.
+     */
+    private void uncover(int header) {
+        for (int row = up[header]; row != header; row = up[row]) {
+            for (int node = left[row]; node != row; node = left[node]) {
+                columnSize[column[node]]++;
+                down[up[node]] = node;
+                up[down[node]] = node;
+            }
+        }
+        right[left[header]] = header;
+        left[right[header]] = header;
+        covered[header] = false;
+    }
+}
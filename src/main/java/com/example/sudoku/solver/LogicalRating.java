@@ -0,0 +1,103 @@
+package com.example.sudoku.solver;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of the last run of a {@link LogicalSolver}: whether the techniques
+ * were enough, which ones were used and how often, and the resulting score.
+ */
+public class LogicalRating {
+
+    /** Score of a puzzle the known techniques cannot finish (10.0). */
+    public static final int BEYOND_TECHNIQUES = 100;
+
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    private final int[] uses = new int[TECHNIQUES.length];
+    private Technique hardest;
+    private boolean solved;
+    private boolean contradiction;
+
+    /**
+     * Clears the rating before a new run.
+     */
+    void reset() {
+        Arrays.fill(uses, 0);
+        hardest = null;
+        solved = false;
+        contradiction = false;
+    }
+
+    void addUse(Technique technique) {
+        uses[technique.ordinal()]++;
+        if (hardest == null || technique.compareTo(hardest) > 0) {
+            hardest = technique;
+        }
+    }
+
+    void setSolved(boolean solved) { this.solved = solved; }
+
+    void setContradiction() { contradiction = true; }
+
+    /**
+     * Checks whether the techniques filled every cell.
+     * @return true if the puzzle was solved without guessing.
+     */
+    public boolean isSolved() { return solved; }
+
+    /**
+     * Checks whether the grid turned out to have no solution
+     * (a cell without candidates or a digit without a place in a unit).
+     * @return true if a contradiction was found.
+     */
+    public boolean hasContradiction() { return contradiction; }
+
+    /**
+     * Gets the hardest technique the run applied.
+     * @return The technique, or null if no step was needed.
+     */
+    public Technique getHardest() { return hardest; }
+
+    /**
+     * Counts how many times a technique was applied.
+     * @param technique The technique.
+     * @return The number of steps that used it.
+     */
+    public int getUses(Technique technique) { return uses[technique.ordinal()]; }
+
+    /**
+     * Counts all the steps of the run.
+     * @return The number of technique applications.
+     */
+    public int getSteps() {
+        int steps = 0;
+        for (int count : uses) {
+            steps += count;
+        }
+        return steps;
+    }
+
+    /**
+     * Gets the difficulty of the puzzle in tenths: the score of the hardest
+     * technique needed, 0 if nothing had to be done, or {@link #BEYOND_TECHNIQUES}
+     * if the techniques got stuck or hit a contradiction. It fits in a byte.
+     * @return The score.
+     */
+    public int getScore() {
+        if (!solved) {
+            return BEYOND_TECHNIQUES;
+        }
+        return hardest == null ? 0 : hardest.getScore();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("score=").append(getScore()).append(", solved=").append(solved);
+        for (Technique technique : TECHNIQUES) {
+            if (uses[technique.ordinal()] > 0) {
+                text.append(", ").append(technique).append('=').append(uses[technique.ordinal()]);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,575 @@
+package com.example.sudoku.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solves a Sudoku the way a player does, without guessing.
+ * Every empty cell keeps a bitmask of its candidates. At each step the solver
+ * applies the cheapest {@link Technique} that makes progress, so the hardest
+ * technique a puzzle needs is a good measure of how hard it feels to a player.
+ * When no technique applies the run stops and the puzzle is rated
+ * {@link LogicalRating#BEYOND_TECHNIQUES}.
+ * <p>
+ * Rating a puzzle with {@link #rate(int[])} does not allocate, so whole
+ * corpora can be rated quickly. Passing a list to {@link #solve(int[], List)}
+ * records every step with its explanation. An instance is not thread-safe.
+ */
+public class LogicalSolver {
+
+    private static final int MAX_SUBSET = 3;
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cells;
+    private final long all;
+
+    private final int[] values;
+    private final long[] candidates;
+    private int filled;
+    private boolean contradiction;
+    private final LogicalRating rating = new LogicalRating();
+    private List<LogicalStep> recorder;
+
+    // The step being built
+    private int stepUnit;
+    private int stepCell;
+    private int stepDigit;
+    private final int[] stepCells;
+    private final long[] stepMasks;
+    private int stepCount;
+
+    // Scratch space for the subset and fish searches
+    private final int[] members;
+    private final long[] memberMasks;
+    private final long[] memberDigits;
+    private final int[] subset = new int[MAX_SUBSET];
+    private final long[] lineMasks;
+
+    /**
+     * Constructs a solver for boards of the given geometry.
+     * @param geometry The block layout of the boards to solve.
+     */
+    public LogicalSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cells = geometry.getCells();
+        this.all = geometry.getAllDigits();
+        this.values = new int[cells];
+        this.candidates = new long[cells];
+        this.stepCells = new int[cells];
+        this.stepMasks = new long[cells];
+        this.members = new int[size];
+        this.memberMasks = new long[size];
+        this.memberDigits = new long[size];
+        this.lineMasks = new long[size];
+    }
+
+    /**
+     * Rates a puzzle. The grid is not modified.
+     * @param grid The puzzle in row-major order, 0 for empty cells.
+     * @return The rating of this run; the object is reused by the next run.
+     */
+    public LogicalRating rate(int[] grid) {
+        run(grid, null, Integer.MAX_VALUE);
+        return rating;
+    }
+
+    /**
+     * Applies techniques until the puzzle is solved or no technique applies,
+     * and writes the placed digits back into the grid.
+     * @param grid The puzzle in row-major order, 0 for empty cells.
+     * @param steps A list that receives every step, or null.
+     * @return The rating of this run; the object is reused by the next run.
+     */
+    public LogicalRating solve(int[] grid, List<LogicalStep> steps) {
+        if (run(grid, steps, Integer.MAX_VALUE)) {
+            System.arraycopy(values, 0, grid, 0, cells);
+        }
+        return rating;
+    }
+
+    /**
+     * Finds the cheapest step a player could take next on the given grid.
+     * @param grid The current board in row-major order, 0 for empty cells. It is not modified.
+     * @return The step, or null if the grid is full, contradictory or beyond the known techniques.
+     */
+    public LogicalStep nextStep(int[] grid) {
+        List<LogicalStep> steps = new ArrayList<>(1);
+        run(grid, steps, 1);
+        return steps.isEmpty() ? null : steps.get(0);
+    }
+
+    /**
+     * Gets the rating of the last run.
+     * @return The rating.
+     */
+    public LogicalRating getRating() {
+        return rating;
+    }
+
+    /**
+     * Runs the techniques on a copy of the grid.
+     * @return false if the givens already conflict.
+     */
+    private boolean run(int[] grid, List<LogicalStep> steps, int maxSteps) {
+        rating.reset();
+        recorder = steps;
+        contradiction = false;
+        if (!load(grid)) {
+            rating.setContradiction();
+            return false;
+        }
+        int taken = 0;
+        while (filled < cells && taken < maxSteps) {
+            Technique technique = nextTechnique();
+            if (contradiction) {
+                rating.setContradiction();
+                break;
+            }
+            if (technique == null) {
+                break;
+            }
+            rating.addUse(technique);
+            taken++;
+            if (recorder != null) {
+                recorder.add(new LogicalStep(technique, stepUnit, stepCell, stepDigit,
+                        Arrays.copyOf(stepCells, stepCount), Arrays.copyOf(stepMasks, stepCount)));
+            }
+        }
+        rating.setSolved(filled == cells && !contradiction);
+        recorder = null;
+        return true;
+    }
+
+    /**
+     * Applies the cheapest technique that makes progress.
+     * @return The technique applied, or null if none applies or a contradiction was found.
+     */
+    private Technique nextTechnique() {
+        if (hiddenSingle()) {
+            return Technique.HIDDEN_SINGLE;
+        }
+        if (contradiction) {
+            return null;
+        }
+        if (nakedSingle()) {
+            return Technique.NAKED_SINGLE;
+        }
+        if (contradiction) {
+            return null;
+        }
+        if (lockedCandidates()) {
+            return Technique.LOCKED_CANDIDATES;
+        }
+        if (nakedSubset(2)) {
+            return Technique.NAKED_PAIR;
+        }
+        if (xWing()) {
+            return Technique.X_WING;
+        }
+        if (hiddenSubset(2)) {
+            return Technique.HIDDEN_PAIR;
+        }
+        if (nakedSubset(3)) {
+            return Technique.NAKED_TRIPLE;
+        }
+        if (hiddenSubset(3)) {
+            return Technique.HIDDEN_TRIPLE;
+        }
+        return null;
+    }
+
+    /**
+     * Copies the grid and computes the candidates of every empty cell.
+     * @return false if two givens conflict.
+     */
+    private boolean load(int[] grid) {
+        filled = 0;
+        for (int i = 0; i < cells; i++) {
+            values[i] = grid[i];
+            if (grid[i] != 0) {
+                filled++;
+            }
+        }
+        for (int i = 0; i < cells; i++) {
+            if (values[i] != 0) {
+                candidates[i] = 0;
+                for (int peer : geometry.peers(i)) {
+                    if (values[peer] == values[i]) {
+                        return false;
+                    }
+                }
+                continue;
+            }
+            long mask = all;
+            for (int peer : geometry.peers(i)) {
+                if (values[peer] != 0) {
+                    mask &= ~BoardGeometry.bit(values[peer]);
+                }
+            }
+            candidates[i] = mask;
+        }
+        return true;
+    }
+
+    /**
+     * Places a digit as the current step and removes it from the peers.
+     */
+    private void place(int cell, int digit, int unit) {
+        stepUnit = unit;
+        stepCell = cell;
+        stepDigit = digit;
+        stepCount = 0;
+        values[cell] = digit;
+        candidates[cell] = 0;
+        filled++;
+        long bit = BoardGeometry.bit(digit);
+        for (int peer : geometry.peers(cell)) {
+            candidates[peer] &= ~bit;
+        }
+    }
+
+    /**
+     * Starts an elimination step.
+     */
+    private void beginEliminations(int unit, int digit) {
+        stepUnit = unit;
+        stepCell = -1;
+        stepDigit = digit;
+        stepCount = 0;
+    }
+
+    /**
+     * Removes candidates from a cell and records them in the current step.
+     */
+    private void eliminate(int cell, long mask) {
+        long removed = candidates[cell] & mask;
+        if (removed != 0) {
+            candidates[cell] ^= removed;
+            stepCells[stepCount] = cell;
+            stepMasks[stepCount++] = removed;
+        }
+    }
+
+    /**
+     * Places a digit that has a single possible cell in some unit.
+     * Also detects digits that have no place left.
+     */
+    private boolean hiddenSingle() {
+        for (int u = 0; u < geometry.getUnitCount(); u++) {
+            int[] unit = geometry.unit(u);
+            long once = 0;
+            long twice = 0;
+            long placed = 0;
+            for (int cell : unit) {
+                if (values[cell] != 0) {
+                    placed |= BoardGeometry.bit(values[cell]);
+                } else {
+                    twice |= once & candidates[cell];
+                    once |= candidates[cell];
+                }
+            }
+            if ((once | placed) != all) {
+                contradiction = true;
+                return false;
+            }
+            long hidden = once & ~twice;
+            if (hidden != 0) {
+                long bit = hidden & -hidden;
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) != 0) {
+                        place(cell, Long.numberOfTrailingZeros(bit) + 1, u);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Places the only candidate of a cell. Also detects cells without candidates.
+     */
+    private boolean nakedSingle() {
+        for (int i = 0; i < cells; i++) {
+            if (values[i] != 0) {
+                continue;
+            }
+            long mask = candidates[i];
+            if (mask == 0) {
+                contradiction = true;
+                return false;
+            }
+            if ((mask & (mask - 1)) == 0) {
+                place(i, Long.numberOfTrailingZeros(mask) + 1, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pointing: the candidates of a digit in a block all lie in one row or column,
+     * so the digit leaves the rest of that line. Claiming: the candidates of a digit
+     * in a line all lie in one block, so the digit leaves the rest of that block.
+     */
+    private boolean lockedCandidates() {
+        for (int block = 0; block < size; block++) {
+            int u = 2 * size + block;
+            int[] unit = geometry.unit(u);
+            long present = 0;
+            for (int cell : unit) {
+                present |= candidates[cell];
+            }
+            while (present != 0) {
+                long bit = present & -present;
+                present ^= bit;
+                int row = -1;
+                int col = -1;
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) == 0) {
+                        continue;
+                    }
+                    if (row == -1) {
+                        row = geometry.rowOf(cell);
+                        col = geometry.colOf(cell);
+                    } else {
+                        if (row != geometry.rowOf(cell)) {
+                            row = -2;
+                        }
+                        if (col != geometry.colOf(cell)) {
+                            col = -2;
+                        }
+                    }
+                }
+                if (row >= 0 && eliminateOutsideBlock(u, row, block, bit)) {
+                    return true;
+                }
+                if (col >= 0 && eliminateOutsideBlock(u, size + col, block, bit)) {
+                    return true;
+                }
+            }
+        }
+        for (int u = 0; u < 2 * size; u++) {
+            int[] unit = geometry.unit(u);
+            long present = 0;
+            for (int cell : unit) {
+                present |= candidates[cell];
+            }
+            while (present != 0) {
+                long bit = present & -present;
+                present ^= bit;
+                int block = -1;
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) != 0) {
+                        block = block == -1 || block == geometry.blockOf(cell) ? geometry.blockOf(cell) : -2;
+                    }
+                }
+                if (block < 0) {
+                    continue;
+                }
+                beginEliminations(u, Long.numberOfTrailingZeros(bit) + 1);
+                for (int cell : geometry.unit(2 * size + block)) {
+                    if (!inLine(cell, u)) {
+                        eliminate(cell, bit);
+                    }
+                }
+                if (stepCount > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean eliminateOutsideBlock(int blockUnit, int line, int block, long bit) {
+        beginEliminations(blockUnit, Long.numberOfTrailingZeros(bit) + 1);
+        for (int cell : geometry.unit(line)) {
+            if (geometry.blockOf(cell) != block) {
+                eliminate(cell, bit);
+            }
+        }
+        return stepCount > 0;
+    }
+
+    private boolean inLine(int cell, int line) {
+        return line < size ? geometry.rowOf(cell) == line : geometry.colOf(cell) == line - size;
+    }
+
+    /**
+     * Naked subset: k cells of a unit whose candidates are k digits in total,
+     * so those digits leave the other cells of the unit.
+     */
+    private boolean nakedSubset(int k) {
+        for (int u = 0; u < geometry.getUnitCount(); u++) {
+            int[] unit = geometry.unit(u);
+            int empty = 0;
+            int count = 0;
+            for (int cell : unit) {
+                if (values[cell] != 0) {
+                    continue;
+                }
+                empty++;
+                int bits = Long.bitCount(candidates[cell]);
+                if (bits >= 2 && bits <= k) {
+                    members[count] = cell;
+                    memberMasks[count++] = candidates[cell];
+                }
+            }
+            if (empty > k && count >= k && nakedSubset(u, unit, k, count, 0, 0, 0L)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean nakedSubset(int u, int[] unit, int k, int count, int start, int depth, long union) {
+        if (depth == k) {
+            if (Long.bitCount(union) != k) {
+                return false;
+            }
+            beginEliminations(u, 0);
+            for (int cell : unit) {
+                if (values[cell] == 0 && !inSubset(cell, k)) {
+                    eliminate(cell, union);
+                }
+            }
+            return stepCount > 0;
+        }
+        for (int n = start; n <= count - (k - depth); n++) {
+            long next = union | memberMasks[n];
+            if (Long.bitCount(next) > k) {
+                continue;
+            }
+            subset[depth] = members[n];
+            if (nakedSubset(u, unit, k, count, n + 1, depth + 1, next)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean inSubset(int cell, int k) {
+        for (int n = 0; n < k; n++) {
+            if (subset[n] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hidden subset: k digits of a unit that can only go in the same k cells,
+     * so those cells lose every other candidate.
+     */
+    private boolean hiddenSubset(int k) {
+        for (int u = 0; u < geometry.getUnitCount(); u++) {
+            int[] unit = geometry.unit(u);
+            long open = 0;
+            for (int cell : unit) {
+                open |= candidates[cell];
+            }
+            if (Long.bitCount(open) <= k) {
+                continue;
+            }
+            int count = 0;
+            while (open != 0) {
+                long bit = open & -open;
+                open ^= bit;
+                // Posiciones del dígito dentro de la unidad
+                long positions = 0;
+                for (int n = 0; n < unit.length; n++) {
+                    if ((candidates[unit[n]] & bit) != 0) {
+                        positions |= 1L << n;
+                    }
+                }
+                int places = Long.bitCount(positions);
+                if (places >= 2 && places <= k) {
+                    memberDigits[count] = bit;
+                    memberMasks[count++] = positions;
+                }
+            }
+            if (count >= k && hiddenSubset(u, unit, k, count, 0, 0, 0L, 0L)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenSubset(int u, int[] unit, int k, int count, int start, int depth, long positions, long digits) {
+        if (depth == k) {
+            if (Long.bitCount(positions) != k) {
+                return false;
+            }
+            beginEliminations(u, 0);
+            for (long rest = positions; rest != 0; rest &= rest - 1) {
+                eliminate(unit[Long.numberOfTrailingZeros(rest)], ~digits);
+            }
+            return stepCount > 0;
+        }
+        for (int n = start; n <= count - (k - depth); n++) {
+            long next = positions | memberMasks[n];
+            if (Long.bitCount(next) > k) {
+                continue;
+            }
+            if (hiddenSubset(u, unit, k, count, n + 1, depth + 1, next, digits | memberDigits[n])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * X-wing: a digit that fits in exactly the same two columns of two rows
+     * leaves those columns in every other row (and the same with rows and
+     * columns swapped).
+     */
+    private boolean xWing() {
+        for (int digit = 1; digit <= size; digit++) {
+            long bit = BoardGeometry.bit(digit);
+            if (xWing(bit, digit, true) || xWing(bit, digit, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean xWing(long bit, int digit, boolean byRows) {
+        for (int line = 0; line < size; line++) {
+            long mask = 0;
+            for (int other = 0; other < size; other++) {
+                int cell = byRows ? geometry.index(line, other) : geometry.index(other, line);
+                if ((candidates[cell] & bit) != 0) {
+                    mask |= 1L << other;
+                }
+            }
+            lineMasks[line] = mask;
+        }
+        for (int first = 0; first < size; first++) {
+            if (Long.bitCount(lineMasks[first]) != 2) {
+                continue;
+            }
+            for (int second = first + 1; second < size; second++) {
+                if (lineMasks[second] != lineMasks[first]) {
+                    continue;
+                }
+                beginEliminations(-1, digit);
+                for (long cross = lineMasks[first]; cross != 0; cross &= cross - 1) {
+                    int across = Long.numberOfTrailingZeros(cross);
+                    for (int line = 0; line < size; line++) {
+                        if (line != first && line != second) {
+                            eliminate(byRows ? geometry.index(line, across) : geometry.index(across, line), bit);
+                        }
+                    }
+                }
+                if (stepCount > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
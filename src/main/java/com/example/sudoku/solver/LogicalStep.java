@@ -0,0 +1,149 @@
+package com.example.sudoku.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+
+/**
+ * One application of a {@link Technique}: either a digit placed in a cell or
+ * a set of candidates removed from some cells. Steps are immutable.
+ */
+public final class LogicalStep {
+
+    private final Technique technique;
+    private final int unit;
+    private final int cell;
+    private final int digit;
+    private final int[] eliminationCells;
+    private final long[] eliminationMasks;
+
+    /**
+     * Constructs a step.
+     * @param technique The technique applied.
+     * @param unit The unit where the pattern was found (see {@link BoardGeometry#unit(int)}),
+     *             or -1 if it involves several units.
+     * @param cell The cell that received a digit, or -1 for an elimination step.
+     * @param digit The digit placed, or the digit the pattern is about, or 0.
+     * @param eliminationCells The cells that lost candidates; owned by the step.
+     * @param eliminationMasks The candidates removed from each of those cells; owned by the step.
+     */
+    LogicalStep(Technique technique, int unit, int cell, int digit, int[] eliminationCells, long[] eliminationMasks) {
+        this.technique = technique;
+        this.unit = unit;
+        this.cell = cell;
+        this.digit = digit;
+        this.eliminationCells = eliminationCells;
+        this.eliminationMasks = eliminationMasks;
+    }
+
+    /**
+     * Gets the technique applied.
+     * @return The technique.
+     */
+    public Technique getTechnique() { return technique; }
+
+    /**
+     * Gets the unit where the pattern was found.
+     * @return The unit number, or -1 if the pattern spans several units.
+     */
+    public int getUnit() { return unit; }
+
+    /**
+     * Gets the cell that received a digit.
+     * @return The cell index, or -1 if the step only removes candidates.
+     */
+    public int getCell() { return cell; }
+
+    /**
+     * Checks whether the step places a digit.
+     * @return true for singles, false for elimination steps.
+     */
+    public boolean isPlacement() { return cell >= 0; }
+
+    /**
+     * Gets the digit placed, or the digit an elimination pattern is about.
+     * @return The digit, or 0 for patterns on several digits.
+     */
+    public int getDigit() { return digit; }
+
+    /**
+     * Counts the cells that lost candidates.
+     * @return The number of cells.
+     */
+    public int getEliminationCount() { return eliminationCells.length; }
+
+    /**
+     * Gets a cell that lost candidates.
+     * @param n The position, below {@link #getEliminationCount()}.
+     * @return The cell index.
+     */
+    public int getEliminationCell(int n) { return eliminationCells[n]; }
+
+    /**
+     * Gets the candidates a cell lost.
+     * @param n The position, below {@link #getEliminationCount()}.
+     * @return A digit mask of the removed candidates.
+     */
+    public long getEliminationMask(int n) { return eliminationMasks[n]; }
+
+    /**
+     * Explains the step to the player.
+     * @param geometry The block layout of the board.
+     * @return A short sentence in Spanish.
+     */
+    public String describe(BoardGeometry geometry) {
+        StringBuilder text = new StringBuilder(technique.getDisplayName());
+        if (unit >= 0) {
+            text.append(" en ").append(unitName(geometry, unit));
+        }
+        text.append(": ");
+        if (isPlacement()) {
+            text.append("la celda ").append(cellName(geometry, cell)).append(" debe ser ")
+                    .append(BoardGeometry.symbol(digit)).append('.');
+            return text.toString();
+        }
+        if (digit != 0) {
+            text.append("el ").append(BoardGeometry.symbol(digit)).append(" se descarta en");
+        } else {
+            text.append("se descartan candidatos en");
+        }
+        for (int n = 0; n < eliminationCells.length; n++) {
+            text.append(n == 0 ? " " : ", ").append(cellName(geometry, eliminationCells[n]));
+            if (digit == 0) {
+                text.append(" (").append(digits(eliminationMasks[n])).append(')');
+            }
+        }
+        return text.append('.').toString();
+    }
+
+    @Override
+    public String toString() {
+        return technique + (isPlacement() ? " r" + cell + "=" + digit : " eliminations=" + eliminationCells.length);
+    }
+
+    private static String cellName(BoardGeometry geometry, int cell) {
+        return "(" + (geometry.rowOf(cell) + 1) + ", " + (geometry.colOf(cell) + 1) + ")";
+    }
+
+    private static String unitName(BoardGeometry geometry, int unit) {
+        int size = geometry.getSize();
+        if (unit < size) {
+            return "la fila " + (unit + 1);
+        }
+        if (unit < 2 * size) {
+            return "la columna " + (unit - size + 1);
+        }
+        return "el bloque " + (unit - 2 * size + 1);
+    }
+
+    private static String digits(long mask) {
+        StringBuilder text = new StringBuilder();
+        while (mask != 0) {
+            long bit = mask & -mask;
+            mask ^= bit;
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(BoardGeometry.symbol(Long.numberOfTrailingZeros(bit) + 1));
+        }
+        return text.toString();
+    }
+}
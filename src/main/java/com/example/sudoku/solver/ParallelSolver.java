@@ -0,0 +1,305 @@
+package com.example.sudoku.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Work-stealing parallel solver for large boards.
+ * The search tree is propagated and split at its shallow branch points: every
+ * candidate of the most constrained cell becomes a {@link RecursiveAction} on a
+ * {@link ForkJoinPool}. Below the split depth each task runs the sequential
+ * {@link ConstraintSolver} of its worker thread. All tasks of a run share a stop
+ * flag, raised as soon as the solution limit is reached, which makes the
+ * sibling searches return at their next node.
+ * <p>
+ * Boards of up to {@value #SEQUENTIAL_MAX_SIZE} digits are solved on the calling
+ * thread, where forking would cost more than the search itself. Like every
+ * {@link Solver}, an instance serves one call at a time.
+ * <p>
+ * A {@link SearchBudget} is shared by every task of a run: its deadline and
+ * cancellation flag stop all of them, and each leaf search gets the nodes the
+ * run had left when it started. Leaf searches running side by side may
+ * therefore go past the node limit by what they use at the same time.
+ */
+public class ParallelSolver implements Solver {
+
+    /** Largest board size that is always solved on the calling thread. */
+    public static final int SEQUENTIAL_MAX_SIZE = 9;
+    private static final int DEFAULT_SPLIT_DEPTH = 4;
+
+    private final BoardGeometry geometry;
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final ConstraintSolver sequential;
+    private final ThreadLocal<ConstraintSolver> workerSolvers;
+    private final SolverStats stats = new SolverStats();
+
+    /**
+     * Constructs a parallel solver on the common fork/join pool.
+     * @param geometry The block layout of the boards to solve.
+     */
+    public ParallelSolver(BoardGeometry geometry) {
+        this(geometry, ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * Constructs a parallel solver.
+     * @param geometry The block layout of the boards to solve.
+     * @param pool The pool that runs the search tasks.
+     * @param splitDepth How many levels of the search tree are split into tasks.
+     */
+    public ParallelSolver(BoardGeometry geometry, ForkJoinPool pool, int splitDepth) {
+        this.geometry = geometry;
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.sequential = new ConstraintSolver(geometry);
+        this.workerSolvers = ThreadLocal.withInitial(() -> new ConstraintSolver(geometry));
+    }
+
+    @Override
+    public boolean solve(int[] grid) {
+        return solveWithin(grid, null).isSolved();
+    }
+
+    @Override
+    public int countSolutions(int[] grid, int limit) {
+        return countWithin(grid, limit, null).getSolutions();
+    }
+
+    @Override
+    public SolveResult solve(int[] grid, SearchBudget budget) {
+        return solveWithin(grid, budget);
+    }
+
+    @Override
+    public SolveResult countSolutions(int[] grid, int limit, SearchBudget budget) {
+        return countWithin(grid, limit, budget);
+    }
+
+    /**
+     * Solves a board in place.
+     * @param grid The board; filled with the solution when one is found.
+     * @param budget The limits of the search, or null for none.
+     * @return How the search ended.
+     */
+    private SolveResult solveWithin(int[] grid, SearchBudget budget) {
+        if (isSequential()) {
+            SolveResult result = budget == null
+                    ? SolveResult.of(sequential.solve(grid) ? 1 : 0, 1, null, sequential.getStats())
+                    : sequential.solve(grid, budget);
+            copyStats(sequential.getStats());
+            return result;
+        }
+        Run run = new Run(1, budget);
+        pool.invoke(new SearchTask(run, grid.clone(), 0));
+        finish(run);
+        SolveResult result = run.result();
+        if (result.isSolved()) {
+            int[] solution = run.solution.get();
+            System.arraycopy(solution, 0, grid, 0, solution.length);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the solutions of a board.
+     * @param grid The board; it is not modified.
+     * @param limit The number of solutions after which the search stops.
+     * @param budget The limits of the search, or null for none.
+     * @return How the search ended, with the count.
+     */
+    private SolveResult countWithin(int[] grid, int limit, SearchBudget budget) {
+        if (isSequential()) {
+            SolveResult result = budget == null
+                    ? SolveResult.of(sequential.countSolutions(grid, limit), limit, null, sequential.getStats())
+                    : sequential.countSolutions(grid, limit, budget);
+            copyStats(sequential.getStats());
+            return result;
+        }
+        if (limit <= 0) {
+            stats.reset();
+            return SolveResult.of(0, limit, null, stats);
+        }
+        Run run = new Run(limit, budget);
+        pool.invoke(new SearchTask(run, grid.clone(), 0));
+        finish(run);
+        return run.result();
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Checks whether boards of this geometry skip the fork/join machinery.
+     * @return true for small boards.
+     */
+    private boolean isSequential() {
+        return geometry.getSize() <= SEQUENTIAL_MAX_SIZE || splitDepth <= 0;
+    }
+
+    private void copyStats(SolverStats source) {
+        stats.reset();
+        stats.add(source);
+    }
+
+    private void finish(Run run) {
+        stats.reset();
+        stats.add(run.stats);
+    }
+
+    /**
+     * State shared by every task of one solve or count call.
+     */
+    private static final class Run {
+        final int limit;
+        final SearchBudget budget; // null for none
+        final AtomicInteger found = new AtomicInteger();
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicReference<int[]> solution = new AtomicReference<>();
+        final AtomicReference<SolveStatus> stopped = new AtomicReference<>();
+        final SolverStats stats = new SolverStats();
+
+        Run(int limit, SearchBudget budget) {
+            this.limit = limit;
+            this.budget = budget;
+        }
+
+        /**
+         * Stops every task because the budget ran out or was cancelled.
+         * @param why The reason.
+         */
+        void halt(SolveStatus why) {
+            stopped.compareAndSet(null, why);
+            stop.set(true);
+        }
+
+        /**
+         * Gets the budget of a leaf search: the run's, with the nodes it has left.
+         * @return The budget of the next leaf search.
+         */
+        SearchBudget leafBudget() {
+            return budget.withNodes(Math.max(0, budget.getMaxNodes() - nodesUsed()));
+        }
+
+        long nodesUsed() {
+            synchronized (stats) {
+                return stats.getNodes();
+            }
+        }
+
+        SolveResult result() {
+            return SolveResult.of(found.get(), limit, stopped.get(), stats);
+        }
+
+        /**
+         * Records solutions found by a task and raises the stop flag once
+         * the limit is reached.
+         * @param count The number of solutions found.
+         * @param first The first of them, or null if none was found.
+         */
+        void report(int count, int[] first) {
+            if (count == 0) {
+                return;
+            }
+            solution.compareAndSet(null, first);
+            if (found.addAndGet(count) >= limit) {
+                stop.set(true);
+            }
+        }
+
+        void addStats(SolverStats taskStats) {
+            synchronized (stats) {
+                stats.add(taskStats);
+            }
+        }
+    }
+
+    /**
+     * Searches the subtree below a partially filled board.
+     */
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Run run;
+        private final int[] grid;
+        private final int depth;
+
+        SearchTask(Run run, int[] grid, int depth) {
+            this.run = run;
+            this.grid = grid;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (run.stop.get()) {
+                return;
+            }
+            if (run.budget != null) {
+                SolveStatus why = run.budget.check(run.nodesUsed(), 0);
+                if (why != null) {
+                    run.halt(why);
+                    return;
+                }
+            }
+            ConstraintSolver solver = workerSolvers.get();
+            if (depth >= splitDepth) {
+                int remaining = run.limit - run.found.get();
+                if (remaining <= 0) {
+                    return;
+                }
+                solver.setCancelFlag(run.stop);
+                try {
+                    int count;
+                    if (run.budget == null) {
+                        count = solver.countSolutions(grid, remaining);
+                    } else {
+                        SolveResult result = solver.countSolutions(grid, remaining, run.leafBudget());
+                        count = result.getSolutions();
+                        if (!result.getStatus().isComplete()) {
+                            run.halt(result.getStatus());
+                        }
+                    }
+                    int[] first = null;
+                    if (count > 0) {
+                        first = new int[grid.length];
+                        solver.copyFirstSolution(first);
+                    }
+                    run.report(count, first);
+                } finally {
+                    solver.setCancelFlag(null);
+                    run.addStats(solver.getStats());
+                }
+                return;
+            }
+
+            int cell = solver.expand(grid);
+            run.addStats(solver.getStats());
+            if (cell == -2) {
+                return;
+            }
+            if (cell == -1) {
+                run.report(1, grid);
+                return;
+            }
+            long options = solver.candidatesOf(cell);
+            List<SearchTask> children = new ArrayList<>(Long.bitCount(options));
+            while (options != 0) {
+                long bit = options & -options;
+                options ^= bit;
+                int[] child = grid.clone();
+                child[cell] = Long.numberOfTrailingZeros(bit) + 1;
+                children.add(new SearchTask(run, child, depth + 1));
+            }
+            invokeAll(children);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.sudoku.solver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits on one search: a number of branch nodes, a deadline and a
+ * cancellation flag, any of which may be absent. A solver checks its budget at
+ * every node and stops with {@link SolveStatus#BUDGET_EXHAUSTED} or
+ * {@link SolveStatus#CANCELLED} as soon as it runs out, so a caller can put a
+ * hard ceiling on a search whatever board it gets.
+ * <p>
+ * The node limit applies to each solve or count on its own; the deadline is a
+ * point in time, so one budget shared by several searches bounds them all
+ * together. Budgets are immutable; the {@code with} methods return new ones.
+ */
+public final class SearchBudget {
+
+    /** No limit at all. */
+    public static final SearchBudget UNLIMITED = new SearchBudget(Long.MAX_VALUE, false, 0, null);
+
+    // The clock is read once every so many checks, since System.nanoTime() costs more than a node check
+    private static final int CLOCK_INTERVAL = 256;
+
+    private final long maxNodes;
+    private final boolean hasDeadline;
+    private final long deadlineNanos;
+    private final AtomicBoolean cancelFlag;
+
+    private SearchBudget(long maxNodes, boolean hasDeadline, long deadlineNanos, AtomicBoolean cancelFlag) {
+        this.maxNodes = maxNodes;
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanos = deadlineNanos;
+        this.cancelFlag = cancelFlag;
+    }
+
+    /**
+     * Creates a budget limited to a number of branch nodes per search.
+     * @param maxNodes The largest number of nodes a search may visit.
+     * @return The budget.
+     */
+    public static SearchBudget ofNodes(long maxNodes) {
+        return UNLIMITED.withNodes(maxNodes);
+    }
+
+    /**
+     * Creates a budget that runs out a given time from now.
+     * @param millis The time allowed, in milliseconds.
+     * @return The budget.
+     */
+    public static SearchBudget ofMillis(long millis) {
+        return UNLIMITED.withMillis(millis);
+    }
+
+    /**
+     * Copies this budget with a limit on the nodes of each search.
+     * @param nodes The largest number of nodes a search may visit.
+     * @return The new budget.
+     */
+    public SearchBudget withNodes(long nodes) {
+        if (nodes < 0) {
+            throw new IllegalArgumentException("Node limit must not be negative: " + nodes);
+        }
+        return new SearchBudget(nodes, hasDeadline, deadlineNanos, cancelFlag);
+    }
+
+    /**
+     * Copies this budget with a deadline a given time from now, or keeps the
+     * current deadline if it comes first.
+     * @param millis The time allowed, in milliseconds.
+     * @return The new budget.
+     */
+    public SearchBudget withMillis(long millis) {
+        return withDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Copies this budget with a deadline, or keeps the current deadline if it comes first.
+     * @param deadline The deadline, as a {@link System#nanoTime()} value.
+     * @return The new budget.
+     */
+    public SearchBudget withDeadline(long deadline) {
+        long earliest = hasDeadline && deadlineNanos - deadline < 0 ? deadlineNanos : deadline;
+        return new SearchBudget(maxNodes, true, earliest, cancelFlag);
+    }
+
+    /**
+     * Copies this budget with a cancellation flag. Raising the flag from any
+     * thread stops the searches using the budget at their next node.
+     * @param flag The flag, or null for none.
+     * @return The new budget.
+     */
+    public SearchBudget withCancelFlag(AtomicBoolean flag) {
+        return new SearchBudget(maxNodes, hasDeadline, deadlineNanos, flag);
+    }
+
+    /**
+     * Gets the node limit of each search.
+     * @return The limit, or {@link Long#MAX_VALUE} for none.
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     * @return true if the budget has a deadline and it is over.
+     */
+    public boolean isExpired() {
+        return hasDeadline && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Checks whether the cancellation flag has been raised.
+     * @return true if the searches must stop.
+     */
+    public boolean isCancelled() {
+        return cancelFlag != null && cancelFlag.get();
+    }
+
+    /**
+     * Checks the budget from inside a search.
+     * @param nodes The nodes the search has visited so far.
+     * @param tick A counter the solver bumps on every check; the clock is read
+     *             only when it is a multiple of {@value #CLOCK_INTERVAL}.
+     * @return Why the search must stop, or null to go on.
+     */
+    SolveStatus check(long nodes, int tick) {
+        if (cancelFlag != null && cancelFlag.get()) {
+            return SolveStatus.CANCELLED;
+        }
+        if (nodes >= maxNodes || hasDeadline && tick % CLOCK_INTERVAL == 0 && isExpired()) {
+            return SolveStatus.BUDGET_EXHAUSTED;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchBudget[nodes=" + (maxNodes == Long.MAX_VALUE ? "unlimited" : maxNodes)
+                + (hasDeadline ? ", deadline in " + (deadlineNanos - System.nanoTime()) / 1_000_000 + " ms" : "")
+                + (cancelFlag != null ? ", cancellable" : "") + "]";
+    }
+}
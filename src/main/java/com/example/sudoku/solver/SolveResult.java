@@ -0,0 +1,95 @@
+package com.example.sudoku.solver;
+
+/**
+ * The outcome of a budgeted solve or count: how the search ended, the
+ * solutions found before it ended and the statistics of the nodes it visited.
+ * A search stopped by its budget keeps the partial statistics, so callers can
+ * see how far it got. Instances are immutable.
+ */
+public final class SolveResult {
+
+    private final SolveStatus status;
+    private final int solutions;
+    private final SolverStats stats = new SolverStats();
+
+    /**
+     * Constructs a result.
+     * @param status How the search ended.
+     * @param solutions The number of solutions found.
+     * @param stats The statistics of the run; they are copied.
+     */
+    SolveResult(SolveStatus status, int solutions, SolverStats stats) {
+        this.status = status;
+        this.solutions = solutions;
+        this.stats.add(stats);
+    }
+
+    /**
+     * Builds the result of a run from its counts.
+     * @param solutions The number of solutions found.
+     * @param limit The number of solutions after which the search stops.
+     * @param stopped Why the budget stopped the search, or null if it did not.
+     * @param stats The statistics of the run.
+     * @return The result.
+     */
+    static SolveResult of(int solutions, int limit, SolveStatus stopped, SolverStats stats) {
+        return new SolveResult(statusOf(solutions, limit, stopped), Math.min(solutions, limit), stats);
+    }
+
+    /**
+     * Tells how a run ended from its counts. Reaching the limit wins over the
+     * budget; a count that ran out of budget after finding some solutions did
+     * not reach a definite answer.
+     * @param solutions The number of solutions found.
+     * @param limit The number of solutions after which the search stops.
+     * @param stopped Why the budget stopped the search, or null if it did not.
+     * @return The status.
+     */
+    static SolveStatus statusOf(int solutions, int limit, SolveStatus stopped) {
+        if (limit > 0 && solutions >= limit) {
+            return SolveStatus.SOLVED;
+        }
+        if (stopped != null) {
+            return stopped;
+        }
+        return solutions > 0 ? SolveStatus.SOLVED : SolveStatus.UNSOLVABLE;
+    }
+
+    /**
+     * Gets how the search ended.
+     * @return The status.
+     */
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks whether a solution was found and the search reached a definite answer.
+     * @return true if the status is {@link SolveStatus#SOLVED}.
+     */
+    public boolean isSolved() {
+        return status == SolveStatus.SOLVED;
+    }
+
+    /**
+     * Gets the number of solutions found. When the budget ran out this is a
+     * lower bound.
+     * @return The count, never more than the limit of the search.
+     */
+    public int getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * Gets the statistics of the search, up to where it stopped.
+     * @return A copy of the solver statistics.
+     */
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return status + " (" + solutions + " solutions, " + stats + ")";
+    }
+}
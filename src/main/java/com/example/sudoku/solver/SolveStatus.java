@@ -0,0 +1,24 @@
+package com.example.sudoku.solver;
+
+/**
+ * How a budgeted search ended (see {@link SolveResult}).
+ */
+public enum SolveStatus {
+
+    /** The search found a solution; a count reached its limit or ran to the end with at least one. */
+    SOLVED,
+    /** The whole search space was explored without a solution. */
+    UNSOLVABLE,
+    /** The node limit or the deadline of the {@link SearchBudget} ran out first. */
+    BUDGET_EXHAUSTED,
+    /** The cancellation flag of the {@link SearchBudget} was raised. */
+    CANCELLED;
+
+    /**
+     * Checks whether the search reached a definite answer.
+     * @return true for {@link #SOLVED} and {@link #UNSOLVABLE}.
+     */
+    public boolean isComplete() {
+        return this == SOLVED || this == UNSOLVABLE;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.sudoku.solver;
+
+/**
+ * Service interface for Sudoku solving engines.
+ * Boards are passed as flat row-major arrays where 0 marks an empty cell.
+ * Implementations are bound to one board geometry and are not thread-safe;
+ * use one instance per thread.
+ * <p>
+ * The plain methods search until they have an answer. Callers that must answer
+ * within a bounded time, such as hints or uniqueness checks, use the overloads
+ * that take a {@link SearchBudget} and get a {@link SolveResult} back.
+ */
+public interface Solver {
+
+    /**
+     * Solves a board in place.
+     * @param grid The board in row-major order (0 for empty). On success it
+     *             is filled with the solution; otherwise it is left untouched.
+     * @return true if a solution was found, false if the board is unsolvable.
+     */
+    boolean solve(int[] grid);
+
+    /**
+     * Counts the solutions of a board, stopping as soon as {@code limit} is reached.
+     * A limit of 2 is enough to tell whether a puzzle has a unique solution.
+     * @param grid The board in row-major order (0 for empty). It is not modified.
+     * @param limit The number of solutions after which the search stops.
+     * @return The number of solutions found, never more than {@code limit}.
+     */
+    int countSolutions(int[] grid, int limit);
+
+    /**
+     * Solves a board in place within a budget.
+     * @param grid The board in row-major order (0 for empty). It is filled with
+     *             the solution when the status is {@link SolveStatus#SOLVED};
+     *             otherwise it is left untouched.
+     * @param budget The limits of the search.
+     * @return How the search ended, with its statistics.
+     */
+    SolveResult solve(int[] grid, SearchBudget budget);
+
+    /**
+     * Counts the solutions of a board within a budget, stopping as soon as
+     * {@code limit} is reached.
+     * @param grid The board in row-major order (0 for empty). It is not modified.
+     * @param limit The number of solutions after which the search stops.
+     * @param budget The limits of the search.
+     * @return How the search ended; the count is exact unless the budget ran out.
+     */
+    SolveResult countSolutions(int[] grid, int limit, SearchBudget budget);
+
+    /**
+     * Gets the statistics of the last solve or count run.
+     * @return The search statistics.
+     */
+    SolverStats getStats();
+}
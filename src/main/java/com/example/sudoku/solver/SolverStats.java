@@ -0,0 +1,59 @@
+package com.example.sudoku.solver;
+
+/**
+ * Search statistics collected by a solver during its last run.
+ */
+public class SolverStats {
+
+    private long nodes;
+    private long propagations;
+    private long backtracks;
+
+    /**
+     * Clears all counters before a new run.
+     */
+    void reset() {
+        nodes = 0;
+        propagations = 0;
+        backtracks = 0;
+    }
+
+    void addNode() { nodes++; }
+
+    void addPropagation() { propagations++; }
+
+    void addBacktrack() { backtracks++; }
+
+    /**
+     * Adds the counters of another run to this one.
+     * @param other The statistics to add.
+     */
+    void add(SolverStats other) {
+        nodes += other.nodes;
+        propagations += other.propagations;
+        backtracks += other.backtracks;
+    }
+
+    /**
+     * Gets the number of branch points the search tried.
+     * @return The visited node count.
+     */
+    public long getNodes() { return nodes; }
+
+    /**
+     * Gets the number of values placed by propagation (naked and hidden singles).
+     * @return The propagation count.
+     */
+    public long getPropagations() { return propagations; }
+
+    /**
+     * Gets the number of times the search had to undo a branch.
+     * @return The backtrack count.
+     */
+    public long getBacktracks() { return backtracks; }
+
+    @Override
+    public String toString() {
+        return "nodes=" + nodes + ", propagations=" + propagations + ", backtracks=" + backtracks;
+    }
+}
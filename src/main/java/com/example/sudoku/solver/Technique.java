@@ -0,0 +1,50 @@
+package com.example.sudoku.solver;
+
+/**
+ * Human solving techniques known to the {@link LogicalSolver}, in the order
+ * it tries them. Each technique has a score in tenths on the usual 1.0 to 4.0
+ * player-difficulty scale; a puzzle is as hard as the hardest technique it needs.
+ */
+public enum Technique {
+
+    /** A digit has a single possible cell in a row, column or block. */
+    HIDDEN_SINGLE(12, "Único oculto"),
+    /** A cell has a single candidate left. */
+    NAKED_SINGLE(23, "Único desnudo"),
+    /** The candidates of a digit in a unit all lie in one intersecting unit. */
+    LOCKED_CANDIDATES(26, "Candidatos bloqueados"),
+    /** Two cells of a unit share the same two candidates. */
+    NAKED_PAIR(30, "Pareja desnuda"),
+    /** A digit appears twice in each of two rows, in the same two columns (or the reverse). */
+    X_WING(32, "X-Wing"),
+    /** Two digits of a unit can only go in the same two cells. */
+    HIDDEN_PAIR(34, "Pareja oculta"),
+    /** Three cells of a unit hold only three candidates between them. */
+    NAKED_TRIPLE(36, "Trío desnudo"),
+    /** Three digits of a unit can only go in the same three cells. */
+    HIDDEN_TRIPLE(40, "Trío oculto");
+
+    private final int score;
+    private final String displayName;
+
+    Technique(int score, String displayName) {
+        this.score = score;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Gets the difficulty of the technique.
+     * @return The score in tenths (for example 23 for 2.3).
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the name shown to the player.
+     * @return The technique name in Spanish.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.sudoku.view;
+
+import com.example.sudoku.controller.I_InputHandler;
+import com.example.sudoku.model.BoardGeometry;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.GridPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Board view that draws the whole grid on a single {@link Canvas}. One mouse
+ * handler and one key handler serve every cell: a click is mapped from its
+ * coordinates to a cell, and keys go to the selected cell. Only the cells that
+ * change are repainted; each cell draws its own top and left grid lines, so a
+ * cell can be repainted without touching its neighbours.
+ * <p>
+ * The board can be zoomed with Ctrl+scroll, Ctrl+plus and Ctrl+minus, and reset
+ * with Ctrl+0. The colours match the cell states of styles.css.
+ */
+public class CanvasBoardView implements I_BoardView {
+
+    /** Smallest zoom factor. */
+    public static final double MIN_ZOOM = 0.5;
+    /** Largest zoom factor. */
+    public static final double MAX_ZOOM = 3.0;
+    private static final double ZOOM_STEP = 1.25;
+    // Total width of the board in pixels at zoom 1; cells shrink as the board grows
+    private static final int BOARD_PIXELS = 420;
+    private static final int MIN_CELL_PIXELS = 24;
+    private static final double BLOCK_LINE = 3;
+    private static final double CELL_LINE = 1;
+
+    private static final Color BLOCK_LINE_COLOR = Color.web("#2C3E50");
+    private static final Color CELL_LINE_COLOR = Color.web("#BDC3C7");
+    private static final Color EMPTY_BACKGROUND = Color.WHITE;
+    private static final Color EMPTY_TEXT = Color.web("#2C3E50");
+    private static final Color FIXED_BACKGROUND = Color.web("#E8EAF6");
+    private static final Color FIXED_TEXT = Color.web("#3F51B5");
+    private static final Color HINT_BACKGROUND = Color.web("#C8E6C9");
+    private static final Color HINT_TEXT = Color.web("#2E7D32");
+    private static final Color SMART_HINT_BACKGROUND = Color.web("#FFE082");
+    private static final Color SMART_HINT_TEXT = Color.web("#E65100");
+    private static final Color SELECTED_FRAME = Color.web("#1976D2");
+    private static final Color SELECTED_BACKGROUND = Color.web("#BBDEFB");
+    private static final Color SELECTED_TEXT = Color.web("#1565C0");
+    private static final Color ERROR_FRAME = Color.web("#E53935");
+    private static final Color ERROR_BACKGROUND = Color.web("#FFCDD2");
+    private static final Color ERROR_TEXT = Color.web("#C62828");
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final I_InputHandler handler;
+    private final Canvas canvas = new Canvas();
+    private final double baseCellPixels;
+    // Lo último que se pintó en cada celda, para repintar solo lo que cambia
+    private final int[] values;
+    private final int[] states;
+    private int selected = -1;
+    private double zoom = 1;
+    private Font font;
+
+    /**
+     * Constructs the view.
+     * @param geometry The block layout of the board.
+     * @param handler The controller that receives clicks and key presses.
+     */
+    public CanvasBoardView(BoardGeometry geometry, I_InputHandler handler) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.handler = handler;
+        this.baseCellPixels = Math.max(MIN_CELL_PIXELS, BOARD_PIXELS / size);
+        this.values = new int[geometry.getCells()];
+        this.states = new int[geometry.getCells()];
+        canvas.setFocusTraversable(true);
+        canvas.setOnMouseClicked(this::handleClick);
+        canvas.setOnKeyPressed(this::handleKey);
+        canvas.setOnScroll(this::handleScroll);
+        resize();
+    }
+
+    @Override
+    public void attach(GridPane container) {
+        container.add(canvas, 0, 0);
+        paintAll();
+    }
+
+    @Override
+    public void drawCell(int index, int value, int state) {
+        if ((state & SELECTED) != 0) {
+            selected = index;
+        } else if (selected == index) {
+            selected = -1;
+        }
+        if (values[index] == value && states[index] == state) {
+            return;
+        }
+        values[index] = value;
+        states[index] = state;
+        paint(index);
+    }
+
+    @Override
+    public void focusCell(int index) {
+        canvas.requestFocus();
+    }
+
+    /**
+     * Gets the zoom factor.
+     * @return The factor, 1 for the default size.
+     */
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Changes the zoom factor and repaints the board.
+     * @param zoom The new factor; clamped to {@value #MIN_ZOOM}..{@value #MAX_ZOOM}.
+     */
+    public void setZoom(double zoom) {
+        double clamped = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+        if (clamped == this.zoom) {
+            return;
+        }
+        this.zoom = clamped;
+        resize();
+        paintAll();
+    }
+
+    private double cellPixels() {
+        return baseCellPixels * zoom;
+    }
+
+    private void resize() {
+        double cellPixels = cellPixels();
+        canvas.setWidth(cellPixels * size);
+        canvas.setHeight(cellPixels * size);
+        font = Font.font("Arial", FontWeight.BOLD, cellPixels * 26 / 70);
+    }
+
+    private void handleClick(MouseEvent event) {
+        int row = (int) (event.getY() / cellPixels());
+        int col = (int) (event.getX() / cellPixels());
+        if (row >= 0 && row < size && col >= 0 && col < size) {
+            canvas.requestFocus();
+            handler.handleCellClick(row, col);
+        }
+    }
+
+    private void handleKey(KeyEvent event) {
+        KeyCode code = event.getCode();
+        if (event.isShortcutDown() && (code == KeyCode.PLUS || code == KeyCode.EQUALS || code == KeyCode.ADD)) {
+            setZoom(zoom * ZOOM_STEP);
+        } else if (event.isShortcutDown() && (code == KeyCode.MINUS || code == KeyCode.SUBTRACT)) {
+            setZoom(zoom / ZOOM_STEP);
+        } else if (event.isShortcutDown() && (code == KeyCode.DIGIT0 || code == KeyCode.NUMPAD0)) {
+            setZoom(1);
+        } else if (selected >= 0) {
+            handler.handleKeyInput(geometry.rowOf(selected), geometry.colOf(selected), event);
+        } else {
+            // Sin celda seleccionada solo sirven los atajos (deshacer, rehacer)
+            handler.handleKeyInput(-1, -1, event);
+        }
+        event.consume();
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        if (event.isShortcutDown() && event.getDeltaY() != 0) {
+            setZoom(event.getDeltaY() > 0 ? zoom * ZOOM_STEP : zoom / ZOOM_STEP);
+            event.consume();
+        }
+    }
+
+    private void paintAll() {
+        for (int i = 0; i < values.length; i++) {
+            paint(i);
+        }
+    }
+
+    /**
+     * Paints one cell: background by state, digit, then its top and left grid lines.
+     * @param index The cell index.
+     */
+    private void paint(int index) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double cellPixels = cellPixels();
+        int row = geometry.rowOf(index);
+        int col = geometry.colOf(index);
+        double x = col * cellPixels;
+        double y = row * cellPixels;
+        int state = states[index];
+
+        Color text;
+        if ((state & ERROR) != 0) {
+            fill(gc, x, y, cellPixels, ERROR_FRAME, 3, ERROR_BACKGROUND);
+            text = ERROR_TEXT;
+        } else if ((state & SELECTED) != 0) {
+            fill(gc, x, y, cellPixels, SELECTED_FRAME, 2, SELECTED_BACKGROUND);
+            text = SELECTED_TEXT;
+        } else if ((state & SMART_HINT) != 0) {
+            fill(gc, x, y, cellPixels, null, 0, SMART_HINT_BACKGROUND);
+            text = SMART_HINT_TEXT;
+        } else if ((state & HINT) != 0) {
+            fill(gc, x, y, cellPixels, null, 0, HINT_BACKGROUND);
+            text = HINT_TEXT;
+        } else if ((state & FIXED) != 0) {
+            fill(gc, x, y, cellPixels, null, 0, FIXED_BACKGROUND);
+            text = FIXED_TEXT;
+        } else {
+            fill(gc, x, y, cellPixels, null, 0, EMPTY_BACKGROUND);
+            text = EMPTY_TEXT;
+        }
+
+        if (values[index] != 0) {
+            gc.setFill(text);
+            gc.setFont(font);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.CENTER);
+            gc.fillText(BoardGeometry.symbol(values[index]), x + cellPixels / 2, y + cellPixels / 2);
+        }
+
+        if (row > 0) {
+            boolean block = geometry.isBlockStartRow(row);
+            gc.setFill(block ? BLOCK_LINE_COLOR : CELL_LINE_COLOR);
+            gc.fillRect(x, y, cellPixels, block ? BLOCK_LINE : CELL_LINE);
+        }
+        if (col > 0) {
+            boolean block = geometry.isBlockStartCol(col);
+            gc.setFill(block ? BLOCK_LINE_COLOR : CELL_LINE_COLOR);
+            gc.fillRect(x, y, block ? BLOCK_LINE : CELL_LINE, cellPixels);
+        }
+    }
+
+    private static void fill(GraphicsContext gc, double x, double y, double cellPixels,
+                             Color frame, double frameWidth, Color background) {
+        if (frame != null) {
+            gc.setFill(frame);
+            gc.fillRect(x, y, cellPixels, cellPixels);
+        }
+        gc.setFill(background);
+        gc.fillRect(x + frameWidth, y + frameWidth, cellPixels - 2 * frameWidth, cellPixels - 2 * frameWidth);
+    }
+}
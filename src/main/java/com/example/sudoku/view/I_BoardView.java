@@ -0,0 +1,42 @@
+package com.example.sudoku.view;
+
+import javafx.scene.layout.GridPane;
+
+/**
+ * A way of drawing the Sudoku board. The controller tells the view which cells
+ * changed and in what state they are; the view sends clicks and key presses
+ * back through {@link com.example.sudoku.controller.I_InputHandler}.
+ */
+public interface I_BoardView {
+
+    /** State flag: the cell is a given of the puzzle. */
+    int FIXED = 1;
+    /** State flag: the cell repeats a digit of its row, column or block. */
+    int ERROR = 1 << 1;
+    /** State flag: the cell is the one being edited. */
+    int SELECTED = 1 << 2;
+    /** State flag: the cell was just filled by a random hint. */
+    int HINT = 1 << 3;
+    /** State flag: the cell was just filled by a smart hint. */
+    int SMART_HINT = 1 << 4;
+
+    /**
+     * Adds the board to the game window.
+     * @param container The grid pane of the game view.
+     */
+    void attach(GridPane container);
+
+    /**
+     * Redraws one cell.
+     * @param index The cell index.
+     * @param value The digit in the cell, or 0 if it is empty.
+     * @param state A combination of the state flags of this interface.
+     */
+    void drawCell(int index, int value, int state);
+
+    /**
+     * Gives the keyboard focus to a cell, so the next key presses go to it.
+     * @param index The cell index.
+     */
+    void focusCell(int index);
+}
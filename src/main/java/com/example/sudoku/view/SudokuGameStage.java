@@ -1,36 +1,60 @@
 package com.example.sudoku.view;
 
+import com.example.sudoku.StartupTimings;
 import com.example.sudoku.controller.SudokuController;
+import com.example.sudoku.model.Difficulty;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Custom Stage class for the Sudoku Game window.
  * Implements the Singleton pattern (advanced MVC).
+ * The window can be prepared in the background while the welcome screen is
+ * shown (see {@link #preload()}), so pressing Play only has to show it.
  */
 public class SudokuGameStage extends Stage {
 
     private SudokuController controller;
     private static SudokuGameStage instance;
+    // Vista y modelo construidos en segundo plano, o null si no se precargó
+    private static CompletableFuture<LoadedView> preloaded;
     private static final String FXML_PATH = "/com/example/sudoku/sudoku-game-view.fxml";
-    private static final String APP_TITLE = "Sudoku 6×6 - Main Game"; // FIXED: More descriptive title
+    private static final String APP_TITLE_SUFFIX = " - Main Game"; // FIXED: More descriptive title
     private static final String ICON_PATH = "/com/example/sudoku/favicon.png";
+    // How long the solver and validator are exercised after the view is built
+    private static final long WARMUP_MILLIS = 400;
 
     /**
-     * Private constructor to prevent external instantiation.
+     * The scene graph of the game and its controller, with the board built.
      */
-    private SudokuGameStage() throws IOException {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource(FXML_PATH));
-        Parent root = loader.load();
+    private static final class LoadedView {
+        final Parent root;
+        final SudokuController controller;
+
+        LoadedView(Parent root, SudokuController controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
 
-        this.controller = loader.getController();
+    /**
+     * Private constructor to prevent external instantiation.
+     * @param view The loaded scene graph and controller.
+     */
+    private SudokuGameStage(LoadedView view) {
+        this.controller = view.controller;
 
-        Scene scene = new Scene(root);
-        this.setTitle(APP_TITLE);
+        Scene scene = new Scene(view.root);
+        this.setTitle(SudokuController.boardTitle(controller.getGeometry()) + APP_TITLE_SUFFIX);
         this.setScene(scene);
         this.setResizable(false);
 
@@ -38,16 +62,97 @@ public class SudokuGameStage extends Stage {
         this.centerOnScreen();
         this.getIcons().add(new Image(getClass().getResource(ICON_PATH).toExternalForm()));
 
+        // Guarda la partida en disco al cerrar la ventana
+        this.setOnHidden(event -> controller.flushAutosave());
+        StartupTimings.mark("game stage ready");
+    }
+
+    /**
+     * Loads the FXML (which builds the model and its first puzzle) and initializes
+     * the board. None of it touches a live scene, so it may run off the JavaFX thread.
+     * @return The loaded view.
+     * @throws IOException If the FXML cannot be loaded.
+     */
+    private static LoadedView loadView() throws IOException {
+        FXMLLoader loader = new FXMLLoader(SudokuGameStage.class.getResource(FXML_PATH));
+        Parent root = loader.load();
+        SudokuController controller = loader.getController();
+        StartupTimings.mark("game view and model loaded");
+
         // Initializes the board after loading the view
         controller.initializeBoard();
+        StartupTimings.mark("board built");
+        return new LoadedView(root, controller);
+    }
+
+    /**
+     * Starts building the game window in the background: the scene graph and
+     * the model with its first puzzle. The stage itself is then created on the
+     * JavaFX thread. Once the view is ready, a short warm-up of the solver and
+     * validator runs as a separate background task, so the first hint does not
+     * run cold; the window never waits for it. Does nothing if the window
+     * exists or is being built.
+     */
+    public static void preload() {
+        if (instance != null || preloaded != null) {
+            return;
+        }
+        Executor background = task -> {
+            Thread thread = new Thread(task, "sudoku-preload");
+            thread.setDaemon(true);
+            thread.start();
+        };
+        preloaded = CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadView();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, background);
+        preloaded.thenRun(() -> Platform.runLater(() -> {
+            try {
+                getInstance();
+            } catch (IOException e) {
+                System.err.println("Error creating the preloaded game stage: " + e.getMessage());
+            }
+        }));
+        preloaded.thenAcceptAsync(view -> {
+            view.controller.warmUp(WARMUP_MILLIS);
+            StartupTimings.mark("warm-up");
+        }, background);
+    }
+
+    /**
+     * Starts preparing a board of a difficulty for the game window, while the
+     * player is still choosing it (see {@link SudokuController#preparePuzzle(Difficulty)}).
+     * A window still being preloaded prepares it once it is built. Must be called
+     * on the JavaFX thread.
+     * @param difficulty The level, or null for the classic board.
+     */
+    public static void prepareGame(Difficulty difficulty) {
+        if (instance != null) {
+            instance.controller.preparePuzzle(difficulty);
+        } else if (preloaded != null) {
+            preloaded.thenAccept(view -> Platform.runLater(() -> view.controller.preparePuzzle(difficulty)));
+        }
     }
 
     /**
      * Singleton access method. Creates the instance if it doesn't exist, or returns it.
+     * A window being preloaded is waited for (but not its warm-up); if the preload failed,
+     * it is loaded again here.
      */
     public static SudokuGameStage getInstance() throws IOException {
         if (instance == null) {
-            instance = new SudokuGameStage();
+            LoadedView view = null;
+            if (preloaded != null) {
+                try {
+                    view = preloaded.join();
+                } catch (CompletionException e) {
+                    System.err.println("Error preloading the game view: " + e.getCause());
+                }
+            }
+            instance = new SudokuGameStage(view != null ? view : loadView());
         }
         return instance;
     }
@@ -1,5 +1,6 @@
 package com.example.sudoku.view;
 
+import com.example.sudoku.controller.SudokuController;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -16,7 +17,7 @@ public class SudokuWelcomeStage extends Stage {
     private static SudokuWelcomeStage instance;
 
     private static final String FXML_PATH = "/com/example/sudoku/sudoku-welcome-view.fxml";
-    private static final String APP_TITLE = "Sudoku 6×6 - Bienvenida";
+    private static final String APP_TITLE_SUFFIX = " - Bienvenida";
     //la ruta del ícono
     private static final String ICON_PATH = "/com/example/sudoku/favicon.png";
 
@@ -27,7 +28,7 @@ public class SudokuWelcomeStage extends Stage {
         FXMLLoader loader = new FXMLLoader(getClass().getResource(FXML_PATH));
         Parent root = loader.load();
 
-        this.setTitle(APP_TITLE);
+        this.setTitle(SudokuController.boardTitle(SudokuController.configuredGeometry()) + APP_TITLE_SUFFIX);
         this.setScene(new Scene(root));
         this.setResizable(false);
         this.centerOnScreen();
@@ -0,0 +1,134 @@
+package com.example.sudoku.view;
+
+import com.example.sudoku.controller.I_InputHandler;
+import com.example.sudoku.controller.KeyInputAdapter;
+import com.example.sudoku.model.BoardGeometry;
+import javafx.css.PseudoClass;
+import javafx.geometry.Pos;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.text.Font;
+
+/**
+ * Board view with one read-only {@link TextField} per cell. Each field has its
+ * own click and key handlers, and the state of a cell is drawn by the CSS
+ * pseudo-classes {@code :fixed}, {@code :error}, {@code :selected}, {@code :hint}
+ * and {@code :smart-hint} of styles.css. Comfortable on small boards; large ones
+ * are better served by {@link CanvasBoardView}.
+ */
+public class TextFieldBoardView implements I_BoardView {
+
+    // Estados visuales de una celda; los colores viven en styles.css
+    private static final PseudoClass FIXED_CLASS = PseudoClass.getPseudoClass("fixed");
+    private static final PseudoClass ERROR_CLASS = PseudoClass.getPseudoClass("error");
+    private static final PseudoClass SELECTED_CLASS = PseudoClass.getPseudoClass("selected");
+    private static final PseudoClass HINT_CLASS = PseudoClass.getPseudoClass("hint");
+    private static final PseudoClass SMART_HINT_CLASS = PseudoClass.getPseudoClass("smart-hint");
+    // Total width of the board in pixels; cells shrink as the board grows
+    private static final int BOARD_PIXELS = 420;
+    private static final int MIN_CELL_PIXELS = 28;
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final I_InputHandler handler;
+    private final TextField[] cellFields; // Indexed like the board cells
+
+    /**
+     * Constructs the view.
+     * @param geometry The block layout of the board.
+     * @param handler The controller that receives clicks and key presses.
+     */
+    public TextFieldBoardView(BoardGeometry geometry, I_InputHandler handler) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.handler = handler;
+        this.cellFields = new TextField[geometry.getCells()];
+    }
+
+    @Override
+    public void attach(GridPane container) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                TextField cellField = createCellField(row, col);
+                container.add(cellField, col, row);
+                cellFields[geometry.index(row, col)] = cellField;
+                applyGridStyling(cellField, row, col);
+            }
+        }
+    }
+
+    @Override
+    public void drawCell(int index, int value, int state) {
+        TextField cellField = cellFields[index];
+        String text = BoardGeometry.symbol(value);
+        if (!text.equals(cellField.getText())) {
+            cellField.setText(text);
+        }
+        cellField.pseudoClassStateChanged(FIXED_CLASS, (state & FIXED) != 0);
+        cellField.pseudoClassStateChanged(ERROR_CLASS, (state & ERROR) != 0);
+        cellField.pseudoClassStateChanged(SELECTED_CLASS, (state & SELECTED) != 0);
+        cellField.pseudoClassStateChanged(HINT_CLASS, (state & HINT) != 0);
+        cellField.pseudoClassStateChanged(SMART_HINT_CLASS, (state & SMART_HINT) != 0);
+    }
+
+    @Override
+    public void focusCell(int index) {
+        cellFields[index].requestFocus();
+    }
+
+    /**
+     * Creates a single TextField to represent a cell in the grid.
+     * It configures the size, font, and event listeners for the cell;
+     * its text and state are drawn by {@link #drawCell(int, int, int)}.
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return A configured TextField for the cell.
+     */
+    private TextField createCellField(int row, int col) {
+        int cellPixels = Math.max(MIN_CELL_PIXELS, BOARD_PIXELS / size);
+        TextField cellField = new TextField();
+        cellField.setPrefSize(cellPixels, cellPixels);
+        cellField.setMinSize(cellPixels, cellPixels);
+        cellField.setMaxSize(cellPixels, cellPixels);
+        cellField.setAlignment(Pos.CENTER);
+        cellField.setFont(Font.font("Arial", cellPixels * 26 / 70));
+        cellField.setEditable(false);
+        cellField.setFocusTraversable(true);
+
+        cellField.setOnMouseClicked(event -> handler.handleCellClick(row, col));
+        cellField.setOnKeyPressed(new KeyInputAdapter(handler, row, col));
+
+        cellField.getStyleClass().add("sudoku-cell");
+
+        return cellField;
+    }
+
+    /**
+     * Applies the static styling of a cell: the thick borders that define the
+     * blocks. It is set once; the state of the cell (fixed, error, selected,
+     * hint) is drawn through CSS pseudo-classes and never touches this style.
+     * @param cellField The TextField to style.
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     */
+    private void applyGridStyling(TextField cellField, int row, int col) {
+        // Orden de JavaFX: arriba, derecha, abajo, izquierda
+        cellField.setStyle("-fx-border-style: solid; "
+                + "-fx-border-color: " + borderColor(row > 0 && geometry.isBlockStartRow(row)) + " "
+                + borderColor(col < size - 1 && geometry.isBlockStartCol(col + 1)) + " "
+                + borderColor(row < size - 1 && geometry.isBlockStartRow(row + 1)) + " "
+                + borderColor(col > 0 && geometry.isBlockStartCol(col)) + "; "
+                + "-fx-border-width: " + borderWidth(row == 0, geometry.isBlockStartRow(row)) + " "
+                + borderWidth(col == size - 1, geometry.isBlockStartCol(col + 1)) + " "
+                + borderWidth(row == size - 1, geometry.isBlockStartRow(row + 1)) + " "
+                + borderWidth(col == 0, geometry.isBlockStartCol(col)) + ";");
+    }
+
+    private static String borderColor(boolean blockEdge) {
+        return blockEdge ? "#2C3E50" : "#BDC3C7";
+    }
+
+    private static int borderWidth(boolean boardEdge, boolean blockEdge) {
+        return boardEdge ? 0 : blockEdge ? 4 : 1;
+    }
+}
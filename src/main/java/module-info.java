@@ -2,6 +2,8 @@ module com.example.sudoku { // Use el nombre de su módulo si es diferente
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.graphics; // Inclúyalo por si acaso
+    requires jdk.httpserver; // Servicio HTTP sin interfaz (SudokuServer)
+    requires jdk.jfr; // Eventos propios de Flight Recorder (paquete metrics)
 
     // EXPORTAR el paquete de la clase principal (el lanzador)
     exports com.example.sudoku;
@@ -0,0 +1,192 @@
+package com.example.sudoku.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.sudoku.solver.ConstraintSolver;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the saved game format: round trips through the bytes, the model
+ * and the autosave file, and rejection of corrupt data.
+ */
+class GameSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private static SudokuModel newModel(BoardGeometry geometry) {
+        return new SudokuModel(geometry, new ConstraintSolver(geometry));
+    }
+
+    private static int[] values(SudokuModel model) {
+        int size = model.getGeometry().getSize();
+        int[] grid = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row * size + col] = model.getCell(row, col).getValue();
+            }
+        }
+        return grid;
+    }
+
+    private static void play(SudokuModel model, int moves, Random random) {
+        int size = model.getGeometry().getSize();
+        while (moves > 0) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            int value = random.nextInt(size + 1);
+            if (!model.getCell(row, col).isFixed() && model.getCell(row, col).getValue() != value) {
+                model.setCellValue(row, col, value);
+                moves--;
+            }
+        }
+    }
+
+    @Test
+    void encodeAndDecodeKeepEveryField() throws IOException {
+        BoardGeometry geometry = BoardGeometry.SIX;
+        int cells = geometry.getCells();
+        byte[] values = new byte[cells];
+        byte[] solution = new byte[cells];
+        boolean[] givens = new boolean[cells];
+        byte[] base = new byte[cells];
+        for (int i = 0; i < cells; i++) {
+            values[i] = (byte) (i % 7);
+            solution[i] = (byte) (i % 6 + 1);
+            givens[i] = i % 5 == 0;
+            base[i] = (byte) (i % 3);
+        }
+        int[] moves = {MoveJournal.pack(1, 0, 4, false), MoveJournal.pack(35, 2, 6, true)};
+        GameSnapshot saved = new GameSnapshot(geometry, 123_456L, Difficulty.HARD, values, solution, givens,
+                base, moves, 1);
+
+        GameSnapshot read = GameSnapshot.decode(saved.encode());
+        assertEquals(geometry, read.geometry);
+        assertEquals(123_456L, read.elapsedMillis);
+        assertEquals(Difficulty.HARD, read.difficulty);
+        assertArrayEquals(values, read.values);
+        assertArrayEquals(solution, read.solution);
+        assertArrayEquals(givens, read.givens);
+        assertArrayEquals(base, read.base);
+        assertArrayEquals(moves, read.moves);
+        assertEquals(1, read.position);
+
+        GameSnapshot classic = GameSnapshot.decode(new GameSnapshot(geometry, 0, null, values, null, givens,
+                base, new int[0], 0).encode());
+        assertNull(classic.difficulty);
+        assertNull(classic.solution);
+    }
+
+    @Test
+    void modelRestoresBoardAndHistory() throws IOException {
+        for (BoardGeometry geometry : new BoardGeometry[] {BoardGeometry.SIX, BoardGeometry.NINE}) {
+            SudokuModel model = newModel(geometry);
+            play(model, 150, new Random(13));
+            model.undo();
+            model.undo();
+            byte[] saved = model.saveSnapshot();
+
+            SudokuModel restored = newModel(geometry);
+            restored.restoreSnapshot(saved);
+            assertArrayEquals(values(model), values(restored));
+            for (int row = 0; row < geometry.getSize(); row++) {
+                for (int col = 0; col < geometry.getSize(); col++) {
+                    assertEquals(model.getCell(row, col).isFixed(), restored.getCell(row, col).isFixed());
+                }
+            }
+            MoveJournal journal = restored.getJournal();
+            assertEquals(model.getJournal().getPosition(), journal.getPosition());
+            assertEquals(model.getJournal().getEndPosition(), journal.getEndPosition());
+            assertTrue(restored.getElapsedMillis() >= 0);
+
+            // Undo and redo keep working after the restore
+            model.redo();
+            restored.redo();
+            assertArrayEquals(values(model), values(restored));
+            for (int k = 0; k < 100; k++) {
+                model.undo();
+                restored.undo();
+            }
+            assertArrayEquals(values(model), values(restored));
+        }
+    }
+
+    @Test
+    void restoreKeepsTheDifficulty() throws IOException {
+        SudokuModel model = newModel(BoardGeometry.SIX);
+        model.setDifficulty(Difficulty.EASY);
+        model.resetBoard();
+        SudokuModel restored = newModel(BoardGeometry.SIX);
+        restored.restoreSnapshot(model.saveSnapshot());
+        assertEquals(Difficulty.EASY, restored.getDifficulty());
+    }
+
+    @Test
+    void rejectsCorruptSnapshots() {
+        SudokuModel model = newModel(BoardGeometry.SIX);
+        play(model, 10, new Random(17));
+        byte[] good = model.saveSnapshot();
+
+        assertCorrupt(new byte[0]);
+        assertCorrupt(Arrays.copyOf(good, 20));
+        assertCorrupt(Arrays.copyOf(good, good.length - 1));
+        byte[] magic = good.clone();
+        magic[0] ^= 1;
+        assertCorrupt(magic);
+        byte[] version = good.clone();
+        version[5] = 9;
+        assertCorrupt(version);
+        byte[] moves = good.clone();
+        ByteBuffer.wrap(moves).putInt(20, -1);
+        assertCorrupt(moves);
+        for (int offset = 32; offset < good.length; offset += 7) {
+            byte[] flipped = good.clone();
+            flipped[offset] ^= 0x10;
+            assertCorrupt(flipped);
+        }
+    }
+
+    private static void assertCorrupt(byte[] data) {
+        IOException error = assertThrows(IOException.class, () -> GameSnapshot.decode(data));
+        assertTrue(error.getMessage().contains("aved game"), error.getMessage());
+    }
+
+    @Test
+    void rejectsAGameOfAnotherGeometry() {
+        byte[] six = newModel(BoardGeometry.SIX).saveSnapshot();
+        SudokuModel nine = newModel(BoardGeometry.NINE);
+        int[] before = values(nine);
+        assertThrows(IOException.class, () -> nine.restoreSnapshot(six));
+        assertArrayEquals(before, values(nine));
+    }
+
+    @Test
+    void autoSaverKeepsTheNewestSnapshot() throws IOException {
+        Path file = dir.resolve("saves").resolve("game.bin");
+        assertNull(AutoSaver.read(file));
+        SudokuModel model = newModel(BoardGeometry.SIX);
+        Random random = new Random(19);
+        byte[] last = null;
+        try (AutoSaver saver = new AutoSaver(file)) {
+            for (int k = 0; k < 50; k++) {
+                play(model, 1, random);
+                last = model.saveSnapshot();
+                saver.save(last);
+            }
+        }
+        assertArrayEquals(last, AutoSaver.read(file));
+        SudokuModel restored = newModel(BoardGeometry.SIX);
+        restored.restoreSnapshot(AutoSaver.read(file));
+        assertArrayEquals(values(model), values(restored));
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.sudoku.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.sudoku.solver.ConstraintSolver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the move journal: undo, redo, jumps across checkpoints and the
+ * dropping of the oldest moves.
+ */
+class MoveJournalTest {
+
+    private static SudokuModel newModel() {
+        return new SudokuModel(BoardGeometry.SIX, new ConstraintSolver(BoardGeometry.SIX));
+    }
+
+    private static int[] values(SudokuModel model) {
+        int size = model.getGeometry().getSize();
+        int[] grid = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row * size + col] = model.getCell(row, col).getValue();
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Plays random moves on free cells and keeps the board after each one,
+     * so that {@code boards.get(p)} is the board at position {@code p}.
+     */
+    private static List<int[]> play(SudokuModel model, int moves, Random random) {
+        int size = model.getGeometry().getSize();
+        List<int[]> boards = new ArrayList<>();
+        boards.add(values(model));
+        while (boards.size() <= moves) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            int value = random.nextInt(size + 1);
+            if (!model.getCell(row, col).isFixed() && model.getCell(row, col).getValue() != value) {
+                assertTrue(model.setCellValue(row, col, value));
+                boards.add(values(model));
+            }
+        }
+        return boards;
+    }
+
+    @Test
+    void undoAndRedoWalkTheHistory() {
+        SudokuModel model = newModel();
+        List<int[]> boards = play(model, 20, new Random(3));
+        MoveJournal journal = model.getJournal();
+        assertEquals(20, journal.getPosition());
+        assertFalse(journal.canRedo());
+        assertNull(model.redo());
+
+        for (int p = 19; p >= 0; p--) {
+            assertTrue(journal.canUndo());
+            assertTrue(model.undo() != null);
+            assertArrayEquals(boards.get(p), values(model), "after undo to " + p);
+        }
+        assertFalse(journal.canUndo());
+        assertNull(model.undo());
+
+        for (int p = 1; p <= 20; p++) {
+            assertTrue(model.redo() != null);
+            assertArrayEquals(boards.get(p), values(model), "after redo to " + p);
+        }
+        assertNull(model.redo());
+    }
+
+    @Test
+    void newMoveDiscardsTheUndoneMoves() {
+        SudokuModel model = newModel();
+        Random random = new Random(5);
+        List<int[]> boards = play(model, 10, random);
+        model.jumpTo(4);
+        assertArrayEquals(boards.get(4), values(model));
+        assertTrue(model.getJournal().canRedo());
+
+        play(model, 1, random);
+        MoveJournal journal = model.getJournal();
+        assertEquals(5, journal.getPosition());
+        assertEquals(5, journal.getEndPosition());
+        assertFalse(journal.canRedo());
+        assertThrows(IndexOutOfBoundsException.class, () -> journal.entryAt(5));
+    }
+
+    @Test
+    void unchangedOrRejectedMovesAreNotRecorded() {
+        SudokuModel model = newModel();
+        int size = model.getGeometry().getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                Cell cell = model.getCell(row, col);
+                if (cell.isFixed()) {
+                    assertFalse(model.setCellValue(row, col, cell.getValue() % size + 1));
+                } else {
+                    assertTrue(model.setCellValue(row, col, cell.getValue()));
+                    assertFalse(model.setCellValue(row, col, size + 1));
+                }
+            }
+        }
+        assertEquals(0, model.getJournal().getEndPosition());
+    }
+
+    @Test
+    void jumpsAcrossCheckpoints() {
+        SudokuModel model = newModel();
+        Random random = new Random(7);
+        int moves = 5 * MoveJournal.CHECKPOINT_INTERVAL + 17;
+        List<int[]> boards = play(model, moves, random);
+        long[] targets = {0, moves, 3, moves - 1, MoveJournal.CHECKPOINT_INTERVAL,
+                2 * MoveJournal.CHECKPOINT_INTERVAL - 1, 100, 130, moves};
+        for (long target : targets) {
+            model.jumpTo(target);
+            assertEquals(target, model.getJournal().getPosition());
+            assertArrayEquals(boards.get((int) target), values(model), "after jump to " + target);
+        }
+        for (int k = 0; k < 50; k++) {
+            int target = random.nextInt(moves + 1);
+            model.jumpTo(target);
+            assertArrayEquals(boards.get(target), values(model), "after jump to " + target);
+        }
+        assertThrows(IllegalArgumentException.class, () -> model.jumpTo(moves + 1));
+        assertThrows(IllegalArgumentException.class, () -> model.jumpTo(-1));
+    }
+
+    @Test
+    void publishedSnapshotFollowsEveryChange() {
+        SudokuModel model = newModel();
+        Random random = new Random(13);
+        int cells = model.getGeometry().getCells();
+        int[] copy = new int[cells];
+        List<int[]> boards = play(model, 40, random);
+        BoardSnapshot first = model.getSnapshot();
+        first.copyValues(copy);
+        assertArrayEquals(boards.get(40), copy);
+
+        model.undo();
+        model.jumpTo(10);
+        model.redo();
+        BoardSnapshot last = model.getSnapshot();
+        last.copyValues(copy);
+        assertArrayEquals(boards.get(11), copy);
+        assertFalse(model.isCurrent(first));
+        assertTrue(model.isCurrent(last));
+        // The earlier snapshot is not touched by later moves
+        first.copyValues(copy);
+        assertArrayEquals(boards.get(40), copy);
+
+        // Writes through a cell are moves too
+        for (int i = 0; i < cells; i++) {
+            Cell cell = model.getCell(i / 6, i % 6);
+            if (!cell.isFixed()) {
+                cell.setValue(cell.getValue() % 6 + 1);
+                assertFalse(model.isCurrent(last));
+                assertEquals(cell.getValue(), model.getSnapshot().get(i));
+                assertEquals(12, model.getJournal().getEndPosition());
+                break;
+            }
+        }
+    }
+
+    @Test
+    void dropsTheOldestMovesWhenFull() {
+        BoardGeometry geometry = BoardGeometry.SIX;
+        Board board = new Board(geometry);
+        board.load(new int[geometry.getCells()]);
+        MoveJournal journal = new MoveJournal(geometry, 1);
+        journal.clear(board);
+
+        Random random = new Random(11);
+        List<byte[]> boards = new ArrayList<>();
+        int moves = 300;
+        for (int p = 0; p <= moves; p++) {
+            byte[] copy = new byte[geometry.getCells()];
+            board.copyValues(copy);
+            boards.add(copy);
+            if (p == moves) {
+                break;
+            }
+            int cell = random.nextInt(geometry.getCells());
+            int old = board.get(cell);
+            int value = old % geometry.getSize() + 1;
+            assertTrue(board.set(cell, value));
+            journal.record(MoveJournal.pack(cell, old, value, false), board);
+        }
+
+        // 256 moves fit; the next one drops the oldest checkpoint interval
+        long first = journal.getFirstPosition();
+        assertEquals(MoveJournal.CHECKPOINT_INTERVAL, first);
+        assertEquals(moves, journal.getEndPosition());
+        assertThrows(IndexOutOfBoundsException.class, () -> journal.entryAt(first - 1));
+        for (long p = first; p <= moves; p += MoveJournal.CHECKPOINT_INTERVAL) {
+            assertArrayEquals(boards.get((int) p), journal.checkpoint(p), "checkpoint " + p);
+        }
+
+        int undone = 0;
+        while (journal.undo() != MoveJournal.NONE) {
+            undone++;
+        }
+        assertEquals(moves - first, undone);
+        assertEquals(first, journal.getPosition());
+    }
+
+    @Test
+    void packKeepsEveryField() {
+        int[][] cases = {{0, 0, 1}, {35, 6, 0}, {255, 16, 9}, {4095, 64, 63}};
+        for (int[] c : cases) {
+            for (boolean hint : new boolean[] {false, true}) {
+                int entry = MoveJournal.pack(c[0], c[1], c[2], hint);
+                assertTrue(entry != MoveJournal.NONE);
+                assertEquals(c[0], MoveJournal.cellOf(entry));
+                assertEquals(c[1], MoveJournal.oldValueOf(entry));
+                assertEquals(c[2], MoveJournal.newValueOf(entry));
+                assertEquals(hint, MoveJournal.isHint(entry));
+            }
+        }
+    }
+}
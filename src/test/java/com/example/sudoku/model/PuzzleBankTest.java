@@ -0,0 +1,132 @@
+package com.example.sudoku.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.sudoku.solver.ConstraintSolver;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for writing, reading and rejecting puzzle bank files.
+ */
+class PuzzleBankTest {
+
+    @TempDir
+    Path dir;
+
+    private static List<Puzzle> puzzles(BoardGeometry geometry, int count) {
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, new ConstraintSolver(geometry));
+        Random random = new Random(9);
+        List<Puzzle> puzzles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            puzzles.add(generator.generate(random, 2, false));
+        }
+        return puzzles;
+    }
+
+    private Path write(BoardGeometry geometry, List<Puzzle> puzzles) throws IOException {
+        Path file = dir.resolve("bank-" + geometry + ".bin");
+        try (PuzzleBank.Writer writer = PuzzleBank.create(file, geometry)) {
+            for (int i = 0; i < puzzles.size(); i++) {
+                writer.add(puzzles.get(i), i % 3 * 100);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void roundTripsEveryPuzzle() throws IOException {
+        for (BoardGeometry geometry : new BoardGeometry[] {BoardGeometry.SIX, BoardGeometry.NINE, BoardGeometry.SIXTEEN}) {
+            List<Puzzle> puzzles = puzzles(geometry, 30);
+            try (PuzzleBank bank = PuzzleBank.open(write(geometry, puzzles))) {
+                assertEquals(geometry, bank.getGeometry());
+                assertEquals(puzzles.size(), bank.size());
+                int cells = geometry.getCells();
+                for (int i = 0; i < puzzles.size(); i++) {
+                    int[] expected = new int[cells];
+                    int[] actual = new int[cells];
+                    puzzles.get(i).copyGivens(expected);
+                    bank.copyGivens(i, actual);
+                    assertArrayEquals(expected, actual, "givens of puzzle " + i);
+                    puzzles.get(i).copySolution(expected);
+                    bank.copySolution(i, actual);
+                    assertArrayEquals(expected, actual, "solution of puzzle " + i);
+                    assertEquals(i % 3 * 100, bank.getDifficulty(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void indexesPuzzlesByDifficulty() throws IOException {
+        List<Puzzle> puzzles = puzzles(BoardGeometry.SIX, 30);
+        try (PuzzleBank bank = PuzzleBank.open(write(BoardGeometry.SIX, puzzles))) {
+            assertEquals(10, bank.countWithDifficulty(100));
+            assertEquals(0, bank.countWithDifficulty(50));
+            for (int n = 0; n < 10; n++) {
+                assertEquals(100, bank.getDifficulty(bank.indexWithDifficulty(100, n)));
+            }
+            Random random = new Random(1);
+            for (int k = 0; k < 100; k++) {
+                int index = bank.randomIndex(random, 150, 255);
+                assertEquals(200, bank.getDifficulty(index));
+            }
+            assertEquals(-1, bank.randomIndex(random, 101, 199));
+            assertThrows(IndexOutOfBoundsException.class, () -> bank.indexWithDifficulty(100, 10));
+        }
+    }
+
+    @Test
+    void emptyBankHasNoRandomPuzzle() throws IOException {
+        try (PuzzleBank bank = PuzzleBank.open(write(BoardGeometry.SIX, List.of()))) {
+            assertEquals(0, bank.size());
+            assertEquals(-1, bank.randomIndex(new Random(1)));
+        }
+    }
+
+    @Test
+    void writerRejectsPuzzlesOfAnotherGeometry() throws IOException {
+        Puzzle nine = puzzles(BoardGeometry.NINE, 1).get(0);
+        try (PuzzleBank.Writer writer = PuzzleBank.create(dir.resolve("mixed.bin"), BoardGeometry.SIX)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.add(nine, 0));
+            assertThrows(IllegalArgumentException.class, () -> writer.add(puzzles(BoardGeometry.SIX, 1).get(0), 256));
+        }
+    }
+
+    @Test
+    void rejectsCorruptFiles() throws IOException {
+        byte[] good = Files.readAllBytes(write(BoardGeometry.SIX, puzzles(BoardGeometry.SIX, 5)));
+
+        assertCorrupt(new byte[10]);
+        byte[] magic = good.clone();
+        magic[0] ^= 1;
+        assertCorrupt(magic);
+        byte[] version = good.clone();
+        version[5] = 9;
+        assertCorrupt(version);
+        byte[] count = good.clone();
+        ByteBuffer.wrap(count).putInt(8, 1000);
+        assertCorrupt(count);
+        byte[] recordSize = good.clone();
+        ByteBuffer.wrap(recordSize).putInt(12, 3);
+        assertCorrupt(recordSize);
+        assertCorrupt(Arrays.copyOf(good, good.length - 8));
+    }
+
+    private void assertCorrupt(byte[] data) throws IOException {
+        Path file = Files.write(dir.resolve("corrupt.bin"), data);
+        IOException error = assertThrows(IOException.class, () -> PuzzleBank.open(file).close());
+        assertTrue(error.getMessage().contains("bank"), error.getMessage());
+    }
+}
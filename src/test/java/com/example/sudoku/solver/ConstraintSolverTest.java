@@ -0,0 +1,63 @@
+package com.example.sudoku.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.PuzzleText;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the constraint-propagation solver on known boards.
+ */
+class ConstraintSolverTest {
+
+    static final String PUZZLE =
+            "53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79";
+    static final String SOLUTION =
+            "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+    static int[] grid(BoardGeometry geometry, String text) {
+        int[] grid = new int[geometry.getCells()];
+        PuzzleText.parse(geometry, text, grid);
+        return grid;
+    }
+
+    @Test
+    void solvesKnownPuzzle() {
+        int[] grid = grid(BoardGeometry.NINE, PUZZLE);
+        assertTrue(new ConstraintSolver(BoardGeometry.NINE).solve(grid));
+        assertArrayEquals(grid(BoardGeometry.NINE, SOLUTION), grid);
+    }
+
+    @Test
+    void countsEverySolutionOfAnEmpty4x4Board() {
+        BoardGeometry geometry = BoardGeometry.of(2, 2);
+        assertEquals(288, new ConstraintSolver(geometry).countSolutions(new int[geometry.getCells()], 1000));
+    }
+
+    @Test
+    void stopsCountingAtTheLimit() {
+        BoardGeometry geometry = BoardGeometry.SIX;
+        assertEquals(5, new ConstraintSolver(geometry).countSolutions(new int[geometry.getCells()], 5));
+    }
+
+    @Test
+    void conflictingGivensHaveNoSolution() {
+        int[] grid = grid(BoardGeometry.NINE, PUZZLE);
+        grid[2] = 5; // Same row as the 5 in the first cell
+        int[] before = grid.clone();
+        ConstraintSolver solver = new ConstraintSolver(BoardGeometry.NINE);
+        assertFalse(solver.solve(grid));
+        assertArrayEquals(before, grid);
+        assertEquals(0, solver.countSolutions(grid, 2));
+    }
+
+    @Test
+    void uniquePuzzleCountsOneSolution() {
+        ConstraintSolver solver = new ConstraintSolver(BoardGeometry.NINE);
+        assertEquals(1, solver.countSolutions(grid(BoardGeometry.NINE, PUZZLE), 2));
+    }
+}
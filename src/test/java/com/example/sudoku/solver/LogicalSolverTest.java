@@ -0,0 +1,164 @@
+package com.example.sudoku.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.PuzzleGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the human-technique solver: every step it takes must agree with
+ * the unique solution, and the rating must follow the hardest technique used.
+ */
+class LogicalSolverTest {
+
+    /**
+     * Digs a unique puzzle: cells of a solved grid are cleared in random order
+     * as long as the puzzle keeps a single solution.
+     */
+    private static int[] digUniquePuzzle(BoardGeometry geometry, int[] solution, Random random) {
+        ConstraintSolver solver = new ConstraintSolver(geometry);
+        int[] puzzle = solution.clone();
+        int[] order = new int[puzzle.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        for (int cell : order) {
+            int digit = puzzle[cell];
+            puzzle[cell] = 0;
+            if (solver.countSolutions(puzzle, 2) != 1) {
+                puzzle[cell] = digit;
+            }
+        }
+        return puzzle;
+    }
+
+    @Test
+    void everyStepAgreesWithTheSolution() {
+        int solvedCount = 0;
+        int harderThanSingles = 0;
+        for (BoardGeometry geometry : new BoardGeometry[] {BoardGeometry.SIX, BoardGeometry.NINE}) {
+            PuzzleGenerator generator = new PuzzleGenerator(geometry, new ConstraintSolver(geometry));
+            LogicalSolver logical = new LogicalSolver(geometry);
+            Random random = new Random(17);
+            for (int n = 0; n < 25; n++) {
+                int[] solution = generator.randomSolvedBoard(random);
+                int[] puzzle = digUniquePuzzle(geometry, solution, random);
+                int[] grid = puzzle.clone();
+                List<LogicalStep> steps = new ArrayList<>();
+                LogicalRating rating = logical.solve(grid, steps);
+
+                int hardest = 0;
+                for (LogicalStep step : steps) {
+                    if (step.isPlacement()) {
+                        assertEquals(solution[step.getCell()], step.getDigit(), step.toString());
+                    }
+                    for (int k = 0; k < step.getEliminationCount(); k++) {
+                        int cell = step.getEliminationCell(k);
+                        assertEquals(0, step.getEliminationMask(k) & BoardGeometry.bit(solution[cell]),
+                                "removed the solution digit of cell " + cell + " in " + step);
+                    }
+                    hardest = Math.max(hardest, step.getTechnique().getScore());
+                }
+                for (int i = 0; i < grid.length; i++) {
+                    if (grid[i] != 0) {
+                        assertEquals(solution[i], grid[i], "cell " + i);
+                    }
+                }
+                assertEquals(steps.size(), rating.getSteps());
+                assertFalse(rating.hasContradiction());
+                if (rating.isSolved()) {
+                    solvedCount++;
+                    assertArrayEquals(solution, grid);
+                    assertEquals(hardest, rating.getScore());
+                    if (hardest > Technique.NAKED_SINGLE.getScore()) {
+                        harderThanSingles++;
+                    }
+                } else {
+                    assertEquals(LogicalRating.BEYOND_TECHNIQUES, rating.getScore());
+                }
+            }
+        }
+        assertTrue(solvedCount > 0, "some puzzles are solved by logic alone");
+        assertTrue(harderThanSingles > 0, "some puzzles need more than singles");
+    }
+
+    @Test
+    void rateLeavesTheGridAndMatchesSolve() {
+        BoardGeometry geometry = BoardGeometry.NINE;
+        int[] puzzle = knownPuzzle();
+        int[] copy = puzzle.clone();
+        LogicalSolver logical = new LogicalSolver(geometry);
+        int score = logical.rate(copy).getScore();
+        assertArrayEquals(puzzle, copy);
+        assertEquals(score, logical.solve(copy, null).getScore());
+    }
+
+    @Test
+    void nextStepIsTheFirstStepOfASolve() {
+        BoardGeometry geometry = BoardGeometry.NINE;
+        LogicalSolver logical = new LogicalSolver(geometry);
+        int[] puzzle = knownPuzzle();
+        LogicalStep next = logical.nextStep(puzzle);
+        List<LogicalStep> steps = new ArrayList<>();
+        logical.solve(puzzle.clone(), steps);
+        assertNotNull(next);
+        assertEquals(steps.get(0).getTechnique(), next.getTechnique());
+        assertEquals(steps.get(0).getCell(), next.getCell());
+        assertEquals(steps.get(0).getDigit(), next.getDigit());
+    }
+
+    @Test
+    void ratesTrivialAndImpossibleBoards() {
+        BoardGeometry geometry = BoardGeometry.NINE;
+        LogicalSolver logical = new LogicalSolver(geometry);
+        int[] solution = knownSolution();
+
+        LogicalRating full = logical.rate(solution);
+        assertTrue(full.isSolved());
+        assertEquals(0, full.getScore());
+        assertEquals(0, full.getSteps());
+        assertNull(logical.nextStep(solution));
+
+        int[] oneEmpty = solution.clone();
+        oneEmpty[40] = 0;
+        LogicalRating single = logical.rate(oneEmpty);
+        assertTrue(single.isSolved());
+        assertEquals(Technique.HIDDEN_SINGLE.getScore(), single.getScore());
+        assertEquals(1, single.getSteps());
+
+        int[] conflict = new int[geometry.getCells()];
+        conflict[0] = 5;
+        conflict[1] = 5;
+        LogicalRating contradiction = logical.rate(conflict);
+        assertFalse(contradiction.isSolved());
+        assertTrue(contradiction.hasContradiction());
+        assertEquals(LogicalRating.BEYOND_TECHNIQUES, contradiction.getScore());
+
+        LogicalRating empty = logical.rate(new int[geometry.getCells()]);
+        assertFalse(empty.isSolved());
+        assertEquals(LogicalRating.BEYOND_TECHNIQUES, empty.getScore());
+    }
+
+    private static int[] knownPuzzle() {
+        return ConstraintSolverTest.grid(BoardGeometry.NINE, ConstraintSolverTest.PUZZLE);
+    }
+
+    private static int[] knownSolution() {
+        return ConstraintSolverTest.grid(BoardGeometry.NINE, ConstraintSolverTest.SOLUTION);
+    }
+}
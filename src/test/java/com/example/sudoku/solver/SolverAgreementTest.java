@@ -0,0 +1,98 @@
+package com.example.sudoku.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.PuzzleGenerator;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that every {@link Solver} gives the same answers on random boards:
+ * the same solution counts, the same solvability, and valid solutions that
+ * keep the givens.
+ */
+class SolverAgreementTest {
+
+    private static final int BOARDS = 80;
+
+    private static Solver[] solvers(BoardGeometry geometry) {
+        return new Solver[] {
+                new ConstraintSolver(geometry), new DancingLinksSolver(geometry), new ParallelSolver(geometry)
+        };
+    }
+
+    /**
+     * Builds a board by clearing random cells of a solved grid; some boards
+     * also get a random digit that may conflict.
+     */
+    private static int[] randomBoard(BoardGeometry geometry, PuzzleGenerator generator, Random random) {
+        int[] grid = generator.randomSolvedBoard(random);
+        int clearPercent = 40 + random.nextInt(45);
+        for (int i = 0; i < grid.length; i++) {
+            if (random.nextInt(100) < clearPercent) {
+                grid[i] = 0;
+            }
+        }
+        if (random.nextInt(4) == 0) {
+            grid[random.nextInt(grid.length)] = 1 + random.nextInt(geometry.getSize());
+        }
+        return grid;
+    }
+
+    private static void assertValidSolution(BoardGeometry geometry, int[] givens, int[] solved) {
+        Board board = new Board(geometry);
+        board.load(solved);
+        assertTrue(board.isSolved(), "solution is complete and has no conflicts");
+        for (int i = 0; i < givens.length; i++) {
+            if (givens[i] != 0) {
+                assertEquals(givens[i], solved[i], "given kept at cell " + i);
+            }
+        }
+    }
+
+    @Test
+    void solversAgreeOnRandomBoards() {
+        for (String layout : new String[] {"2x2", "2x3", "3x3", "3x4"}) {
+            agreeOnRandomBoards(BoardGeometry.parse(layout));
+        }
+    }
+
+    private static void agreeOnRandomBoards(BoardGeometry geometry) {
+        Solver[] solvers = solvers(geometry);
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, solvers[0]);
+        Random random = new Random(42);
+        for (int n = 0; n < BOARDS; n++) {
+            int[] board = randomBoard(geometry, generator, random);
+            int expectedCount = solvers[0].countSolutions(board, 3);
+            for (Solver solver : solvers) {
+                String name = solver.getClass().getSimpleName() + " on " + geometry + " board " + n;
+                assertEquals(expectedCount, solver.countSolutions(board, 3), name);
+                int[] solved = board.clone();
+                assertEquals(expectedCount > 0, solver.solve(solved), name);
+                if (expectedCount > 0) {
+                    assertValidSolution(geometry, board, solved);
+                }
+            }
+        }
+    }
+
+    @Test
+    void outOfRangeGivensHaveNoSolution() {
+        BoardGeometry geometry = BoardGeometry.SIX;
+        for (Solver solver : solvers(geometry)) {
+            for (int digit : new int[] {geometry.getSize() + 1, 64, 65, 70, -1}) {
+                int[] grid = new int[geometry.getCells()];
+                grid[0] = 1;
+                grid[1] = digit;
+                assertEquals(0, solver.countSolutions(grid, 2), solver.getClass().getSimpleName() + " with " + digit);
+                assertFalse(solver.solve(grid), solver.getClass().getSimpleName() + " with " + digit);
+            }
+            // A rejected board must not spoil the next call
+            assertEquals(2, solver.countSolutions(new int[geometry.getCells()], 2));
+        }
+    }
+}